@@ -0,0 +1,83 @@
+package com.necrock.readingtracker;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.necrock.readingtracker.readingitem.api.ReadingItemMapper;
+import com.necrock.readingtracker.readingitem.api.dto.ReadingItemDetailsDto;
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingprogress.api.ReadingProgressMapper;
+import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressDetailsDto;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes lists of reading item and reading progress responses to JSON bytes, with an object mapper configured
+ * like the one Spring MVC writes responses with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<ReadingItemDetailsDto> readingItems;
+    private List<ReadingProgressDetailsDto> readingProgress;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        var readingItemMapper = Mappers.getMapper(ReadingItemMapper.class);
+        var readingProgressMapper = Mappers.getMapper(ReadingProgressMapper.class);
+
+        readingItems = new ArrayList<>(size);
+        readingProgress = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            var readingItem = ReadingItem.builder()
+                    .id((long) i)
+                    .title("The Name of the Wind, volume " + i)
+                    .type(ReadingItemType.BOOK)
+                    .author("Patrick Rothfuss")
+                    .totalChapters(92)
+                    .build();
+            readingItems.add(readingItemMapper.toDetailsDto(readingItem));
+            readingProgress.add(readingProgressMapper.toDetailsDto(ReadingProgress.builder()
+                    .id((long) i)
+                    .readingItem(readingItem)
+                    .lastReadChapter(i % 92)
+                    .version(1L)
+                    .build()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeReadingItems() throws Exception {
+        return writer.writeValueAsBytes(readingItems);
+    }
+
+    @Benchmark
+    public byte[] serializeReadingProgress() throws Exception {
+        return writer.writeValueAsBytes(readingProgress);
+    }
+}
@@ -0,0 +1,108 @@
+package com.necrock.readingtracker;
+
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingitem.service.ReadingItemEntityMapper;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingprogress.api.ReadingProgressMapper;
+import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressDetailsDto;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
+import com.necrock.readingtracker.readingprogress.service.ReadingProgressEntityMapper;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.common.UserStatus;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps one reading item and one reading progress, with its user and reading item, between the entity, domain and
+ * response models, as every request that reads or writes them does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private ReadingItemEntityMapper readingItemEntityMapper;
+    private ReadingProgressEntityMapper readingProgressEntityMapper;
+    private ReadingProgressMapper readingProgressMapper;
+
+    private ReadingItemEntity readingItemEntity;
+    private ReadingItem readingItem;
+    private ReadingProgressEntity readingProgressEntity;
+    private ReadingProgress readingProgress;
+
+    @Setup
+    public void setUp() {
+        readingItemEntityMapper = Mappers.getMapper(ReadingItemEntityMapper.class);
+        readingProgressEntityMapper = Mappers.getMapper(ReadingProgressEntityMapper.class);
+        readingProgressMapper = Mappers.getMapper(ReadingProgressMapper.class);
+
+        readingItemEntity = ReadingItemEntity.builder()
+                .id(1L)
+                .title("The Name of the Wind")
+                .type(ReadingItemType.BOOK)
+                .author("Patrick Rothfuss")
+                .totalChapters(92)
+                .createdAt(Instant.parse("2020-01-01T00:00:00Z"))
+                .build();
+        readingItem = readingItemEntityMapper.toDomainModel(readingItemEntity);
+        readingProgressEntity = ReadingProgressEntity.builder()
+                .id(2L)
+                .user(UserEntity.builder()
+                        .id(3L)
+                        .username("reader")
+                        .email("reader@provider.com")
+                        .passwordHash("#hash")
+                        .role(UserRole.USER)
+                        .status(UserStatus.ACTIVE)
+                        .createdAt(Instant.parse("2020-01-01T00:00:00Z"))
+                        .build())
+                .readingItem(readingItemEntity)
+                .lastReadChapter(12)
+                .version(4L)
+                .build();
+        readingProgress = readingProgressEntityMapper.toDomainModel(readingProgressEntity);
+    }
+
+    @Benchmark
+    public ReadingItem readingItemToDomainModel() {
+        return readingItemEntityMapper.toDomainModel(readingItemEntity);
+    }
+
+    @Benchmark
+    public ReadingItemEntity readingItemToEntity() {
+        return readingItemEntityMapper.toEntity(readingItem);
+    }
+
+    @Benchmark
+    public ReadingProgress readingProgressToDomainModel() {
+        return readingProgressEntityMapper.toDomainModel(readingProgressEntity);
+    }
+
+    @Benchmark
+    public ReadingProgressEntity readingProgressToEntity() {
+        return readingProgressEntityMapper.toEntity(readingProgress);
+    }
+
+    @Benchmark
+    public ReadingProgressDetailsDto readingProgressToDetailsDto() {
+        return readingProgressMapper.toDetailsDto(readingProgress);
+    }
+}
@@ -0,0 +1,202 @@
+package com.necrock.readingtracker;
+
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressRepository;
+import com.necrock.readingtracker.security.service.JwtService;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.common.UserStatus;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves many concurrent clients, each reading its progress list a few times, once with requests on the platform
+ * thread pool of Tomcat and once on virtual threads. The measured time is the time to serve every client; latency
+ * percentiles are printed after each iteration. Ten thousand clients hold about twenty thousand sockets between them,
+ * so the open file limit may need raising.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int USERS = 100;
+    private static final int READING_ITEMS = 20;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"10000"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private URI progressUri;
+    private List<String> tokens;
+    private long[] latencies;
+    private AtomicInteger completed;
+    private AtomicInteger failed;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReadingTrackerApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:request-threading-benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        // Admit every client at once, so that the modes differ only in how requests are executed
+                        "--server.tomcat.max-connections=" + (clients + 1_000),
+                        "--server.tomcat.accept-count=" + clients,
+                        "--logging.level.root=WARN");
+        var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        progressUri = URI.create("http://localhost:" + port + "/api/progress");
+
+        var readingItems = new ArrayList<ReadingItemEntity>(READING_ITEMS);
+        for (int i = 0; i < READING_ITEMS; i++) {
+            readingItems.add(ReadingItemEntity.builder()
+                    .title("title" + i)
+                    .author("author" + i)
+                    .type(ReadingItemType.BOOK)
+                    .build());
+        }
+        readingItems = new ArrayList<>(context.getBean(ReadingItemRepository.class).saveAll(readingItems));
+
+        var users = new ArrayList<UserEntity>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(UserEntity.builder()
+                    .username("reader" + i)
+                    .email("reader" + i + "@provider.com")
+                    .passwordHash("#hash")
+                    .role(UserRole.USER)
+                    .status(UserStatus.ACTIVE)
+                    .build());
+        }
+        var savedUsers = context.getBean(UserRepository.class).saveAll(users);
+
+        var progress = new ArrayList<ReadingProgressEntity>(USERS * READING_ITEMS);
+        for (var user : savedUsers) {
+            for (var readingItem : readingItems) {
+                progress.add(ReadingProgressEntity.builder()
+                        .user(user)
+                        .readingItem(readingItem)
+                        .lastReadChapter(1)
+                        .build());
+            }
+        }
+        context.getBean(ReadingProgressRepository.class).saveAll(progress);
+
+        var jwtService = context.getBean(JwtService.class);
+        tokens = savedUsers.stream()
+                .map(user -> jwtService.generateToken(User.builder().username(user.getUsername()).build()))
+                .toList();
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        latencies = new long[clients * REQUESTS_PER_CLIENT];
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLatencies() {
+        completed = new AtomicInteger();
+        failed = new AtomicInteger();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        var count = completed.get();
+        var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf(
+                "%n  %s threads: %d requests, %d failed, p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                virtualThreads ? "virtual" : "platform",
+                count,
+                failed.get(),
+                percentileMillis(sorted, 0.5),
+                percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999),
+                percentileMillis(sorted, 1.0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public void serveConcurrentClients() {
+        try (var clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                var token = tokens.get(i % tokens.size());
+                clientThreads.execute(() -> runClient(token));
+            }
+        }
+    }
+
+    private void runClient(String token) {
+        var request = HttpRequest.newBuilder(progressUri)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+            var start = System.nanoTime();
+            try {
+                var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    failed.incrementAndGet();
+                }
+            } catch (Exception ex) {
+                failed.incrementAndGet();
+            }
+            latencies[completed.getAndIncrement()] = System.nanoTime() - start;
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.necrock.readingtracker.common;
+
+import com.google.common.collect.ImmutableMap;
+import com.necrock.readingtracker.exception.AlreadyExistsException;
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures what {@link SafeRepository} adds to a save, against a repository that returns at once: timing the call
+ * when it succeeds, and when it fails on a unique constraint, also walking the cause chain and matching the message
+ * against the known constraints to throw the application's exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeRepositoryBenchmark {
+
+    private static final String UNIQUE_TITLE = "reading_item_unique_title";
+    private static final String OTHER_CONSTRAINT = "reading_item_unique_isbn";
+
+    private BenchmarkRepository succeedingRepository;
+    private BenchmarkRepository conflictingRepository;
+    private ReadingItemEntity entity;
+
+    @Setup
+    public void setUp() {
+        succeedingRepository = new BenchmarkRepository(stubRepository(false));
+        conflictingRepository = new BenchmarkRepository(stubRepository(true));
+        entity = ReadingItemEntity.builder()
+                .id(1L)
+                .title("title")
+                .type(ReadingItemType.BOOK)
+                .build();
+    }
+
+    @Benchmark
+    public ReadingItemEntity saveWithoutConflict() {
+        return succeedingRepository.save(entity);
+    }
+
+    @Benchmark
+    public RuntimeException saveWithConflict() {
+        try {
+            conflictingRepository.save(entity);
+            throw new IllegalStateException("Expected a conflict");
+        } catch (AlreadyExistsException ex) {
+            return ex;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JpaRepository<ReadingItemEntity, Long> stubRepository(boolean conflict) {
+        return (JpaRepository<ReadingItemEntity, Long>) Proxy.newProxyInstance(
+                JpaRepository.class.getClassLoader(),
+                new Class<?>[] {JpaRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("save")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (conflict) {
+                        // Shaped like the exception Spring translates an H2 unique index violation into
+                        var message = "Unique index or primary key violation: \"PUBLIC." + UNIQUE_TITLE.toUpperCase()
+                                + "_INDEX_2 ON PUBLIC.ITEMS(TITLE NULLS FIRST) VALUES ( /* 1 */ 'title' )\"";
+                        throw new DataIntegrityViolationException("could not execute statement",
+                                new ConstraintViolationException(message, new SQLException(message, "23505"),
+                                        UNIQUE_TITLE));
+                    }
+                    return args[0];
+                });
+    }
+
+    private static class BenchmarkRepository extends SafeRepository<ReadingItemEntity, Long> {
+
+        BenchmarkRepository(JpaRepository<ReadingItemEntity, Long> repository) {
+            super(repository);
+            setMeterRegistry(new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()))
+                    .getBeanProvider(MeterRegistry.class));
+        }
+
+        @Override
+        protected ImmutableMap<String, Function<ReadingItemEntity, RuntimeException>> getUniqueConstraints() {
+            // The matching constraint comes last, so that the conflict path checks every constraint
+            return ImmutableMap.of(
+                    OTHER_CONSTRAINT, entity -> new AlreadyExistsException("Reading item already has this ISBN"),
+                    UNIQUE_TITLE, entity -> new AlreadyExistsException(
+                            String.format("Reading item with title '%s' already exists", entity.getTitle())));
+        }
+    }
+}
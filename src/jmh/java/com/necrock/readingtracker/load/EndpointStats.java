@@ -0,0 +1,72 @@
+package com.necrock.readingtracker.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of one operation. Latency is measured from the time the request was due to be sent, so that
+ * a request held back by a stalled client or a saturated server counts the whole wait, instead of hiding it as
+ * coordinated omission does. The time from actually sending it is kept as service time, to show the difference.
+ */
+class EndpointStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder failures = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long intendedStartNanos, long actualStartNanos, long endNanos, boolean succeeded) {
+        latency.recordValue(endNanos - intendedStartNanos);
+        serviceTime.recordValue(endNanos - actualStartNanos);
+        if (!succeeded) {
+            failures.increment();
+        }
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-14s %9s %8s %9s %9s %9s %9s %9s %9s %11s%n",
+                "operation", "requests", "failed", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "p99 svc ms");
+    }
+
+    void printSummary(PrintStream out, double seconds) {
+        out.printf("%-14s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+                name,
+                latency.getTotalCount(),
+                failures.sum(),
+                latency.getTotalCount() / seconds,
+                millisAt(latency, 50),
+                millisAt(latency, 90),
+                millisAt(latency, 99),
+                millisAt(latency, 99.9),
+                latency.getMaxValue() / NANOS_PER_MILLI,
+                millisAt(serviceTime, 99));
+    }
+
+    /**
+     * Writes the full latency distribution in milliseconds, in the text format that HdrHistogram plotters read.
+     */
+    void writeDistribution(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (var out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+            latency.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static double millisAt(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,291 @@
+package com.necrock.readingtracker.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.necrock.readingtracker.ReadingTrackerApplication;
+import com.necrock.readingtracker.auth.api.dto.LoginRequest;
+import com.necrock.readingtracker.load.LoadTestOptions.Operation;
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
+import com.necrock.readingtracker.readingitem.search.ReadingItemSearchIndexLoader;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressRepository;
+import com.necrock.readingtracker.security.service.JwtService;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.common.UserStatus;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.model.User;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application on a free port, seeds it with users, reading items and progress, and then sends a weighted
+ * mix of requests at a fixed rate. Every request is started on schedule on its own virtual thread, whether or not
+ * earlier ones have completed, as independent clients would; latencies are reported per operation from the time each
+ * request was due. Run it with:
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@load-test -Dload.options="rate=500 duration=60s"
+ * </pre>
+ *
+ * See {@link LoadTestOptions} for the settings.
+ */
+public class LoadTestHarness {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final int TOTAL_CHAPTERS = 50;
+    private static final int PAGE_SIZE = 50;
+    private static final int SEED_CHUNK_SIZE = 1_000;
+    private static final String[] WORDS = {
+            "shadow", "kingdom", "silent", "river", "garden", "winter", "crown", "empire", "stone", "dragon",
+            "ocean", "letters", "night", "tower", "memory", "glass", "forest", "storm", "journey", "secret",
+    };
+
+    private final LoadTestOptions options;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final List<long[]> progressReadingItemIds = new ArrayList<>();
+
+    private LoadTestHarness(LoadTestOptions options, ConfigurableApplicationContext context) {
+        this.options = options;
+        this.context = context;
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.baseUri = URI.create("http://localhost:" + port);
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        try (var context = start(options)) {
+            var harness = new LoadTestHarness(options, context);
+            harness.seed();
+            harness.run();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        // A restart would run main again on another thread, with the application arguments below
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(ReadingTrackerApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + options.virtualThreads(),
+                        "--spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_ON_EXIT=FALSE",
+                        // Admit a backlog of requests instead of refusing connections when the server falls behind
+                        "--server.tomcat.max-connections=20000",
+                        "--server.tomcat.accept-count=10000",
+                        // Every login comes from the same address and targets a few usernames
+                        "--app.authAttemptsPerAddress=" + Integer.MAX_VALUE,
+                        "--app.loginAttemptsPerUsername=" + Integer.MAX_VALUE,
+                        // Seeded tokens must outlive the run
+                        "--app.accessTokenTtl=1d",
+                        "--logging.level.root=WARN");
+    }
+
+    private void seed() {
+        var startNanos = System.nanoTime();
+
+        var now = Instant.now();
+        var readingItems = new ArrayList<ReadingItemEntity>(options.readingItems());
+        for (int i = 0; i < options.readingItems(); i++) {
+            readingItems.add(ReadingItemEntity.builder()
+                    .title(randomWord() + " " + randomWord() + " " + i)
+                    .author(randomWord() + " " + randomWord())
+                    .type(ReadingItemType.BOOK)
+                    .totalChapters(TOTAL_CHAPTERS)
+                    .createdAt(now.minusSeconds(i))
+                    .build());
+        }
+        var readingItemIds = saveInChunks(context.getBean(ReadingItemRepository.class), readingItems).stream()
+                .mapToLong(ReadingItemEntity::getId)
+                .toArray();
+
+        // Hashing once is enough: every user has the same password
+        var passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        var users = new ArrayList<UserEntity>(options.users());
+        for (int i = 0; i < options.users(); i++) {
+            users.add(UserEntity.builder()
+                    .username("load-reader" + i)
+                    .email("load-reader" + i + "@provider.com")
+                    .passwordHash(passwordHash)
+                    .role(UserRole.USER)
+                    .status(UserStatus.ACTIVE)
+                    .build());
+        }
+        var savedUsers = saveInChunks(context.getBean(UserRepository.class), users);
+
+        var progress = new ArrayList<ReadingProgressEntity>(options.users() * options.progressPerUser());
+        for (var user : savedUsers) {
+            // Consecutive reading items from a random offset are distinct, as the unique constraint requires
+            var offset = random.nextInt(readingItemIds.length);
+            var userReadingItemIds = new long[options.progressPerUser()];
+            for (int i = 0; i < userReadingItemIds.length; i++) {
+                userReadingItemIds[i] = readingItemIds[(offset + i) % readingItemIds.length];
+                progress.add(ReadingProgressEntity.builder()
+                        .user(user)
+                        .readingItem(readingItems.get((offset + i) % readingItemIds.length))
+                        .lastReadChapter(random.nextInt(TOTAL_CHAPTERS))
+                        .build());
+            }
+            usernames.add(user.getUsername());
+            progressReadingItemIds.add(userReadingItemIds);
+        }
+        saveInChunks(context.getBean(ReadingProgressRepository.class), progress);
+
+        // The indexes were loaded while the database was still empty
+        context.getBean(ReadingItemSearchIndexLoader.class).afterSingletonsInstantiated();
+
+        var jwtService = context.getBean(JwtService.class);
+        usernames.forEach(username -> tokens.add(jwtService.generateToken(User.builder().username(username).build())));
+
+        System.out.printf("Seeded %d users, %d reading items and %d progress in %.1f s%n",
+                options.users(), options.readingItems(), progress.size(), (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    private static <E> List<E> saveInChunks(
+            JpaRepository<E, Long> repository, List<E> entities) {
+        var saved = new ArrayList<E>(entities.size());
+        for (int from = 0; from < entities.size(); from += SEED_CHUNK_SIZE) {
+            saved.addAll(repository.saveAll(entities.subList(from, Math.min(entities.size(), from + SEED_CHUNK_SIZE))));
+        }
+        return saved;
+    }
+
+    private void run() throws IOException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        options.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats(operation.key())));
+        var allStats = new EndpointStats("all");
+        var operations = new ArrayList<Operation>();
+        options.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+
+        System.out.printf("Sending %.0f requests/s for %s of warmup and %s of measurement, on %s threads%n",
+                options.rate(), options.warmup(), options.duration(),
+                options.virtualThreads() ? "virtual" : "platform");
+
+        try (var clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             var httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clientExecutor)
+                     .build()) {
+            var startNanos = System.nanoTime();
+            var measureStartNanos = startNanos + options.warmup().toNanos();
+            var endNanos = measureStartNanos + options.duration().toNanos();
+            try (var requestThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long i = 0; ; i++) {
+                    // Due times follow from the start, so a late send never pushes back the ones after it
+                    var dueNanos = startNanos + (long) (i * 1e9 / options.rate());
+                    if (dueNanos >= endNanos) {
+                        break;
+                    }
+                    waitUntil(dueNanos);
+                    var operation = operations.get(random.nextInt(operations.size()));
+                    var request = buildRequest(operation);
+                    var measured = dueNanos >= measureStartNanos;
+                    requestThreads.execute(() -> send(httpClient, request, dueNanos,
+                            measured ? stats.get(operation) : null, measured ? allStats : null));
+                }
+            }
+        }
+
+        var seconds = options.duration().toNanos() / 1e9;
+        System.out.println();
+        EndpointStats.printHeader(System.out);
+        for (var operationStats : stats.values()) {
+            operationStats.printSummary(System.out, seconds);
+            operationStats.writeDistribution(options.outputDirectory());
+        }
+        allStats.printSummary(System.out, seconds);
+        allStats.writeDistribution(options.outputDirectory());
+        System.out.println("\nLatency distributions written to " + options.outputDirectory().toAbsolutePath());
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        var user = random.nextInt(usernames.size());
+        var readingItemIds = progressReadingItemIds.get(user);
+        var readingItemId = readingItemIds[random.nextInt(readingItemIds.length)];
+        return switch (operation) {
+            case LOGIN -> HttpRequest.newBuilder(baseUri.resolve("/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(jsonBody(new LoginRequest(usernames.get(user), PASSWORD)))
+                    .build();
+            case LIST_ITEMS -> authorized(user, "/api/items?pageSize=" + PAGE_SIZE).GET().build();
+            case SEARCH -> authorized(user, "/api/items/search?q=" + randomWord()).GET().build();
+            case GET_PROGRESS -> authorized(user, "/api/progress/" + readingItemId).GET().build();
+            case PATCH_PROGRESS -> authorized(user, "/api/progress/" + readingItemId)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", jsonBody(Map.of("lastReadChapter", random.nextInt(TOTAL_CHAPTERS))))
+                    .build();
+        };
+    }
+
+    private HttpRequest.Builder authorized(int user, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + tokens.get(user));
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to write request body", ex);
+        }
+    }
+
+    private static void send(HttpClient httpClient, HttpRequest request, long dueNanos,
+                             EndpointStats operationStats, EndpointStats allStats) {
+        var sentNanos = System.nanoTime();
+        var succeeded = false;
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            succeeded = response.statusCode() / 100 == 2;
+        } catch (IOException ex) {
+            // Counted as a failure below
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        var completedNanos = System.nanoTime();
+        if (operationStats != null) {
+            operationStats.record(dueNanos, sentNanos, completedNanos, succeeded);
+            allStats.record(dueNanos, sentNanos, completedNanos, succeeded);
+        }
+    }
+
+    private String randomWord() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,110 @@
+package com.necrock.readingtracker.load;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load test run, read from {@code key=value} arguments. Each argument may hold several settings
+ * separated by whitespace, so that they can be passed through a single Maven property.
+ *
+ * @param users             number of seeded users, each with a token for the authenticated operations
+ * @param readingItems      number of seeded reading items
+ * @param progressPerUser   number of reading items each seeded user has progress for
+ * @param rate              requests started per second, whether or not earlier ones have completed
+ * @param warmup            how long requests are sent before latencies are recorded
+ * @param duration          how long latencies are recorded
+ * @param mix               relative weight of each operation
+ * @param virtualThreads    whether the application serves requests on virtual threads
+ * @param outputDirectory   where the full latency distribution of each operation is written
+ */
+record LoadTestOptions(
+        int users,
+        int readingItems,
+        int progressPerUser,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        ImmutableMap<Operation, Integer> mix,
+        boolean virtualThreads,
+        Path outputDirectory) {
+
+    enum Operation {
+        LOGIN("login"),
+        LIST_ITEMS("listItems"),
+        SEARCH("search"),
+        GET_PROGRESS("getProgress"),
+        PATCH_PROGRESS("patchProgress");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Operation fromKey(String key) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.key.equals(key))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key + "'"));
+        }
+    }
+
+    private static final String DEFAULT_MIX = "login=2,listItems=20,search=20,getProgress=38,patchProgress=20";
+    private static final Set<String> KEYS = Set.of(
+            "users", "readingItems", "progressPerUser", "rate", "warmup", "duration", "mix", "virtualThreads",
+            "outputDirectory");
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> settings = new HashMap<>();
+        for (var arg : args) {
+            for (var setting : Splitter.onPattern("\\s+").omitEmptyStrings().split(arg)) {
+                var separator = setting.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Expected key=value, got '" + setting + "'");
+                }
+                if (!KEYS.contains(setting.substring(0, separator))) {
+                    throw new IllegalArgumentException("Unknown setting '" + setting + "', expected one of " + KEYS);
+                }
+                settings.put(setting.substring(0, separator), setting.substring(separator + 1));
+            }
+        }
+
+        var options = new LoadTestOptions(
+                Integer.parseInt(settings.getOrDefault("users", "200")),
+                Integer.parseInt(settings.getOrDefault("readingItems", "2000")),
+                Integer.parseInt(settings.getOrDefault("progressPerUser", "20")),
+                Double.parseDouble(settings.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(settings.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(settings.getOrDefault("duration", "30s")),
+                parseMix(settings.getOrDefault("mix", DEFAULT_MIX)),
+                Boolean.parseBoolean(settings.getOrDefault("virtualThreads", "false")),
+                Path.of(settings.getOrDefault("outputDirectory", "target/load-test")));
+        if (options.progressPerUser() > options.readingItems()) {
+            throw new IllegalArgumentException("progressPerUser can not exceed readingItems");
+        }
+        return options;
+    }
+
+    private static ImmutableMap<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        Splitter.on(',').trimResults().omitEmptyStrings().withKeyValueSeparator('=').split(mix)
+                .forEach((key, weight) -> weights.put(Operation.fromKey(key), Integer.parseInt(weight)));
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The operation mix needs a positive weight");
+        }
+        return ImmutableMap.copyOf(weights);
+    }
+}
@@ -0,0 +1,58 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches an index of a million reading items with queries of different selectivity: one rare term, one common
+ * prefix, a rare term combined with a common one, and two common terms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadingItemSearchIndexBenchmark {
+
+    private static final int READING_ITEMS = 1_000_000;
+    private static final int LIMIT = 20;
+    private static final String[] WORDS = {
+            "shadow", "kingdom", "silent", "river", "garden", "winter", "crown", "empire", "stone", "dragon",
+            "ocean", "letters", "night", "tower", "memory", "glass", "forest", "storm", "journey", "secret",
+    };
+
+    @Param({"zxq12345", "king", "dragon zxq54321", "kingdom river"})
+    private String query;
+
+    private ReadingItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ReadingItemSearchIndex();
+        var random = new Random(42);
+        for (int i = 1; i <= READING_ITEMS; i++) {
+            var title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " zxq" + i;
+            var author = "author" + random.nextInt(50_000) + " " + WORDS[random.nextInt(WORDS.length)];
+            index.put(i, title, author);
+        }
+    }
+
+    @Benchmark
+    public long[] search() {
+        return index.search(query, LIMIT);
+    }
+}
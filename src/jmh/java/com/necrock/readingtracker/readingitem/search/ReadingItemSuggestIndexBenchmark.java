@@ -0,0 +1,65 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemSuggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Samples suggestion latency over a million reading items while a user types a title one keystroke at a time, so
+ * that the percentiles include short and long prefixes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadingItemSuggestIndexBenchmark {
+
+    private static final int READING_ITEMS = 1_000_000;
+    private static final String[] WORDS = {
+            "shadow", "kingdom", "silent", "river", "garden", "winter", "crown", "empire", "stone", "dragon",
+            "ocean", "letters", "night", "tower", "memory", "glass", "forest", "storm", "journey", "secret",
+    };
+
+    private ReadingItemSuggestIndex index;
+    private List<String> prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new ReadingItemSuggestIndex();
+        var random = new Random(42);
+        for (int i = 1; i <= READING_ITEMS; i++) {
+            var title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            var author = "author " + random.nextInt(50_000);
+            index.put(i, title, author, random.nextInt(1_000));
+        }
+
+        var typed = "silent dragon journey 4242";
+        prefixes = IntStream.rangeClosed(1, typed.length())
+                .mapToObj(length -> typed.substring(0, length))
+                .toList();
+    }
+
+    @Benchmark
+    public List<ReadingItemSuggestion> suggest() {
+        var prefix = prefixes.get(next);
+        next = (next + 1) % prefixes.size();
+        return index.suggest(prefix, ReadingItemSuggestIndex.MAX_SUGGESTIONS);
+    }
+}
@@ -0,0 +1,131 @@
+package com.necrock.readingtracker.readingprogress.persistence;
+
+import com.necrock.readingtracker.ReadingTrackerApplication;
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import jakarta.persistence.EntityManager;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts 100k progress rows with JDBC batching disabled (one round trip per row, as with identity columns) and
+ * enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReadingProgressInsertBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int READING_ITEMS = 100;
+    private static final int CHUNK_SIZE = 1_000;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    private Server databaseServer;
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> userIds;
+    private List<Long> readingItemIds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        // Over TCP every statement is a round trip, as with a database server
+        databaseServer = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        // Passed as arguments since application.properties takes precedence over default properties
+        context = new SpringApplicationBuilder(ReadingTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:tcp://localhost:" + databaseServer.getPort()
+                                + "/mem:progress-insert-benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.root=WARN");
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        userIds = new ArrayList<>(USERS);
+        readingItemIds = new ArrayList<>(READING_ITEMS);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < USERS; i++) {
+                var user = UserEntity.builder()
+                        .username("reader" + i)
+                        .email("reader" + i + "@provider.com")
+                        .passwordHash("#hash")
+                        .role(UserRole.USER)
+                        .build();
+                entityManager.persist(user);
+                userIds.add(user.getId());
+            }
+            for (int i = 0; i < READING_ITEMS; i++) {
+                var readingItem = ReadingItemEntity.builder()
+                        .title("title" + i)
+                        .type(ReadingItemType.BOOK)
+                        .build();
+                entityManager.persist(readingItem);
+                readingItemIds.add(readingItem.getId());
+            }
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void deleteProgress() {
+        transactionTemplate.executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM ReadingProgressEntity").executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        databaseServer.stop();
+    }
+
+    @Benchmark
+    public void insert100kProgress() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int count = 0;
+            for (var userId : userIds) {
+                for (var readingItemId : readingItemIds) {
+                    entityManager.persist(ReadingProgressEntity.builder()
+                            .user(entityManager.getReference(UserEntity.class, userId))
+                            .readingItem(entityManager.getReference(ReadingItemEntity.class, readingItemId))
+                            .lastReadChapter(1)
+                            .build());
+                    if (++count % CHUNK_SIZE == 0) {
+                        // Keep the persistence context small, as an import would
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+    }
+}
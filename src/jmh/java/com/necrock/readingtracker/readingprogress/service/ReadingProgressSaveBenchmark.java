@@ -0,0 +1,119 @@
+package com.necrock.readingtracker.readingprogress.service;
+
+import com.necrock.readingtracker.ReadingTrackerApplication;
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressRepository;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one reader updating their progress on a reading item, for items with few and with many readers. The
+ * latency should not depend on the number of readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadingProgressSaveBenchmark {
+
+    @Param({"10", "10000"})
+    private int readers;
+
+    private ConfigurableApplicationContext context;
+    private ReadingProgressService service;
+    private EntityManagerFactory entityManagerFactory;
+    private User reader;
+    private Long readingItemId;
+    private int chapter;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReadingTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:progress-save-benchmark;DB_CLOSE_ON_EXIT=FALSE",
+                        "--logging.level.root=WARN");
+        service = context.getBean(ReadingProgressService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        var readingItem = context.getBean(ReadingItemRepository.class).save(ReadingItemEntity.builder()
+                .title("Popular manga")
+                .author("author")
+                .type(ReadingItemType.MANGA)
+                .totalChapters(1000)
+                .build());
+        readingItemId = readingItem.getId();
+
+        var users = new ArrayList<UserEntity>(readers);
+        for (int i = 0; i < readers; i++) {
+            users.add(UserEntity.builder()
+                    .username("reader" + i)
+                    .email("reader" + i + "@provider.com")
+                    .passwordHash("#hash")
+                    .role(UserRole.USER)
+                    .build());
+        }
+        var savedUsers = context.getBean(UserRepository.class).saveAll(users);
+
+        var progress = new ArrayList<ReadingProgressEntity>(readers);
+        for (var user : savedUsers) {
+            progress.add(ReadingProgressEntity.builder()
+                    .user(user)
+                    .readingItem(readingItem)
+                    .lastReadChapter(1)
+                    .build());
+        }
+        context.getBean(ReadingProgressRepository.class).saveAll(progress);
+
+        reader = User.builder().id(savedUsers.getFirst().getId()).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReadingProgress updateReadingProgress() {
+        // One persistence context per call, opened the way open-in-view opens one per request
+        var update = ReadingProgress.builder().lastReadChapter(++chapter).build();
+        try (var entityManager = entityManagerFactory.createEntityManager()) {
+            TransactionSynchronizationManager.bindResource(
+                    entityManagerFactory, new EntityManagerHolder(entityManager));
+            try {
+                return service.updateReadingProgress(reader, readingItemId, update);
+            } finally {
+                TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.necrock.readingtracker.security.service;
+
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.user.service.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a parser and verifying the signature on every request with the pre-built parser and
+ * verified-claims cache in {@link JwtService}, and measures signing a new token as on every login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SIGNING_KEY = "uPZ0+3cEBqxq4FWcpDUl8STUj5pp8CjU3+pMZrsuFpE=";
+
+    private Key signingKey;
+    private Clock clock;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SIGNING_KEY));
+        clock = Clock.systemUTC();
+        jwtService = new JwtService(signingKey, clock, null, null, null, new AppProperties(), new SimpleMeterRegistry());
+        token = jwtService.generateToken(User.builder().username("benchmark-user").build());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(User.builder().username("benchmark-user").build());
+    }
+
+    @Benchmark
+    public Claims parsePerRequest() {
+        return Jwts.parserBuilder()
+                .setClock(() -> Date.from(clock.instant()))
+                .setSigningKey(signingKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public String getTokenCached() {
+        return jwtService.getToken(token).getUsername();
+    }
+}
@@ -2,37 +2,66 @@ package com.necrock.readingtracker.auth.api;
 
 import com.necrock.readingtracker.auth.api.dto.LoginRequest;
 import com.necrock.readingtracker.auth.api.dto.LoginResponse;
+import com.necrock.readingtracker.auth.api.dto.LogoutRequest;
+import com.necrock.readingtracker.auth.api.dto.RefreshRequest;
+import com.necrock.readingtracker.auth.api.dto.RefreshResponse;
 import com.necrock.readingtracker.auth.api.dto.RegisterRequest;
 import com.necrock.readingtracker.auth.api.dto.RegisterResponse;
+import com.necrock.readingtracker.auth.service.AuthRateLimiter;
 import com.necrock.readingtracker.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter rateLimiter;
     private final AuthDtoMapper mapper;
 
-    public AuthController(AuthService authService, AuthDtoMapper mapper) {
+    public AuthController(AuthService authService, AuthRateLimiter rateLimiter, AuthDtoMapper mapper) {
         this.authService = authService;
+        this.rateLimiter = rateLimiter;
         this.mapper = mapper;
     }
 
     @PostMapping("/register")
     @ResponseStatus(CREATED)
-    public RegisterResponse register(@RequestBody RegisterRequest request) {
+    public RegisterResponse register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        rateLimiter.acquireRegister(httpRequest.getRemoteAddr());
         return mapper.toRegisterResponse(authService.register(mapper.toDomainModel(request)));
     }
 
     @PostMapping("/login")
-    public LoginResponse login(@RequestBody LoginRequest request) {
+    public LoginResponse login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        rateLimiter.acquireLogin(httpRequest.getRemoteAddr(), request.username());
         return mapper.toLoginResponse(authService.login(mapper.toDomainModel(request)));
     }
+
+    @PostMapping("/refresh")
+    public RefreshResponse refresh(@Valid @RequestBody RefreshRequest request) {
+        return mapper.toRefreshResponse(authService.refresh(request.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @ResponseStatus(NO_CONTENT)
+    public void logout(
+            @RequestHeader(AUTHORIZATION) String authorization,
+            @RequestBody(required = false) @Nullable LogoutRequest request) {
+        // Only reached with a valid bearer token, which the authentication filter has checked
+        var accessToken = authorization.substring("Bearer ".length());
+        authService.logout(accessToken, request == null ? null : request.refreshToken());
+    }
 }
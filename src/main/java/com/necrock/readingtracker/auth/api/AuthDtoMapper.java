@@ -2,6 +2,7 @@ package com.necrock.readingtracker.auth.api;
 
 import com.necrock.readingtracker.auth.api.dto.LoginRequest;
 import com.necrock.readingtracker.auth.api.dto.LoginResponse;
+import com.necrock.readingtracker.auth.api.dto.RefreshResponse;
 import com.necrock.readingtracker.auth.api.dto.RegisterRequest;
 import com.necrock.readingtracker.auth.api.dto.RegisterResponse;
 import com.necrock.readingtracker.auth.service.model.AuthResponse;
@@ -19,4 +20,6 @@ public interface AuthDtoMapper {
     LoginResponse toLoginResponse(AuthResponse response);
 
     UserLogin toDomainModel(LoginRequest request);
+
+    RefreshResponse toRefreshResponse(AuthResponse response);
 }
@@ -1,3 +1,3 @@
 package com.necrock.readingtracker.auth.api.dto;
 
-public record LoginResponse(String token) {}
+public record LoginResponse(String token, String refreshToken) {}
@@ -0,0 +1,3 @@
+package com.necrock.readingtracker.auth.api.dto;
+
+public record LogoutRequest(String refreshToken) {}
@@ -0,0 +1,5 @@
+package com.necrock.readingtracker.auth.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(@NotBlank(message = "Refresh token is required") String refreshToken) {}
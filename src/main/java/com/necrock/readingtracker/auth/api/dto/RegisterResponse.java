@@ -1,3 +1,3 @@
 package com.necrock.readingtracker.auth.api.dto;
 
-public record RegisterResponse(String token) {}
+public record RegisterResponse(String token, String refreshToken) {}
@@ -0,0 +1,152 @@
+package com.necrock.readingtracker.auth.persistence;
+
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static com.necrock.readingtracker.common.IdSequenceAligner.ID_ALLOCATION_SIZE;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+@Entity
+@Table(
+        name = "refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(
+                name = "refresh_token_unique_token_hash",
+                columnNames = {"token_hash"}),
+        indexes = @Index(
+                name = "refresh_token_user_index",
+                columnList = "user_id"))
+public class RefreshTokenEntity {
+
+    public static final String ID_SEQUENCE =
+            "refresh_tokens_id_seq";
+    public static final String UNIQUE_TOKEN_HASH =
+            "refresh_token_unique_token_hash";
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(
+            name = "user_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "refresh_token_fk_user"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserEntity user;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+
+    private RefreshTokenEntity(Long id,
+                               String tokenHash,
+                               UserEntity user,
+                               Instant createdAt,
+                               Instant expiresAt) {
+        this.id = id;
+        this.tokenHash = tokenHash;
+        this.user = user;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @SuppressWarnings("unused") // Required for JPA
+    protected RefreshTokenEntity() {}
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        RefreshTokenEntity that = (RefreshTokenEntity) o;
+        return Objects.equals(getId(), that.getId())
+                && Objects.equals(getTokenHash(), that.getTokenHash())
+                && Objects.equals(getCreatedAt(), that.getCreatedAt())
+                && Objects.equals(getExpiresAt(), that.getExpiresAt());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getTokenHash(), getCreatedAt(), getExpiresAt());
+    }
+
+    public static class Builder {
+        private Long id;
+        private String tokenHash;
+        private UserEntity user;
+        private Instant createdAt;
+        private Instant expiresAt;
+
+        public Builder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder tokenHash(String tokenHash) {
+            this.tokenHash = tokenHash;
+            return this;
+        }
+
+        public Builder user(UserEntity user) {
+            this.user = user;
+            return this;
+        }
+
+        public Builder createdAt(Instant createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public Builder expiresAt(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public RefreshTokenEntity build() {
+            return new RefreshTokenEntity(id, tokenHash, user, createdAt, expiresAt);
+        }
+    }
+}
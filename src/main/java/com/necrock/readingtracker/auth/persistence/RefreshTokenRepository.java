@@ -0,0 +1,41 @@
+package com.necrock.readingtracker.auth.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    @Query("""
+            SELECT t FROM RefreshTokenEntity t
+            JOIN FETCH t.user
+            WHERE t.tokenHash = :tokenHash""")
+    Optional<RefreshTokenEntity> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.id = :id")
+    int deleteTokenById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.user.id = :userId AND t.expiresAt <= :now")
+    int deleteExpiredByUserId(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            DELETE FROM RefreshTokenEntity t
+            WHERE t.user.id IN (SELECT u.id FROM UserEntity u WHERE u.username = :username)""")
+    int deleteAllByUsername(@Param("username") String username);
+}
@@ -0,0 +1,52 @@
+package com.necrock.readingtracker.auth.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.necrock.readingtracker.common.SafeRepository;
+import com.necrock.readingtracker.exception.AlreadyExistsException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class SafeRefreshTokenRepository extends SafeRepository<RefreshTokenEntity, Long> {
+    private final RefreshTokenRepository repository;
+
+    public SafeRefreshTokenRepository(RefreshTokenRepository repository) {
+        super(repository);
+        this.repository = repository;
+    }
+
+    @Override
+    protected ImmutableMap<String, Function<RefreshTokenEntity, RuntimeException>> getUniqueConstraints() {
+        return ImmutableMap.of(
+                RefreshTokenEntity.UNIQUE_TOKEN_HASH,
+                entity -> new AlreadyExistsException("Refresh token already exists")
+        );
+    }
+
+    public Optional<RefreshTokenEntity> findWithUserByTokenHash(String tokenHash) {
+        return repository.findWithUserByTokenHash(tokenHash);
+    }
+
+    /**
+     * Deletes the token, returning whether it still existed. Of two requests presenting the same token, only one
+     * sees {@code true}.
+     */
+    public boolean deleteTokenById(Long id) {
+        return repository.deleteTokenById(id) > 0;
+    }
+
+    public void deleteByTokenHash(String tokenHash) {
+        repository.deleteByTokenHash(tokenHash);
+    }
+
+    public void deleteExpiredByUserId(Long userId, Instant now) {
+        repository.deleteExpiredByUserId(userId, now);
+    }
+
+    public void deleteAllByUsername(String username) {
+        repository.deleteAllByUsername(username);
+    }
+}
@@ -0,0 +1,110 @@
+package com.necrock.readingtracker.auth.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Throttles login and registration attempts per client address and, for logins, per username, so that guessing
+ * passwords costs the attacker time instead of costing the server a password hash and a database lookup per attempt.
+ * Buckets live in bounded, striped caches and are dropped after a refill period without attempts, by which time they
+ * would be full again anyway.
+ */
+@Component
+public class AuthRateLimiter {
+
+    static final String THROTTLED_COUNTER = "auth.throttled";
+    static final String BUCKETS_GAUGE = "auth.throttle.buckets";
+
+    private static final String ENDPOINT_LOGIN = "login";
+    private static final String ENDPOINT_REGISTER = "register";
+    private static final String KEY_ADDRESS = "address";
+    private static final String KEY_USERNAME = "username";
+
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final int attemptsPerAddress;
+    private final int attemptsPerUsername;
+    private final Duration refillPeriod;
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final Cache<String, TokenBucket> usernameBuckets;
+
+    public AuthRateLimiter(AppProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.attemptsPerAddress = properties.getAuthAttemptsPerAddress();
+        this.attemptsPerUsername = properties.getLoginAttemptsPerUsername();
+        this.refillPeriod = properties.getAuthAttemptRefillPeriod();
+        this.addressBuckets = buckets(properties);
+        this.usernameBuckets = buckets(properties);
+
+        Gauge.builder(BUCKETS_GAUGE, () -> addressBuckets.size() + usernameBuckets.size())
+                .description("Number of clients and usernames with a recent authentication attempt")
+                .register(meterRegistry);
+    }
+
+    private static Cache<String, TokenBucket> buckets(AppProperties properties) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(properties.getAuthRateLimitMaxKeys())
+                .expireAfterAccess(properties.getAuthAttemptRefillPeriod())
+                .build();
+    }
+
+    /**
+     * Takes a login attempt from the budgets of the client address and the username.
+     *
+     * @throws TooManyRequestsException if either budget is used up
+     */
+    public void acquireLogin(String clientAddress, @Nullable String username) {
+        acquire(addressBuckets, clientAddress, attemptsPerAddress, ENDPOINT_LOGIN, KEY_ADDRESS);
+        if (username != null) {
+            acquire(usernameBuckets, username, attemptsPerUsername, ENDPOINT_LOGIN, KEY_USERNAME);
+        }
+    }
+
+    /**
+     * Takes a registration attempt from the budget of the client address.
+     *
+     * @throws TooManyRequestsException if the budget is used up
+     */
+    public void acquireRegister(String clientAddress) {
+        acquire(addressBuckets, clientAddress, attemptsPerAddress, ENDPOINT_REGISTER, KEY_ADDRESS);
+    }
+
+    private void acquire(Cache<String, TokenBucket> buckets, String key, int capacity, String endpoint,
+                         String keyType) {
+        var now = clock.millis();
+        var waitMillis = bucket(buckets, key, capacity, now).tryAcquire(now);
+        if (waitMillis > 0) {
+            throttledCounter(endpoint, keyType).increment();
+            throw new TooManyRequestsException(
+                    "Too many authentication attempts, try again later", Duration.ofMillis(waitMillis));
+        }
+    }
+
+    private TokenBucket bucket(Cache<String, TokenBucket> buckets, String key, int capacity, long now) {
+        try {
+            return buckets.get(key, () -> new TokenBucket(capacity, refillPeriod, now));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to create rate limit bucket", e.getCause());
+        }
+    }
+
+    private Counter throttledCounter(String endpoint, String keyType) {
+        return Counter.builder(THROTTLED_COUNTER)
+                .description("Authentication attempts rejected by the rate limiter")
+                .tag("endpoint", endpoint)
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+}
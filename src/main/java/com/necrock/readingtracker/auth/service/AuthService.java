@@ -6,28 +6,38 @@ import com.necrock.readingtracker.auth.service.model.UserRegistration;
 import com.necrock.readingtracker.exception.UnauthorizedException;
 import com.necrock.readingtracker.security.service.CustomUserDetails;
 import com.necrock.readingtracker.security.service.JwtService;
+import com.necrock.readingtracker.security.service.TokenRevocationList;
 import com.necrock.readingtracker.user.service.UserService;
 import com.necrock.readingtracker.user.service.model.User;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.lang.Nullable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed(value = "service.call", histogram = true)
 public class AuthService {
 
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authManager;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList revocationList;
 
     public AuthService(UserService userService, PasswordEncoder passwordEncoder, AuthenticationManager authManager,
-                       JwtService jwtService) {
+                       JwtService jwtService, RefreshTokenService refreshTokenService,
+                       TokenRevocationList revocationList) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.authManager = authManager;
         this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationList = revocationList;
     }
 
     public AuthResponse register(UserRegistration request) {
@@ -37,7 +47,7 @@ public class AuthService {
                         .passwordHash(passwordEncoder.encode(request.password()))
                         .email(request.email())
                         .build());
-        return new AuthResponse(jwtService.generateToken(newUser));
+        return issueTokens(newUser);
     }
 
     public AuthResponse login(UserLogin request) {
@@ -46,10 +56,51 @@ public class AuthService {
                     new UsernamePasswordAuthenticationToken(request.username(), request.password()));
 
             var userDetails = (CustomUserDetails) auth.getPrincipal();
-            return new AuthResponse(jwtService.generateToken(userDetails.getUser()));
+            return issueTokens(userDetails.getUser());
         } catch (BadCredentialsException e) {
             throw new UnauthorizedException("Username or password incorrect");
         }
     }
 
+    /**
+     * Trades a refresh token for a new access token and a new refresh token, without checking the password.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        var user = refreshTokenService.redeem(refreshToken);
+        if (!new CustomUserDetails(user).isEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
+        return issueTokens(user);
+    }
+
+    /**
+     * Ends a session: the access token is rejected from now on and the refresh token, if given, can no longer be
+     * redeemed. Tokens issued before they carried an ID can not be revoked on their own, so for those every access
+     * token of the user issued so far is revoked; other sessions keep their refresh tokens and can renew them.
+     */
+    public void logout(String accessToken, @Nullable String refreshToken) {
+        var token = jwtService.getToken(accessToken);
+        if (token.getId() != null) {
+            revocationList.revoke(token.getId(), token.getUsername(), token.getExpiration());
+        } else {
+            revocationList.revokeAll(token.getUsername());
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    /**
+     * Ends every session of the user: all access tokens issued so far are rejected and no refresh token can be
+     * redeemed.
+     */
+    public void revokeAllTokens(User user) {
+        revocationList.revokeAll(user.getUsername());
+        refreshTokenService.revokeAll(user.getUsername());
+    }
+
+    private AuthResponse issueTokens(User user) {
+        return new AuthResponse(jwtService.generateToken(user), refreshTokenService.issue(user));
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.necrock.readingtracker.auth.service;
+
+import com.google.common.hash.Hashing;
+import com.necrock.readingtracker.auth.persistence.RefreshTokenEntity;
+import com.necrock.readingtracker.auth.persistence.SafeRefreshTokenRepository;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.exception.UnauthorizedException;
+import com.necrock.readingtracker.user.service.UserEntityMapper;
+import com.necrock.readingtracker.user.service.event.UserUpdatedEvent;
+import com.necrock.readingtracker.user.service.model.User;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Issues and redeems the long-lived, single-use tokens that let clients obtain new access tokens without sending
+ * their password again. Only a SHA-256 hash of each token is stored; a plain hash suffices because the tokens are
+ * random rather than chosen by people.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SafeRefreshTokenRepository repository;
+    private final UserEntityMapper userMapper;
+    private final Clock clock;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            SafeRefreshTokenRepository repository,
+            UserEntityMapper userMapper,
+            Clock clock,
+            AppProperties properties) {
+        this.repository = repository;
+        this.userMapper = userMapper;
+        this.clock = clock;
+        this.refreshTokenTtl = properties.getRefreshTokenTtl();
+    }
+
+    /**
+     * Creates a refresh token for the user, and drops the user's tokens that have expired meanwhile.
+     */
+    public String issue(User user) {
+        var now = clock.instant();
+        repository.deleteExpiredByUserId(user.getId(), now);
+
+        var bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        repository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(token))
+                .user(userMapper.toEntity(user))
+                .createdAt(now)
+                .expiresAt(now.plus(refreshTokenTtl))
+                .build());
+        return token;
+    }
+
+    /**
+     * Invalidates the refresh token and returns the user it was issued to.
+     *
+     * @throws UnauthorizedException if the token is unknown, expired or already redeemed
+     */
+    public User redeem(String token) {
+        var storedToken = repository.findWithUserByTokenHash(hash(token))
+                .filter(candidate -> candidate.getExpiresAt().isAfter(clock.instant()))
+                .orElseThrow(() -> new UnauthorizedException("Refresh token is invalid or expired"));
+        if (!repository.deleteTokenById(storedToken.getId())) {
+            throw new UnauthorizedException("Refresh token is invalid or expired");
+        }
+        return userMapper.toDomainModel(storedToken.getUser());
+    }
+
+    /**
+     * Invalidates the refresh token, if it exists.
+     */
+    public void revoke(String token) {
+        repository.deleteByTokenHash(hash(token));
+    }
+
+    /**
+     * Invalidates every refresh token of the user.
+     */
+    public void revokeAll(String username) {
+        repository.deleteAllByUsername(username);
+    }
+
+    /**
+     * Ends every session of a user whose status, role or credentials changed, so they have to log in again.
+     */
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        if (event.securityStampChanged()) {
+            revokeAll(event.username());
+        }
+    }
+
+    private static String hash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.necrock.readingtracker.auth.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket that refills continuously, from empty to full over the refill period. Taking a token is a
+ * compare-and-set on an immutable snapshot, so concurrent attempts never block one another.
+ */
+class TokenBucket {
+
+    private record State(double tokens, long updatedAtMillis) {}
+
+    private final int capacity;
+    private final double tokensPerMilli;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, Duration refillPeriod, long nowMillis) {
+        this.capacity = capacity;
+        this.tokensPerMilli = (double) capacity / Math.max(1, refillPeriod.toMillis());
+        this.state = new AtomicReference<>(new State(capacity, nowMillis));
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return zero when a token was taken, otherwise the number of milliseconds until the next token is available
+     */
+    long tryAcquire(long nowMillis) {
+        while (true) {
+            var current = state.get();
+            var updatedAt = Math.max(nowMillis, current.updatedAtMillis());
+            var tokens = Math.min(capacity, current.tokens() + (updatedAt - current.updatedAtMillis()) * tokensPerMilli);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerMilli);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, updatedAt))) {
+                return 0;
+            }
+        }
+    }
+}
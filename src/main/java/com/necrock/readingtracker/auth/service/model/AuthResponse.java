@@ -1,4 +1,4 @@
 package com.necrock.readingtracker.auth.service.model;
 
-public record AuthResponse(String token) {
+public record AuthResponse(String token, String refreshToken) {
 }
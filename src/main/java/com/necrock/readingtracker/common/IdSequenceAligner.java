@@ -0,0 +1,55 @@
+package com.necrock.readingtracker.common;
+
+import com.google.common.collect.ImmutableMap;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Moves the entity ID sequences past the IDs already in use. Databases created while the entities still used
+ * identity columns hold rows that a freshly created sequence would hand out again.
+ */
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    /** Number of IDs Hibernate reserves per sequence call, which is also the sequence increment. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final ImmutableMap<String, String> SEQUENCES_BY_TABLE = ImmutableMap.of(
+            "items", ReadingItemEntity.ID_SEQUENCE,
+            "progress", ReadingProgressEntity.ID_SEQUENCE,
+            "users", UserEntity.ID_SEQUENCE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Runs once the schema exists and before the web server accepts requests
+        SEQUENCES_BY_TABLE.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(String table, String sequence) {
+        var maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        var nextValue = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class,
+                sequence.toUpperCase(Locale.ROOT));
+        // The pooled optimizer uses the block of IDs below the value it draws, so stay a full block ahead
+        var minimumNextValue = maxId + ID_ALLOCATION_SIZE;
+        if (nextValue == null || nextValue < minimumNextValue) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + minimumNextValue);
+        }
+    }
+}
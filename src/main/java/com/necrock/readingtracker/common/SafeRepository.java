@@ -1,79 +1,213 @@
 package com.necrock.readingtracker.common;
 
 import com.google.common.collect.ImmutableMap;
+import com.necrock.readingtracker.exception.ConflictException;
 import com.necrock.readingtracker.exception.DatabaseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Base for repositories that translate persistence failures into the application's exceptions. Every operation is
+ * timed as {@code repository.operation}, tagged with the entity type, the operation and the exception it threw, if any.
+ */
 public abstract class SafeRepository<E, K> {
 
+    public static final String OPERATION_TIMER = "repository.operation";
+    private static final String NO_EXCEPTION = "none";
+
     private final JpaRepository<E, K> repository;
+    private final String entityType;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    @Nullable
+    private MeterRegistry meterRegistry;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     public SafeRepository(JpaRepository<E, K> repository) {
         this.repository = repository;
+        var typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), SafeRepository.class);
+        this.entityType = typeArguments != null ? typeArguments[0].getSimpleName() : getClass().getSimpleName();
+    }
+
+    /**
+     * Sets the registry the operation timer is recorded in. Without one, as in repository-only test slices,
+     * operations are not timed.
+     */
+    @Autowired
+    public void setMeterRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable();
     }
 
     protected abstract ImmutableMap<String, Function<E, RuntimeException>> getUniqueConstraints();
 
     public final E saveAndFlush(E entity) {
-        if (!entityManager.isJoinedToTransaction()) {
-            throw new IllegalStateException("EntityManager is not joined to a transaction" +
-                    " - make sure to call this method withing a @Transactional environment");
-        }
-        return doSaveAndHandleExceptions(repository::saveAndFlush, entity);
+        requireTransaction();
+        return timed("saveAndFlush", () -> doSaveAndHandleExceptions(repository::saveAndFlush, entity));
     }
 
+    /**
+     * Saves the entity, reporting a violated unique constraint with the exception {@link #getUniqueConstraints()} maps
+     * it to. Inserts are deferred until flush, so within a caller's transaction the entity is flushed right away: the
+     * violation would otherwise only surface, untranslated, when the transaction flushes or commits.
+     */
     public final E save(E entity) {
-        return doSaveAndHandleExceptions(repository::save, entity);
+        Function<E, E> saveFunction = TransactionSynchronizationManager.isActualTransactionActive()
+                ? repository::saveAndFlush
+                : repository::save;
+        return timed("save", () -> doSaveAndHandleExceptions(saveFunction, entity));
+    }
+
+    /**
+     * Saves all entities and then flushes them together, so that the statements can be sent in JDBC batches. A
+     * violated unique constraint is reported like by {@link #save}, but the failed statement can not be traced back to
+     * its entity: the exception describes the first new entity, which need not be the one that broke the constraint.
+     */
+    public final List<E> saveAllAndFlush(List<E> entities) {
+        requireTransaction();
+        return timed("saveAllAndFlush", () -> {
+            var describedEntity = entities.stream().filter(this::isNew).findFirst()
+                    .or(() -> entities.stream().findFirst())
+                    .orElse(null);
+            var savedEntities = entities.stream()
+                    .map(entity -> doSaveAndHandleExceptions(repository::save, entity))
+                    .toList();
+            try {
+                repository.flush();
+            } catch (RuntimeException ex) {
+                throw translateSaveFailure(ex, describedEntity);
+            }
+            return savedEntities;
+        });
+    }
+
+    private boolean isNew(E entity) {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity) == null;
+    }
+
+    /**
+     * Detaches all managed entities, so that long-running work does not keep every entity it saved in memory.
+     */
+    public final void clear() {
+        entityManager.clear();
+    }
+
+    private void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("EntityManager is not joined to a transaction" +
+                    " - make sure to call this method withing a @Transactional environment");
+        }
     }
 
     private E doSaveAndHandleExceptions(Function<E, E> saveFunction, E entity) {
         try {
-            onSave(entity);
-            return saveFunction.apply(entity);
-        } catch (DataIntegrityViolationException | ConstraintViolationException ex) {
+            var savedEntity = saveFunction.apply(entity);
+            onSave(savedEntity);
+            return savedEntity;
+        } catch (RuntimeException ex) {
+            throw translateSaveFailure(ex, entity);
+        }
+    }
+
+    private RuntimeException translateSaveFailure(RuntimeException ex, @Nullable E entity) {
+        if (entity != null
+                && (ex instanceof DataIntegrityViolationException || ex instanceof ConstraintViolationException)) {
             for (var constraint : getUniqueConstraints().entrySet()) {
                 if (messageIndicatesConstraint(ex, constraint.getKey())) {
-                    throw constraint.getValue().apply(entity);
+                    return constraint.getValue().apply(entity);
                 }
             }
-            throw new DatabaseException("Failed to save: " + ExceptionUtils.getRootCauseMessage(ex),
-                    ex);
-        } catch (RuntimeException ex) {
-            throw new DatabaseException("Failed to save: " + ExceptionUtils.getRootCauseMessage(ex),
-                    ex);
+        } else if (ex instanceof OptimisticLockingFailureException) {
+            return concurrentUpdate();
         }
+        return new DatabaseException("Failed to save: " + ExceptionUtils.getRootCauseMessage(ex), ex);
+    }
+
+    /**
+     * Reports that a saved entity carried an older version than the stored one, because it was changed after being
+     * read.
+     */
+    private static ConflictException concurrentUpdate() {
+        return new ConflictException("The resource was changed concurrently");
     }
 
     protected void onSave(E entity) {}
 
     public final void delete(E entity) {
-        repository.delete(entity);
+        timed("delete", () -> {
+            repository.delete(entity);
+            return null;
+        });
         onDelete(entity);
     }
 
     protected void onDelete(E entity) {}
 
     public final Optional<E> findById(K key) {
-        return repository.findById(key);
+        return timed("findById", () -> repository.findById(key));
     }
 
     public final List<E> findAll() {
-        return repository.findAll();
+        return timed("findAll", repository::findAll);
+    }
+
+    public final List<E> findAllById(Iterable<K> keys) {
+        return timed("findAllById", () -> repository.findAllById(keys));
     }
 
-    private static boolean messageIndicatesConstraint(Throwable ex, String constraint) {
+    protected final <T> T timed(String operation, Supplier<T> call) {
+        var registry = meterRegistry;
+        if (registry == null) {
+            return call.get();
+        }
+        var sample = Timer.start(registry);
+        Class<?> exception = null;
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            exception = ex.getClass();
+            throw ex;
+        } finally {
+            sample.stop(timer(registry, operation, exception));
+        }
+    }
+
+    /**
+     * Returns the timer of the operation, registered once per operation and exception type rather than looked up in
+     * the registry on every call.
+     */
+    private Timer timer(MeterRegistry registry, String operation, @Nullable Class<?> exception) {
+        return timers.computeIfAbsent(new TimerKey(operation, exception), key -> Timer.builder(OPERATION_TIMER)
+                .description("Time spent in repository operations")
+                .tag("entity", entityType)
+                .tag("operation", operation)
+                .tag("exception", exception != null ? exception.getSimpleName() : NO_EXCEPTION)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private record TimerKey(String operation, @Nullable Class<?> exception) {}
+
+    protected static boolean messageIndicatesConstraint(Throwable ex, String constraint) {
         return ExceptionUtils.getRootCauseMessage(ex).toLowerCase().contains(constraint.toLowerCase());
     }
 }
@@ -0,0 +1,60 @@
+package com.necrock.readingtracker.common;
+
+import com.necrock.readingtracker.exception.BadRequestException;
+import org.springframework.lang.Nullable;
+
+/**
+ * Converts between entity versions and the strong ETags the API sends for them.
+ */
+public final class VersionTags {
+
+    private VersionTags() {}
+
+    private static final String SEPARATOR = "-";
+
+    /**
+     * Returns the tag of a resource that embeds another one, so that it changes when either of them does.
+     */
+    public static String combine(Long version, Long embeddedVersion) {
+        return version + SEPARATOR + embeddedVersion;
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header asks for, or null when it accepts any version.
+     */
+    @Nullable
+    public static Long parseIfMatch(@Nullable String ifMatch) {
+        return parseIfMatch(ifMatch, false);
+    }
+
+    /**
+     * Like {@link #parseIfMatch(String)}, for resources tagged with {@link #combine}. Returns only the version of the
+     * resource itself, so that a change to the embedded resource does not make an update conflict.
+     */
+    @Nullable
+    public static Long parseCombinedIfMatch(@Nullable String ifMatch) {
+        return parseIfMatch(ifMatch, true);
+    }
+
+    @Nullable
+    private static Long parseIfMatch(@Nullable String ifMatch, boolean combined) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            var value = tag.substring(1, tag.length() - 1);
+            var separator = value.indexOf(SEPARATOR);
+            try {
+                if (combined && separator > 0) {
+                    Long.parseLong(value.substring(separator + 1));
+                    return Long.parseLong(value.substring(0, separator));
+                }
+                return Long.parseLong(value);
+            } catch (NumberFormatException ex) {
+                // Reported below
+            }
+        }
+        throw new BadRequestException("If-Match must hold a single ETag of this resource");
+    }
+}
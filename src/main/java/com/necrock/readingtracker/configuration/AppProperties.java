@@ -1,10 +1,15 @@
 package com.necrock.readingtracker.configuration;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Component
 @Validated
 @ConfigurationProperties(prefix = "app")
@@ -21,6 +26,128 @@ public class AppProperties {
     @NotBlank(message = "The signing key must not be blank")
     private String signingKey;
 
+    /**
+     * How long an access token is accepted after it was issued. Clients renew it with their refresh token.
+     */
+    private Duration accessTokenTtl = Duration.ofMinutes(15);
+
+    /**
+     * How long a refresh token can be redeemed after it was issued. Every redemption issues a new one, so sessions
+     * in use do not expire.
+     */
+    private Duration refreshTokenTtl = Duration.ofDays(30);
+
+    /**
+     * Number of revoked tokens the in-memory filter is sized for. It is rebuilt larger when more revocations are in
+     * force at the same time.
+     */
+    @Positive(message = "The revoked token filter capacity must be positive")
+    private int revokedTokenFilterCapacity = 10_000;
+
+    /**
+     * Whether access tokens carry the user id, role, status and security stamp, so that requests are authenticated
+     * from the token alone. Only the security stamp is looked up, from a cache, to refuse tokens issued before a change
+     * of role, status or password.
+     */
+    private boolean selfContainedTokens = false;
+
+    /**
+     * How long security stamps are kept in memory before being reloaded from the database. Changes made by this
+     * instance take effect at once; this bounds how long other instances keep accepting outdated tokens.
+     */
+    private Duration securityStampCacheTtl = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of users whose security stamps are kept in memory at the same time.
+     */
+    private long securityStampCacheMaxSize = 100_000;
+
+    /**
+     * How long resolved user details are kept in memory before being reloaded from the database.
+     */
+    private Duration userDetailsCacheTtl = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of users whose details are kept in memory at the same time.
+     */
+    private long userDetailsCacheMaxSize = 10_000;
+
+    /**
+     * Maximum number of verified JWTs whose claims are kept in memory to skip repeated signature checks.
+     */
+    private long verifiedTokenCacheMaxSize = 10_000;
+
+    /**
+     * How long reading items are kept in memory before being reloaded from the database.
+     */
+    private Duration readingItemCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of reading items kept in memory at the same time. Zero turns the cache off.
+     */
+    private long readingItemCacheMaxSize = 10_000;
+
+    /**
+     * Number of reading items saved per transaction during a catalog import.
+     */
+    @Positive(message = "The import chunk size must be positive")
+    private int importChunkSize = 500;
+
+    /**
+     * Whether startup fails, rather than logs a warning, when requests run on virtual threads and a blocking call
+     * pins the carrier thread.
+     */
+    private boolean failOnVirtualThreadPinning = false;
+
+    /**
+     * BCrypt cost factor for new password hashes; each step doubles the hashing time. Existing hashes keep the cost
+     * they were created with.
+     */
+    @Min(value = 4, message = "The password hash cost must be at least 4")
+    @Max(value = 31, message = "The password hash cost must be at most 31")
+    private int passwordHashCost = 10;
+
+    /**
+     * Number of threads hashing and verifying passwords, which bounds the cores that logins can keep busy.
+     */
+    @Positive(message = "The number of password hash threads must be positive")
+    private int passwordHashThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Maximum number of password hashes waiting for a hashing thread before further ones are rejected.
+     */
+    @Positive(message = "The password hash queue capacity must be positive")
+    private int passwordHashQueueCapacity = 64;
+
+    /**
+     * How long clients are told to wait before retrying when the password hash queue is full.
+     */
+    private Duration passwordHashRetryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Number of login and registration attempts a single client address can make in a burst.
+     */
+    @Positive(message = "The number of authentication attempts per address must be positive")
+    private int authAttemptsPerAddress = 20;
+
+    /**
+     * Number of login attempts for a single username that can be made in a burst, from any address.
+     */
+    @Positive(message = "The number of login attempts per username must be positive")
+    private int loginAttemptsPerUsername = 5;
+
+    /**
+     * How long a used-up authentication attempt budget takes to fill up again.
+     */
+    private Duration authAttemptRefillPeriod = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of client addresses, and separately of usernames, whose attempt budgets are tracked at the same
+     * time.
+     */
+    @Positive(message = "The rate limiter size must be positive")
+    private long authRateLimitMaxKeys = 100_000;
+
     public String getTimezone() {
         return timezone;
     }
@@ -38,4 +165,193 @@ public class AppProperties {
     public void setSigningKey(String signingKey) {
         this.signingKey = signingKey;
     }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setAccessTokenTtl(Duration accessTokenTtl) {
+        this.accessTokenTtl = accessTokenTtl;
+    }
+
+    public Duration getRefreshTokenTtl() {
+        return refreshTokenTtl;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setRefreshTokenTtl(Duration refreshTokenTtl) {
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    public int getRevokedTokenFilterCapacity() {
+        return revokedTokenFilterCapacity;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setRevokedTokenFilterCapacity(int revokedTokenFilterCapacity) {
+        this.revokedTokenFilterCapacity = revokedTokenFilterCapacity;
+    }
+
+    public boolean isSelfContainedTokens() {
+        return selfContainedTokens;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setSelfContainedTokens(boolean selfContainedTokens) {
+        this.selfContainedTokens = selfContainedTokens;
+    }
+
+    public Duration getSecurityStampCacheTtl() {
+        return securityStampCacheTtl;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setSecurityStampCacheTtl(Duration securityStampCacheTtl) {
+        this.securityStampCacheTtl = securityStampCacheTtl;
+    }
+
+    public long getSecurityStampCacheMaxSize() {
+        return securityStampCacheMaxSize;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setSecurityStampCacheMaxSize(long securityStampCacheMaxSize) {
+        this.securityStampCacheMaxSize = securityStampCacheMaxSize;
+    }
+
+    public Duration getUserDetailsCacheTtl() {
+        return userDetailsCacheTtl;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setUserDetailsCacheTtl(Duration userDetailsCacheTtl) {
+        this.userDetailsCacheTtl = userDetailsCacheTtl;
+    }
+
+    public long getUserDetailsCacheMaxSize() {
+        return userDetailsCacheMaxSize;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setUserDetailsCacheMaxSize(long userDetailsCacheMaxSize) {
+        this.userDetailsCacheMaxSize = userDetailsCacheMaxSize;
+    }
+
+    public long getVerifiedTokenCacheMaxSize() {
+        return verifiedTokenCacheMaxSize;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setVerifiedTokenCacheMaxSize(long verifiedTokenCacheMaxSize) {
+        this.verifiedTokenCacheMaxSize = verifiedTokenCacheMaxSize;
+    }
+
+    public Duration getReadingItemCacheTtl() {
+        return readingItemCacheTtl;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setReadingItemCacheTtl(Duration readingItemCacheTtl) {
+        this.readingItemCacheTtl = readingItemCacheTtl;
+    }
+
+    public long getReadingItemCacheMaxSize() {
+        return readingItemCacheMaxSize;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setReadingItemCacheMaxSize(long readingItemCacheMaxSize) {
+        this.readingItemCacheMaxSize = readingItemCacheMaxSize;
+    }
+
+    public int getImportChunkSize() {
+        return importChunkSize;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setImportChunkSize(int importChunkSize) {
+        this.importChunkSize = importChunkSize;
+    }
+
+    public boolean isFailOnVirtualThreadPinning() {
+        return failOnVirtualThreadPinning;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setFailOnVirtualThreadPinning(boolean failOnVirtualThreadPinning) {
+        this.failOnVirtualThreadPinning = failOnVirtualThreadPinning;
+    }
+
+    public int getPasswordHashCost() {
+        return passwordHashCost;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setPasswordHashCost(int passwordHashCost) {
+        this.passwordHashCost = passwordHashCost;
+    }
+
+    public int getPasswordHashThreads() {
+        return passwordHashThreads;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setPasswordHashThreads(int passwordHashThreads) {
+        this.passwordHashThreads = passwordHashThreads;
+    }
+
+    public int getPasswordHashQueueCapacity() {
+        return passwordHashQueueCapacity;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setPasswordHashQueueCapacity(int passwordHashQueueCapacity) {
+        this.passwordHashQueueCapacity = passwordHashQueueCapacity;
+    }
+
+    public Duration getPasswordHashRetryAfter() {
+        return passwordHashRetryAfter;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setPasswordHashRetryAfter(Duration passwordHashRetryAfter) {
+        this.passwordHashRetryAfter = passwordHashRetryAfter;
+    }
+
+    public int getAuthAttemptsPerAddress() {
+        return authAttemptsPerAddress;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setAuthAttemptsPerAddress(int authAttemptsPerAddress) {
+        this.authAttemptsPerAddress = authAttemptsPerAddress;
+    }
+
+    public int getLoginAttemptsPerUsername() {
+        return loginAttemptsPerUsername;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setLoginAttemptsPerUsername(int loginAttemptsPerUsername) {
+        this.loginAttemptsPerUsername = loginAttemptsPerUsername;
+    }
+
+    public Duration getAuthAttemptRefillPeriod() {
+        return authAttemptRefillPeriod;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setAuthAttemptRefillPeriod(Duration authAttemptRefillPeriod) {
+        this.authAttemptRefillPeriod = authAttemptRefillPeriod;
+    }
+
+    public long getAuthRateLimitMaxKeys() {
+        return authRateLimitMaxKeys;
+    }
+
+    @SuppressWarnings("unused") // Used by Spring when reading application properties
+    public void setAuthRateLimitMaxKeys(long authRateLimitMaxKeys) {
+        this.authRateLimitMaxKeys = authRateLimitMaxKeys;
+    }
 }
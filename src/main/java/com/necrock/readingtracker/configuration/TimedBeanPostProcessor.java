@@ -0,0 +1,124 @@
+package com.necrock.readingtracker.configuration;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every method of beans whose class is annotated with Micrometer's {@link Timed}, tagged with the class, the
+ * method and the exception it threw, if any. The beans are proxied with plain Spring AOP, so unlike Micrometer's
+ * {@code TimedAspect} this needs no AspectJ weaver.
+ */
+@Component
+public class TimedBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final String DEFAULT_TIMER = "method.timed";
+    private static final String NO_EXCEPTION = "none";
+
+    private final TimingInterceptor interceptor;
+
+    public TimedBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.interceptor = new TimingInterceptor(meterRegistry);
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Timed.class, true), interceptor);
+        // Time the whole call, including any transaction opened by advisors already on the bean
+        this.beforeExistingAdvisors = true;
+        setProxyTargetClass(true);
+    }
+
+    /**
+     * Resolves the {@link Timed} annotation of each class once, when its beans are proxied, rather than on every call.
+     */
+    @Override
+    protected boolean isEligible(Class<?> targetClass) {
+        var eligible = super.isEligible(targetClass);
+        if (eligible) {
+            interceptor.register(targetClass);
+        }
+        return eligible;
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+        private final Map<Class<?>, Timed> timedByClass = new ConcurrentHashMap<>();
+        private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+        @Nullable
+        private volatile MeterRegistry meterRegistry;
+
+        TimingInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            this.meterRegistryProvider = meterRegistryProvider;
+        }
+
+        void register(Class<?> targetClass) {
+            var timed = AnnotationUtils.findAnnotation(targetClass, Timed.class);
+            if (timed != null) {
+                timedByClass.put(targetClass, timed);
+            }
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            var targetClass = AopUtils.getTargetClass(invocation.getThis());
+            var timed = timedByClass.get(targetClass);
+            var registry = meterRegistry();
+            if (timed == null || registry == null) {
+                return invocation.proceed();
+            }
+
+            var sample = Timer.start(registry);
+            Class<?> exception = null;
+            try {
+                return invocation.proceed();
+            } catch (Throwable ex) {
+                exception = ex.getClass();
+                throw ex;
+            } finally {
+                sample.stop(timer(registry, timed, targetClass, invocation.getMethod(), exception));
+            }
+        }
+
+        /**
+         * Returns the registry once it exists. It is looked up lazily, since this post-processor is created before
+         * the registry is.
+         */
+        @Nullable
+        private MeterRegistry meterRegistry() {
+            var registry = meterRegistry;
+            if (registry == null) {
+                registry = meterRegistryProvider.getIfAvailable();
+                meterRegistry = registry;
+            }
+            return registry;
+        }
+
+        private Timer timer(
+                MeterRegistry registry, Timed timed, Class<?> targetClass, Method method, @Nullable Class<?> exception) {
+            return timers.computeIfAbsent(new TimerKey(targetClass, method, exception), key ->
+                    Timer.builder(timed.value().isEmpty() ? DEFAULT_TIMER : timed.value())
+                            .description(timed.description().isEmpty() ? null : timed.description())
+                            .tags(timed.extraTags())
+                            .tag("class", targetClass.getSimpleName())
+                            .tag("method", method.getName())
+                            .tag("exception", exception != null ? exception.getSimpleName() : NO_EXCEPTION)
+                            .publishPercentileHistogram(timed.histogram())
+                            .publishPercentiles(timed.percentiles().length > 0 ? timed.percentiles() : null)
+                            .register(registry));
+        }
+    }
+
+    private record TimerKey(Class<?> targetClass, Method method, @Nullable Class<?> exception) {}
+}
@@ -0,0 +1,155 @@
+package com.necrock.readingtracker.configuration;
+
+import com.google.common.collect.ImmutableSet;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Checks at startup, when requests run on virtual threads, that the JDBC calls of a request do not pin their carrier
+ * thread. A virtual thread that blocks inside a {@code synchronized} section or native frame keeps its carrier, and a
+ * few of those stall every other request. The check queries the database from more virtual threads than the
+ * connection pool holds, so that some of them wait, and listens for the pinning events the JVM records meanwhile.
+ * <p>
+ * The startup probe only reaches the connection pool and the JDBC driver. To catch the application's own
+ * {@code synchronized} sections as well, the pinning events of every request path keep being recorded after startup,
+ * and each place where a virtual thread was pinned is logged once.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningCheck implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningCheck.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int PROBE_THREADS = 64;
+    private static final int REPORTED_FRAMES = 12;
+
+    private final DataSource dataSource;
+    private final AppProperties properties;
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+    @Nullable
+    private RecordingStream monitor;
+
+    public VirtualThreadPinningCheck(DataSource dataSource, AppProperties properties) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        var pinnedStacks = findPinnedStacks(this::queryDatabase, PROBE_THREADS);
+        if (pinnedStacks.isEmpty()) {
+            logger.info("No virtual thread pinning found on the JDBC path");
+        } else {
+            var message = String.format(
+                    "Virtual threads were pinned to their carrier on the JDBC path at:%n%s",
+                    String.join(String.format("%n%n"), pinnedStacks));
+            if (properties.isFailOnVirtualThreadPinning()) {
+                throw new IllegalStateException(message);
+            }
+            logger.warn(message);
+        }
+        reportedStacks.addAll(pinnedStacks);
+        startMonitor();
+    }
+
+    /**
+     * Keeps recording pinning events while the application runs, and logs every place where a virtual thread was
+     * pinned the first time it happens.
+     */
+    private void startMonitor() {
+        monitor = new RecordingStream();
+        monitor.enable(PINNED_EVENT).withStackTrace();
+        monitor.onEvent(PINNED_EVENT, event -> {
+            var stack = describe(event.getStackTrace());
+            if (reportedStacks.add(stack)) {
+                logger.warn("A virtual thread was pinned to its carrier for {} ms at:{}{}",
+                        event.getDuration().toMillis(), System.lineSeparator(), stack);
+            }
+        });
+        monitor.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (monitor != null) {
+            monitor.close();
+        }
+    }
+
+    private void queryDatabase() {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not query the database", ex);
+        }
+    }
+
+    /**
+     * Runs the probe on the given number of virtual threads at once and returns the stack of every place where one of
+     * them blocked while pinned.
+     */
+    static ImmutableSet<String> findPinnedStacks(Runnable probe, int threads) {
+        Set<String> pinnedStacks = ConcurrentHashMap.newKeySet();
+        try (var recording = new RecordingStream()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, event -> pinnedStacks.add(describe(event.getStackTrace())));
+            recording.startAsync();
+
+            var futures = new ArrayList<Future<?>>(threads);
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(probe));
+                }
+            }
+            for (var future : futures) {
+                future.get();
+            }
+            // Stopping delivers the events that are still buffered
+            recording.stop();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Virtual thread pinning probe failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while probing for virtual thread pinning", ex);
+        }
+        return ImmutableSet.copyOf(pinnedStacks);
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\tat <unknown>";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(REPORTED_FRAMES)
+                .map(VirtualThreadPinningCheck::describe)
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return String.format("\tat %s.%s:%d", method.getType().getName(), method.getName(), frame.getLineNumber());
+    }
+}
@@ -0,0 +1,21 @@
+package com.necrock.readingtracker.exception;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@ResponseStatus(SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
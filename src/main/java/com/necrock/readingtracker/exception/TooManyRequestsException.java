@@ -0,0 +1,21 @@
+package com.necrock.readingtracker.exception;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+@ResponseStatus(TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
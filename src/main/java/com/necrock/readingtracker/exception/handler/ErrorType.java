@@ -5,5 +5,8 @@ public enum ErrorType {
     VALIDATION_ERROR,
     NOT_FOUND_ERROR,
     ALREADY_EXISTS_ERROR,
-    UNAUTHORIZED_ERROR
+    CONFLICT_ERROR,
+    UNAUTHORIZED_ERROR,
+    RATE_LIMITED_ERROR,
+    UNAVAILABLE_ERROR
 }
@@ -1,30 +1,43 @@
 package com.necrock.readingtracker.exception.handler;
 
 import com.necrock.readingtracker.exception.AlreadyExistsException;
+import com.necrock.readingtracker.exception.BadRequestException;
+import com.necrock.readingtracker.exception.ConflictException;
 import com.necrock.readingtracker.exception.NotFoundException;
+import com.necrock.readingtracker.exception.ServiceUnavailableException;
+import com.necrock.readingtracker.exception.TooManyRequestsException;
 import com.necrock.readingtracker.exception.UnauthorizedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 import static com.necrock.readingtracker.exception.handler.ErrorType.ALREADY_EXISTS_ERROR;
+import static com.necrock.readingtracker.exception.handler.ErrorType.CONFLICT_ERROR;
 import static com.necrock.readingtracker.exception.handler.ErrorType.INTERNAL_ERROR;
 import static com.necrock.readingtracker.exception.handler.ErrorType.NOT_FOUND_ERROR;
+import static com.necrock.readingtracker.exception.handler.ErrorType.RATE_LIMITED_ERROR;
 import static com.necrock.readingtracker.exception.handler.ErrorType.UNAUTHORIZED_ERROR;
+import static com.necrock.readingtracker.exception.handler.ErrorType.UNAVAILABLE_ERROR;
 import static com.necrock.readingtracker.exception.handler.ErrorType.VALIDATION_ERROR;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 @RestControllerAdvice
@@ -42,6 +55,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(BAD_REQUEST).body(apiError);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiError> handleBadRequest(BadRequestException ex) {
+        var apiError = new ApiError(VALIDATION_ERROR, ex.getMessage());
+        return ResponseEntity.status(BAD_REQUEST).body(apiError);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiError> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        var apiError = new ApiError(VALIDATION_ERROR, String.format("Invalid value for '%s'", ex.getName()));
+        return ResponseEntity.status(BAD_REQUEST).body(apiError);
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(NotFoundException ex) {
         var apiError = new ApiError(NOT_FOUND_ERROR, ex.getMessage());
@@ -60,6 +85,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(CONFLICT).body(apiError);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiError> handleConflict(ConflictException ex) {
+        var apiError = new ApiError(CONFLICT_ERROR, ex.getMessage());
+        return ResponseEntity.status(CONFLICT).body(apiError);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        var apiError = new ApiError(CONFLICT_ERROR, "The resource was changed concurrently");
+        return ResponseEntity.status(CONFLICT).body(apiError);
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ApiError> handleUnauthorized(UnauthorizedException ex) {
         var apiError = new ApiError(UNAUTHORIZED_ERROR, ex.getMessage());
@@ -84,9 +121,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(FORBIDDEN).body(apiError);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiError> handleTooManyRequests(TooManyRequestsException ex) {
+        var apiError = new ApiError(RATE_LIMITED_ERROR, ex.getMessage());
+        return ResponseEntity.status(TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(apiError);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleServiceUnavailable(ServiceUnavailableException ex) {
+        var apiError = new ApiError(UNAVAILABLE_ERROR, ex.getMessage());
+        return ResponseEntity.status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()))
+                .body(apiError);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneralError(Exception ex) {
         var apiError = new ApiError(INTERNAL_ERROR, ex.getMessage());
         return ResponseEntity.status(INTERNAL_SERVER_ERROR).body(apiError);
     }
+
+    private static String retryAfterSeconds(Duration retryAfter) {
+        // Retry-After counts whole seconds; round up so that clients never retry too early
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
 }
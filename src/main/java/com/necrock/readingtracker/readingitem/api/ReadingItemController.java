@@ -1,60 +1,141 @@
 package com.necrock.readingtracker.readingitem.api;
 
 import com.google.common.collect.ImmutableList;
+import com.necrock.readingtracker.common.VersionTags;
 import com.necrock.readingtracker.readingitem.api.dto.CreateReadingItemRequest;
 import com.necrock.readingtracker.readingitem.api.dto.ReadingItemDetailsDto;
+import com.necrock.readingtracker.readingitem.api.dto.ReadingItemImportResultDto;
+import com.necrock.readingtracker.readingitem.api.dto.ReadingItemSuggestionDto;
 import com.necrock.readingtracker.readingitem.api.dto.UpdateReadingItemRequest;
+import com.necrock.readingtracker.readingitem.common.ReadingItemSort;
 import com.necrock.readingtracker.readingitem.service.ReadingItemService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.necrock.readingtracker.readingitem.api.ReadingItemImportParser.TEXT_CSV_VALUE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("api/items")
 public class ReadingItemController {
 
+    public static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final ReadingItemService service;
     private final ReadingItemMapper mapper;
+    private final ReadingItemPageTokenCodec pageTokenCodec;
+    private final ReadingItemImportParser importParser;
 
-    public ReadingItemController(ReadingItemService service, ReadingItemMapper mapper) {
+    public ReadingItemController(
+            ReadingItemService service,
+            ReadingItemMapper mapper,
+            ReadingItemPageTokenCodec pageTokenCodec,
+            ReadingItemImportParser importParser) {
         this.service = service;
         this.mapper = mapper;
+        this.pageTokenCodec = pageTokenCodec;
+        this.importParser = importParser;
     }
 
     @GetMapping("/{id}")
-    public ReadingItemDetailsDto getItem(@PathVariable Long id) {
-        return mapper.toDetailsDto(service.getReadingItem(id));
+    public ReadingItemDetailsDto getItem(@PathVariable Long id, WebRequest request) {
+        var item = service.getReadingItem(id);
+        if (request.checkNotModified(String.valueOf(item.getVersion()))) {
+            return null;
+        }
+        return mapper.toDetailsDto(item);
     }
 
     @GetMapping
-    public ImmutableList<ReadingItemDetailsDto> getAllItems() {
-        return service.getAllReadingItems().stream()
+    public ResponseEntity<ImmutableList<ReadingItemDetailsDto>> getAllItems(
+            @RequestParam(defaultValue = "CREATED_AT") ReadingItemSort sort,
+            @RequestParam(defaultValue = "" + ReadingItemService.DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(required = false) String pageToken,
+            WebRequest request) {
+        // The URL already identifies the page, so the catalog version is enough to tell whether it changed
+        if (request.checkNotModified(service.getCatalogVersion())) {
+            return null;
+        }
+        var after = pageToken == null ? null : pageTokenCodec.decode(pageToken);
+        var page = service.getReadingItemPage(sort, after, pageSize);
+
+        var response = ResponseEntity.ok();
+        page.nextCursor().ifPresent(cursor -> response.header(NEXT_PAGE_TOKEN_HEADER, pageTokenCodec.encode(cursor)));
+        return response.body(page.items().stream()
+                .map(mapper::toDetailsDto)
+                .collect(toImmutableList()));
+    }
+
+    @GetMapping("/search")
+    public ImmutableList<ReadingItemDetailsDto> searchItems(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "" + ReadingItemService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return service.searchReadingItems(q, limit).stream()
                 .map(mapper::toDetailsDto)
                 .collect(toImmutableList());
     }
 
+    @GetMapping("/suggest")
+    public ImmutableList<ReadingItemSuggestionDto> suggestItems(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "" + ReadingItemService.MAX_SUGGEST_LIMIT) int limit) {
+        return service.suggestReadingItems(prefix, limit).stream()
+                .map(mapper::toSuggestionDto)
+                .collect(toImmutableList());
+    }
+
     @PostMapping
     @ResponseStatus(CREATED)
     public ReadingItemDetailsDto addItem(@Valid @RequestBody CreateReadingItemRequest request) {
         return mapper.toDetailsDto(service.addReadingItem(mapper.toDomainModel(request)));
     }
 
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ReadingItemImportResultDto importItems(
+            @RequestHeader(CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        var charset = contentType.getCharset() == null ? UTF_8 : contentType.getCharset();
+        try (var reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset))) {
+            return mapper.toImportResultDto(service.importReadingItems(importParser.parse(contentType, reader)));
+        }
+    }
+
     @PatchMapping("/{id}")
-    public ReadingItemDetailsDto updateItem(
+    public ResponseEntity<ReadingItemDetailsDto> updateItem(
             @PathVariable Long id,
+            @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateReadingItemRequest request) {
-        return mapper.toDetailsDto(service.updateReadingItem(id, mapper.toDomainModel(request)));
+        var update = mapper.toDomainModel(request).toBuilder()
+                .version(VersionTags.parseIfMatch(ifMatch))
+                .build();
+        var item = service.updateReadingItem(id, update);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(item.getVersion()))
+                .body(mapper.toDetailsDto(item));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,320 @@
+package com.necrock.readingtracker.readingitem.api;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.necrock.readingtracker.exception.BadRequestException;
+import com.necrock.readingtracker.readingitem.api.dto.CreateReadingItemRequest;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportFailure;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportRecord;
+import jakarta.validation.Validator;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+/**
+ * Reads a CSV or NDJSON import body one record at a time, so that memory use does not depend on the size of the body.
+ * Every record is validated like a {@link CreateReadingItemRequest}; records that fail are returned as rejected
+ * instead of ending the import.
+ */
+@Component
+public class ReadingItemImportParser {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    public static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final ImmutableSet<String> CSV_COLUMNS =
+            ImmutableSet.of("title", "type", "author", "totalChapters");
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ReadingItemMapper mapper;
+
+    public ReadingItemImportParser(ObjectMapper objectMapper, Validator validator, ReadingItemMapper mapper) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Returns the records of the body in order. A CSV header is read right away, so that an unusable header is
+     * reported before anything is imported.
+     */
+    public Iterator<ReadingItemImportRecord> parse(MediaType contentType, Reader reader) {
+        var lines = new LineReader(reader);
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvRecords(lines);
+        }
+        if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonRecords(lines);
+        }
+        throw new BadRequestException(String.format("Unsupported import format '%s'", contentType));
+    }
+
+    private ReadingItemImportRecord toRecord(long line, JsonNode node) {
+        CreateReadingItemRequest request;
+        try {
+            request = objectMapper.treeToValue(node, CreateReadingItemRequest.class);
+        } catch (JsonMappingException ex) {
+            var path = ex.getPath();
+            var message = path.isEmpty()
+                    ? "Invalid reading item"
+                    : String.format("Invalid value for '%s'", path.getLast().getFieldName());
+            return ReadingItemImportRecord.rejected(new ReadingItemImportFailure(line, message));
+        } catch (JacksonException ex) {
+            return ReadingItemImportRecord.rejected(new ReadingItemImportFailure(line, "Invalid reading item"));
+        }
+
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            for (var violation : violations) {
+                errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            return ReadingItemImportRecord.rejected(
+                    new ReadingItemImportFailure(line, "Validation failed", ImmutableMap.copyOf(errors)));
+        }
+        return ReadingItemImportRecord.parsed(line, mapper.toDomainModel(request));
+    }
+
+    private static ReadingItemImportRecord rejected(long line, String message) {
+        return ReadingItemImportRecord.rejected(new ReadingItemImportFailure(line, message));
+    }
+
+    private class NdjsonRecords extends AbstractIterator<ReadingItemImportRecord> {
+        private final LineReader lines;
+
+        NdjsonRecords(LineReader lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        protected ReadingItemImportRecord computeNext() {
+            var line = lines.nextNonBlank();
+            if (line == null) {
+                return endOfData();
+            }
+            if (line.truncated()) {
+                return rejected(line.number(), tooLongMessage());
+            }
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line.text());
+            } catch (JacksonException ex) {
+                return rejected(line.number(), "Malformed JSON");
+            }
+            if (!node.isObject()) {
+                return rejected(line.number(), "Expected a JSON object");
+            }
+            return toRecord(line.number(), node);
+        }
+    }
+
+    private class CsvRecords extends AbstractIterator<ReadingItemImportRecord> {
+        private final LineReader lines;
+        private final ImmutableList<String> columns;
+
+        CsvRecords(LineReader lines) {
+            this.lines = lines;
+            this.columns = readHeader();
+        }
+
+        private ImmutableList<String> readHeader() {
+            var header = lines.nextNonBlank();
+            if (header == null) {
+                throw new BadRequestException("CSV import is missing a header row");
+            }
+            var fields = new ArrayList<String>();
+            var field = new StringBuilder();
+            if (header.truncated() || splitFields(header.text(), fields, field, false)) {
+                throw new BadRequestException("CSV import has an invalid header row");
+            }
+            fields.add(field.toString());
+
+            var columns = fields.stream()
+                    .map(column -> column.replace("\uFEFF", "").trim())
+                    .collect(toImmutableList());
+            for (var column : columns) {
+                if (!CSV_COLUMNS.contains(column)) {
+                    throw new BadRequestException(String.format(
+                            "Unknown CSV column '%s', expected any of %s", column, String.join(", ", CSV_COLUMNS)));
+                }
+            }
+            if (ImmutableSet.copyOf(columns).size() != columns.size()) {
+                throw new BadRequestException("CSV import has duplicate columns");
+            }
+            return columns;
+        }
+
+        @Override
+        protected ReadingItemImportRecord computeNext() {
+            var first = lines.nextNonBlank();
+            if (first == null) {
+                return endOfData();
+            }
+
+            // A quoted value can span several lines, so keep reading until all quotes are closed
+            var fields = new ArrayList<String>(columns.size());
+            var field = new StringBuilder();
+            var line = first;
+            var length = 0;
+            var quoted = false;
+            while (true) {
+                length += line.text().length();
+                if (line.truncated() || length > MAX_RECORD_LENGTH) {
+                    skipQuotedLines(quoted != line.oddQuotes());
+                    return rejected(first.number(), tooLongMessage());
+                }
+                quoted = splitFields(line.text(), fields, field, quoted);
+                if (!quoted) {
+                    break;
+                }
+                field.append('\n');
+                line = lines.next();
+                if (line == null) {
+                    return rejected(first.number(), "Unterminated quoted value");
+                }
+            }
+            fields.add(field.toString());
+
+            if (fields.size() != columns.size()) {
+                return rejected(first.number(),
+                        String.format("Expected %d values but found %d", columns.size(), fields.size()));
+            }
+            var node = objectMapper.createObjectNode();
+            for (int i = 0; i < columns.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    node.put(columns.get(i), fields.get(i));
+                }
+            }
+            return toRecord(first.number(), node);
+        }
+
+        /**
+         * Skips the lines that continue a rejected record, so that they are not read as records of their own. Every
+         * quote opens or closes a value, except for escaped pairs, so the quote count tells whether one is still open.
+         */
+        private void skipQuotedLines(boolean quoted) {
+            while (quoted) {
+                var line = lines.next();
+                if (line == null) {
+                    return;
+                }
+                quoted = quoted != line.oddQuotes();
+            }
+        }
+    }
+
+    /**
+     * Splits one line into fields, adding completed fields to the list and leaving the last one in the builder.
+     * Returns whether a quoted value is still open at the end of the line.
+     */
+    private static boolean splitFields(String text, List<String> fields, StringBuilder field, boolean quoted) {
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        return quoted;
+    }
+
+    private static String tooLongMessage() {
+        return String.format("Record is longer than %d characters", MAX_RECORD_LENGTH);
+    }
+
+    private record Line(long number, String text, boolean truncated, boolean oddQuotes) {}
+
+    /**
+     * Reads lines of at most {@link #MAX_RECORD_LENGTH} characters. The rest of a longer line is skipped and the line
+     * is marked as truncated. Whether the whole line holds an odd number of quotes is recorded either way.
+     */
+    private static class LineReader {
+        private final Reader reader;
+        private final StringBuilder text = new StringBuilder();
+        private long lineNumber;
+        private boolean endOfInput;
+
+        LineReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Nullable
+        Line nextNonBlank() {
+            var line = next();
+            while (line != null && !line.truncated() && line.text().isBlank()) {
+                line = next();
+            }
+            return line;
+        }
+
+        @Nullable
+        Line next() {
+            if (endOfInput) {
+                return null;
+            }
+            text.setLength(0);
+            var truncated = false;
+            var oddQuotes = false;
+            try {
+                int c;
+                while ((c = reader.read()) != -1 && c != '\n') {
+                    if (c == '"') {
+                        oddQuotes = !oddQuotes;
+                    }
+                    if (text.length() < MAX_RECORD_LENGTH) {
+                        text.append((char) c);
+                    } else {
+                        truncated = true;
+                    }
+                }
+                if (c == -1) {
+                    endOfInput = true;
+                    if (text.isEmpty() && !truncated) {
+                        return null;
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (!text.isEmpty() && text.charAt(text.length() - 1) == '\r') {
+                text.setLength(text.length() - 1);
+            }
+            lineNumber++;
+            return new Line(lineNumber, text.toString(), truncated, oddQuotes);
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.necrock.readingtracker.readingitem.api;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.necrock.readingtracker.readingitem.api.dto.CreateReadingItemRequest;
 import com.necrock.readingtracker.readingitem.api.dto.ReadingItemDetailsDto;
+import com.necrock.readingtracker.readingitem.api.dto.ReadingItemImportFailureDto;
+import com.necrock.readingtracker.readingitem.api.dto.ReadingItemImportResultDto;
+import com.necrock.readingtracker.readingitem.api.dto.ReadingItemSuggestionDto;
 import com.necrock.readingtracker.readingitem.api.dto.UpdateReadingItemRequest;
 import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportFailure;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportResult;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemSuggestion;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 @Mapper(componentModel = "spring")
 public interface ReadingItemMapper {
 
@@ -14,9 +24,28 @@ public interface ReadingItemMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ReadingItem toDomainModel(CreateReadingItemRequest dto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ReadingItem toDomainModel(UpdateReadingItemRequest dto);
+
+    ReadingItemSuggestionDto toSuggestionDto(ReadingItemSuggestion suggestion);
+
+    ReadingItemImportResultDto toImportResultDto(ReadingItemImportResult result);
+
+    ReadingItemImportFailureDto toImportFailureDto(ReadingItemImportFailure failure);
+
+    default ImmutableList<ReadingItemImportFailureDto> toImportFailureDtos(
+            ImmutableList<ReadingItemImportFailure> failures) {
+        return failures.stream()
+                .map(this::toImportFailureDto)
+                .collect(toImmutableList());
+    }
+
+    default ImmutableMap<String, String> copyDetails(ImmutableMap<String, String> details) {
+        return details;
+    }
 }
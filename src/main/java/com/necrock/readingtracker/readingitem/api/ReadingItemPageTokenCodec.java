@@ -0,0 +1,44 @@
+package com.necrock.readingtracker.readingitem.api;
+
+import com.necrock.readingtracker.exception.BadRequestException;
+import com.necrock.readingtracker.readingitem.common.ReadingItemSort;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemCursor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Converts listing cursors to and from the opaque page tokens handed out to clients.
+ */
+@Component
+public class ReadingItemPageTokenCodec {
+
+    private static final String SEPARATOR = "\n";
+
+    public String encode(ReadingItemCursor cursor) {
+        var sortKey = switch (cursor.sort()) {
+            case CREATED_AT -> cursor.createdAt().toString();
+            case TITLE -> cursor.title();
+        };
+        // The sort key goes last, as titles may contain the separator
+        var token = String.join(SEPARATOR, cursor.sort().name(), Long.toString(cursor.id()), sortKey);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ReadingItemCursor decode(String pageToken) {
+        try {
+            var token = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            var parts = token.split(SEPARATOR, 3);
+            var sort = ReadingItemSort.valueOf(parts[0]);
+            var id = Long.parseLong(parts[1]);
+            return switch (sort) {
+                case CREATED_AT -> new ReadingItemCursor(sort, Instant.parse(parts[2]), null, id);
+                case TITLE -> new ReadingItemCursor(sort, null, parts[2], id);
+            };
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid page token");
+        }
+    }
+}
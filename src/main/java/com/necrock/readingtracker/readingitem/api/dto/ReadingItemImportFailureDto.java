@@ -0,0 +1,58 @@
+package com.necrock.readingtracker.readingitem.api.dto;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ReadingItemImportFailureDto {
+    private final long line;
+    private final String message;
+    private final ImmutableMap<String, String> details;
+
+    private ReadingItemImportFailureDto(long line, String message, ImmutableMap<String, String> details) {
+        this.line = line;
+        this.message = message;
+        this.details = details;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ImmutableMap<String, String> getDetails() {
+        return details;
+    }
+
+    public static class Builder {
+        private long line;
+        private String message;
+        private ImmutableMap<String, String> details = ImmutableMap.of();
+
+        private Builder() {}
+
+        public Builder line(long line) {
+            this.line = line;
+            return this;
+        }
+
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        public Builder details(ImmutableMap<String, String> details) {
+            this.details = details;
+            return this;
+        }
+
+        public ReadingItemImportFailureDto build() {
+            return new ReadingItemImportFailureDto(line, message, details);
+        }
+    }
+}
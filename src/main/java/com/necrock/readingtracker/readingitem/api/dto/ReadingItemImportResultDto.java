@@ -0,0 +1,61 @@
+package com.necrock.readingtracker.readingitem.api.dto;
+
+import com.google.common.collect.ImmutableList;
+
+public class ReadingItemImportResultDto {
+    private final int importedCount;
+    private final int failedCount;
+    private final ImmutableList<ReadingItemImportFailureDto> failures;
+
+    private ReadingItemImportResultDto(
+            int importedCount,
+            int failedCount,
+            ImmutableList<ReadingItemImportFailureDto> failures) {
+        this.importedCount = importedCount;
+        this.failedCount = failedCount;
+        this.failures = failures;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public ImmutableList<ReadingItemImportFailureDto> getFailures() {
+        return failures;
+    }
+
+    public static class Builder {
+        private int importedCount;
+        private int failedCount;
+        private ImmutableList<ReadingItemImportFailureDto> failures = ImmutableList.of();
+
+        private Builder() {}
+
+        public Builder importedCount(int importedCount) {
+            this.importedCount = importedCount;
+            return this;
+        }
+
+        public Builder failedCount(int failedCount) {
+            this.failedCount = failedCount;
+            return this;
+        }
+
+        public Builder failures(ImmutableList<ReadingItemImportFailureDto> failures) {
+            this.failures = failures;
+            return this;
+        }
+
+        public ReadingItemImportResultDto build() {
+            return new ReadingItemImportResultDto(importedCount, failedCount, failures);
+        }
+    }
+}
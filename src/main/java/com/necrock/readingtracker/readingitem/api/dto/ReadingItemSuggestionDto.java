@@ -0,0 +1,56 @@
+package com.necrock.readingtracker.readingitem.api.dto;
+
+public class ReadingItemSuggestionDto {
+    private final long id;
+    private final String title;
+    private final String author;
+
+    private ReadingItemSuggestionDto(long id, String title, String author) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public static class Builder {
+        private long id;
+        private String title;
+        private String author;
+
+        private Builder() {}
+
+        public Builder id(long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder author(String author) {
+            this.author = author;
+            return this;
+        }
+
+        public ReadingItemSuggestionDto build() {
+            return new ReadingItemSuggestionDto(id, title, author);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.necrock.readingtracker.readingitem.common;
+
+public enum ReadingItemSort {
+    CREATED_AT,
+    TITLE
+}
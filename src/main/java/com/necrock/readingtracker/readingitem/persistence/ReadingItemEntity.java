@@ -8,23 +8,36 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.MapKey;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.Hibernate;
 
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static com.necrock.readingtracker.common.IdSequenceAligner.ID_ALLOCATION_SIZE;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @Entity
-@Table(name = "items")
+@Table(
+        name = "items",
+        indexes = {
+                @Index(name = "items_created_at_id", columnList = "createdAt, id"),
+                @Index(name = "items_title_id", columnList = "title, id")})
 public class ReadingItemEntity {
 
+    public static final String ID_SEQUENCE =
+            "items_id_seq";
+
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -38,6 +51,9 @@ public class ReadingItemEntity {
 
     private Instant createdAt;
 
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "readingItem", cascade = CascadeType.ALL, orphanRemoval = true)
     @MapKey(name = "id")
     private Map<Long, ReadingProgressEntity> progressSet = new HashMap<>();
@@ -47,13 +63,15 @@ public class ReadingItemEntity {
                               ReadingItemType type,
                               String author,
                               Integer totalChapters,
-                              Instant createdAt) {
+                              Instant createdAt,
+                              Long version) {
         this.id = id;
         this.title = title;
         this.type = type;
         this.author = author;
         this.totalChapters = totalChapters;
         this.createdAt = createdAt;
+        this.version = version;
     }
 
     @SuppressWarnings("unused") // Required for JPA
@@ -91,6 +109,14 @@ public class ReadingItemEntity {
         return createdAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public boolean isProgressLoaded() {
+        return Hibernate.isInitialized(progressSet);
+    }
+
     public void addProgress(ReadingProgressEntity progress) {
         progressSet.put(progress.getId(), progress);
     }
@@ -106,7 +132,8 @@ public class ReadingItemEntity {
                 .type(type)
                 .author(author)
                 .totalChapters(totalChapters)
-                .createdAt(createdAt);
+                .createdAt(createdAt)
+                .version(version);
     }
 
     @Override
@@ -121,7 +148,8 @@ public class ReadingItemEntity {
                 && getType() == that.getType()
                 && Objects.equals(getAuthor(), that.getAuthor())
                 && Objects.equals(getTotalChapters(), that.getTotalChapters())
-                && Objects.equals(getCreatedAt(), that.getCreatedAt());
+                && Objects.equals(getCreatedAt(), that.getCreatedAt())
+                && Objects.equals(getVersion(), that.getVersion());
     }
 
     @Override
@@ -132,7 +160,8 @@ public class ReadingItemEntity {
                 getType(),
                 getAuthor(),
                 getTotalChapters(),
-                getCreatedAt());
+                getCreatedAt(),
+                getVersion());
     }
 
     public static class Builder {
@@ -142,6 +171,7 @@ public class ReadingItemEntity {
         private String author;
         private Integer totalChapters;
         private Instant createdAt;
+        private Long version;
 
         public Builder id(Long id) {
             this.id = id;
@@ -173,8 +203,13 @@ public class ReadingItemEntity {
             return this;
         }
 
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public ReadingItemEntity build() {
-            return new ReadingItemEntity(id, title, type, author, totalChapters, createdAt);
+            return new ReadingItemEntity(id, title, type, author, totalChapters, createdAt, version);
         }
     }
 }
@@ -1,5 +1,73 @@
 package com.necrock.readingtracker.readingitem.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ReadingItemRepository extends JpaRepository<ReadingItemEntity, Long> {}
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface ReadingItemRepository extends JpaRepository<ReadingItemEntity, Long> {
+
+    @Query("SELECT i FROM ReadingItemEntity i ORDER BY i.createdAt, i.id")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ReadingItemEntity> findFirstPageByCreatedAt(Limit limit);
+
+    @Query("""
+            SELECT i FROM ReadingItemEntity i
+            WHERE i.createdAt > :createdAt OR (i.createdAt = :createdAt AND i.id > :id)
+            ORDER BY i.createdAt, i.id""")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ReadingItemEntity> findPageByCreatedAtAfter(
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Query("SELECT i FROM ReadingItemEntity i ORDER BY i.title, i.id")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ReadingItemEntity> findFirstPageByTitle(Limit limit);
+
+    @Query("""
+            SELECT i FROM ReadingItemEntity i
+            WHERE i.title > :title OR (i.title = :title AND i.id > :id)
+            ORDER BY i.title, i.id""")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ReadingItemEntity> findPageByTitleAfter(
+            @Param("title") String title,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE ReadingItemEntity i
+            SET i.title = :title, i.type = :type, i.author = :author, i.totalChapters = :totalChapters,
+                i.version = i.version + 1
+            WHERE i.id = :id AND i.version = :version""")
+    int updateIfVersionMatches(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("title") String title,
+            @Param("type") ReadingItemType type,
+            @Param("author") String author,
+            @Param("totalChapters") Integer totalChapters);
+
+    @Query("""
+            SELECT new com.necrock.readingtracker.readingitem.persistence.ReadingItemSearchRow(
+                i.id, i.title, i.author, COUNT(p))
+            FROM ReadingItemEntity i LEFT JOIN i.progressSet p
+            GROUP BY i.id, i.title, i.author
+            ORDER BY i.id""")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ReadingItemSearchRow> streamAllSearchRows();
+}
@@ -0,0 +1,6 @@
+package com.necrock.readingtracker.readingitem.persistence;
+
+/**
+ * The columns of a reading item that the search and suggest indexes cover, with its number of readers.
+ */
+public record ReadingItemSearchRow(Long id, String title, String author, long readerCount) {}
@@ -2,19 +2,64 @@ package com.necrock.readingtracker.readingitem.persistence;
 
 import com.google.common.collect.ImmutableMap;
 import com.necrock.readingtracker.common.SafeRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 @Component
 public class SafeReadingItemRepository extends SafeRepository<ReadingItemEntity, Long> {
+    private final ReadingItemRepository repository;
 
     public SafeReadingItemRepository(ReadingItemRepository repository) {
         super(repository);
+        this.repository = repository;
     }
 
     @Override
     protected ImmutableMap<String, Function<ReadingItemEntity, RuntimeException>> getUniqueConstraints() {
         return ImmutableMap.of();
     }
+
+    public List<ReadingItemEntity> findFirstPageByCreatedAt(int limit) {
+        return repository.findFirstPageByCreatedAt(Limit.of(limit));
+    }
+
+    public List<ReadingItemEntity> findPageByCreatedAtAfter(Instant createdAt, Long id, int limit) {
+        return repository.findPageByCreatedAtAfter(createdAt, id, Limit.of(limit));
+    }
+
+    public List<ReadingItemEntity> findFirstPageByTitle(int limit) {
+        return repository.findFirstPageByTitle(Limit.of(limit));
+    }
+
+    public List<ReadingItemEntity> findPageByTitleAfter(String title, Long id, int limit) {
+        return repository.findPageByTitleAfter(title, id, Limit.of(limit));
+    }
+
+    /**
+     * Writes the columns of the reading item and increments its version in one statement, but only if the stored
+     * reading item still has the version of the given one. Returns whether it did.
+     */
+    public boolean updateIfVersionMatches(ReadingItemEntity item) {
+        return repository.updateIfVersionMatches(
+                item.getId(),
+                item.getVersion(),
+                item.getTitle(),
+                item.getType(),
+                item.getAuthor(),
+                item.getTotalChapters()) > 0;
+    }
+
+    /**
+     * Streams the searchable columns of all reading items in ID order. Must be called within a transaction.
+     */
+    public void forEachSearchRow(Consumer<ReadingItemSearchRow> action) {
+        try (var rows = repository.streamAllSearchRows()) {
+            rows.forEach(action);
+        }
+    }
 }
@@ -0,0 +1,341 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the titles and authors of all reading items. Every query term matches the index terms it is a
+ * prefix of, and a reading item must match all query terms to be found. Matches on the title rank above matches on
+ * the author, and whole-term matches rank above prefix matches.
+ */
+@Component
+public class ReadingItemSearchIndex {
+
+    static final int TITLE_TERM_SCORE = 4;
+    static final int TITLE_PREFIX_SCORE = 3;
+    static final int AUTHOR_TERM_SCORE = 2;
+    static final int AUTHOR_PREFIX_SCORE = 1;
+
+    /** Query terms beyond this many are ignored. */
+    public static final int MAX_QUERY_TERMS = 16;
+
+    // Summed scores are packed into the low bits of the ID, so that candidates sort as plain longs
+    private static final int SCORE_BITS = 8;
+    private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+
+    // Probing costs a binary search per posting list, merging a pass over all postings
+    private static final int PROBE_COST = 20;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, LongPostings> titleTerms = new TreeMap<>();
+    private final NavigableMap<String, LongPostings> authorTerms = new TreeMap<>();
+    // What each reading item was indexed with, so that a change or removal finds the terms to drop
+    private final Map<Long, IndexedText> textById = new HashMap<>();
+
+    /**
+     * Adds a reading item, or replaces its title and author if it was added before.
+     */
+    public void put(long id, @Nullable String title, @Nullable String author) {
+        lock.writeLock().lock();
+        try {
+            var existing = textById.put(id, new IndexedText(title, author));
+            if (existing != null) {
+                removeTerms(titleTerms, id, existing.title());
+                removeTerms(authorTerms, id, existing.author());
+            }
+            addTerms(titleTerms, id, title);
+            addTerms(authorTerms, id, author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            var existing = textById.remove(id);
+            if (existing != null) {
+                removeTerms(titleTerms, id, existing.title());
+                removeTerms(authorTerms, id, existing.author());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the best matching reading items, best match first.
+     */
+    public long[] search(String query, int limit) {
+        var queryTerms = SearchTokenizer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            var termMatches = new ArrayList<TermMatches>(queryTerms.size());
+            for (var queryTerm : queryTerms.asList().subList(0, Math.min(queryTerms.size(), MAX_QUERY_TERMS))) {
+                var matches = findMatches(queryTerm);
+                if (matches.postingCount == 0) {
+                    return new long[0];
+                }
+                termMatches.add(matches);
+            }
+            if (termMatches.size() == 1) {
+                return termMatches.getFirst().top(limit);
+            }
+            // Start from the rarest term so that the candidate list is as short as it gets
+            termMatches.sort(Comparator.comparingLong(matches -> matches.postingCount));
+
+            var candidates = termMatches.getFirst().union();
+            for (var matches : termMatches.subList(1, termMatches.size())) {
+                candidates = matches.postingLists.size() * candidates.length * (long) PROBE_COST
+                        < matches.postingCount
+                        ? probe(candidates, matches)
+                        : merge(candidates, matches.union());
+                if (candidates.length == 0) {
+                    return candidates;
+                }
+            }
+            return topIds(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TermMatches findMatches(String queryTerm) {
+        var matches = new TermMatches();
+        collectMatches(titleTerms, queryTerm, TITLE_TERM_SCORE, TITLE_PREFIX_SCORE, matches);
+        collectMatches(authorTerms, queryTerm, AUTHOR_TERM_SCORE, AUTHOR_PREFIX_SCORE, matches);
+        return matches;
+    }
+
+    private static void collectMatches(
+            NavigableMap<String, LongPostings> terms,
+            String queryTerm,
+            int termScore,
+            int prefixScore,
+            TermMatches matches) {
+        var range = terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        for (var entry : range.entrySet()) {
+            matches.add(entry.getValue(), entry.getKey().length() == queryTerm.length() ? termScore : prefixScore);
+        }
+    }
+
+    /**
+     * Keeps the candidates that occur in one of the posting lists, looking each candidate up in every list.
+     */
+    private static long[] probe(long[] candidates, TermMatches matches) {
+        var result = new long[candidates.length];
+        var count = 0;
+        for (var candidate : candidates) {
+            var id = candidate >>> SCORE_BITS;
+            var score = 0;
+            for (int i = 0; i < matches.postingLists.size(); i++) {
+                if (matches.scores.get(i) > score && matches.postingLists.get(i).contains(id)) {
+                    score = matches.scores.get(i);
+                }
+            }
+            if (score > 0) {
+                result[count++] = candidate + score;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Keeps the candidates that occur in both sorted lists, adding up their scores.
+     */
+    private static long[] merge(long[] left, long[] right) {
+        var result = new long[Math.min(left.length, right.length)];
+        var count = 0;
+        int l = 0;
+        int r = 0;
+        while (l < left.length && r < right.length) {
+            var leftId = left[l] >>> SCORE_BITS;
+            var rightId = right[r] >>> SCORE_BITS;
+            if (leftId < rightId) {
+                l++;
+            } else if (leftId > rightId) {
+                r++;
+            } else {
+                result[count++] = left[l++] + (right[r++] & SCORE_MASK);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Picks the best candidates without sorting them: counts the candidates per score to find the lowest score that
+     * makes the cut, then takes candidates in ID order.
+     */
+    private static long[] topIds(long[] candidates, int limit) {
+        var countsByScore = new int[1 << SCORE_BITS];
+        for (var candidate : candidates) {
+            countsByScore[(int) (candidate & SCORE_MASK)]++;
+        }
+        var minScore = countsByScore.length - 1;
+        var aboveMinScore = 0;
+        while (minScore > 0 && aboveMinScore + countsByScore[minScore] < limit) {
+            aboveMinScore += countsByScore[minScore--];
+        }
+        var atMinScore = Math.min(countsByScore[minScore], limit - aboveMinScore);
+
+        // Candidates are sorted by ID, so the first ones seen with the lowest score are the ones to keep
+        var best = new long[aboveMinScore + atMinScore];
+        var count = 0;
+        for (var candidate : candidates) {
+            var score = (int) (candidate & SCORE_MASK);
+            if (score > minScore || (score == minScore && atMinScore-- > 0)) {
+                best[count++] = candidate;
+            }
+        }
+        // Highest score first, lowest ID first between equal scores
+        for (int i = 0; i < best.length; i++) {
+            best[i] = (SCORE_MASK - (best[i] & SCORE_MASK)) << (Long.SIZE - SCORE_BITS) | best[i] >>> SCORE_BITS;
+        }
+        Arrays.sort(best);
+        for (int i = 0; i < best.length; i++) {
+            best[i] &= -1L >>> SCORE_BITS;
+        }
+        return best;
+    }
+
+    private static void addTerms(NavigableMap<String, LongPostings> terms, long id, @Nullable String text) {
+        for (var term : SearchTokenizer.tokenize(text)) {
+            terms.computeIfAbsent(term, key -> new LongPostings()).add(id);
+        }
+    }
+
+    private static void removeTerms(NavigableMap<String, LongPostings> terms, long id, @Nullable String text) {
+        for (var term : SearchTokenizer.tokenize(text)) {
+            var postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    private record IndexedText(@Nullable String title, @Nullable String author) {}
+
+    /**
+     * The posting lists of all index terms one query term matches, with the score of each.
+     */
+    private static class TermMatches {
+        private final List<LongPostings> postingLists = new ArrayList<>();
+        private final List<Integer> scores = new ArrayList<>();
+        private long postingCount;
+
+        void add(LongPostings postings, int score) {
+            postingLists.add(postings);
+            scores.add(score);
+            postingCount += postings.size();
+        }
+
+        /**
+         * Returns the best IDs when this is the only query term. An ID scores the best score of the lists it occurs
+         * in, so the lowest IDs of the best scoring lists are all that has to be looked at.
+         */
+        long[] top(int limit) {
+            var best = new long[limit];
+            var count = 0;
+            var taken = new HashSet<Long>();
+            var levels = new TreeSet<>(scores).descendingSet();
+            for (var score : levels) {
+                // Earlier levels take at most count IDs that reappear here, so limit IDs per list are enough
+                var lowest = new ArrayList<Long>();
+                for (int i = 0; i < postingLists.size(); i++) {
+                    if (scores.get(i).equals(score)) {
+                        var postings = postingLists.get(i);
+                        for (int j = 0; j < Math.min(postings.size(), limit); j++) {
+                            lowest.add(postings.get(j));
+                        }
+                    }
+                }
+                lowest.sort(null);
+                for (var id : lowest) {
+                    if (count == limit) {
+                        return best;
+                    }
+                    if (taken.add(id)) {
+                        best[count++] = id;
+                    }
+                }
+            }
+            return Arrays.copyOf(best, count);
+        }
+
+        /**
+         * Returns every ID in the posting lists once, packed with its best score and sorted. The lists are merged
+         * pairwise, so that the cost grows with the logarithm of the number of lists rather than a full sort.
+         */
+        long[] union() {
+            var runs = new ArrayList<long[]>(postingLists.size());
+            for (int i = 0; i < postingLists.size(); i++) {
+                var postings = postingLists.get(i);
+                var score = scores.get(i);
+                var packed = new long[postings.size()];
+                for (int j = 0; j < packed.length; j++) {
+                    packed[j] = postings.get(j) << SCORE_BITS | score;
+                }
+                runs.add(packed);
+            }
+            while (runs.size() > 1) {
+                var merged = new ArrayList<long[]>((runs.size() + 1) / 2);
+                for (int i = 0; i + 1 < runs.size(); i += 2) {
+                    merged.add(mergeUnion(runs.get(i), runs.get(i + 1)));
+                }
+                if (runs.size() % 2 == 1) {
+                    merged.add(runs.getLast());
+                }
+                runs = merged;
+            }
+            return runs.getFirst();
+        }
+
+        /**
+         * Keeps the candidates that occur in either sorted list, with the better of their scores.
+         */
+        private static long[] mergeUnion(long[] left, long[] right) {
+            var result = new long[left.length + right.length];
+            var count = 0;
+            int l = 0;
+            int r = 0;
+            while (l < left.length && r < right.length) {
+                var leftId = left[l] >>> SCORE_BITS;
+                var rightId = right[r] >>> SCORE_BITS;
+                if (leftId < rightId) {
+                    result[count++] = left[l++];
+                } else if (leftId > rightId) {
+                    result[count++] = right[r++];
+                } else {
+                    result[count++] = Math.max(left[l++], right[r++]);
+                }
+            }
+            while (l < left.length) {
+                result[count++] = left[l++];
+            }
+            while (r < right.length) {
+                result[count++] = right[r++];
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+    }
+}
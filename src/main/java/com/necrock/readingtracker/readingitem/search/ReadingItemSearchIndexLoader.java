@@ -0,0 +1,41 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import com.necrock.readingtracker.readingitem.persistence.SafeReadingItemRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the search and suggest indexes with the reading items already in the database. From then on the reading item
+ * service keeps them up to date.
+ */
+@Component
+public class ReadingItemSearchIndexLoader implements SmartInitializingSingleton {
+
+    private final SafeReadingItemRepository repository;
+    private final ReadingItemSearchIndex searchIndex;
+    private final ReadingItemSuggestIndex suggestIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReadingItemSearchIndexLoader(
+            SafeReadingItemRepository repository,
+            ReadingItemSearchIndex searchIndex,
+            ReadingItemSuggestIndex suggestIndex,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Runs before the web server accepts requests, so no reading item can change while loading
+        transactionTemplate.executeWithoutResult(status -> repository.forEachSearchRow(row -> {
+            searchIndex.put(row.id(), row.title(), row.author());
+            suggestIndex.put(row.id(), row.title(), row.author(), row.readerCount());
+        }));
+    }
+}
@@ -0,0 +1,459 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemSuggestion;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie over the folded titles and authors of all reading items, for suggesting reading items while the user
+ * types. Every node keeps the most read reading items below it, so a lookup only walks down the typed prefix.
+ */
+@Component
+public class ReadingItemSuggestIndex {
+
+    /** Number of reading items kept per node, and so the most that one lookup can return. */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final char[] NO_LABEL = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node(NO_LABEL);
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+
+    /**
+     * Adds a reading item, or replaces its title and author if it was added before. Its reader count is kept.
+     */
+    public void put(long id, @Nullable String title, @Nullable String author) {
+        lock.writeLock().lock();
+        try {
+            var existing = entriesById.get(id);
+            put(id, title, author, existing != null ? existing.readers : 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a reading item with the given number of readers, replacing it if it was added before.
+     */
+    public void put(long id, @Nullable String title, @Nullable String author, long readers) {
+        lock.writeLock().lock();
+        try {
+            var existing = entriesById.remove(id);
+            if (existing != null) {
+                removeEntry(existing);
+            }
+            var entry = new Entry(id, title, author, readers);
+            entriesById.put(id, entry);
+            for (var key : entry.keys()) {
+                insert(key, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            var entry = entriesById.remove(id);
+            if (entry != null) {
+                removeEntry(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the number of readers of a reading item by the given amount, which reorders the suggestions.
+     */
+    public void addReaders(long id, long delta) {
+        lock.writeLock().lock();
+        try {
+            var entry = entriesById.get(id);
+            if (entry == null) {
+                return;
+            }
+            entry.readers = Math.max(0, entry.readers + delta);
+            for (var key : entry.keys()) {
+                var path = findPath(key);
+                if (path != null) {
+                    updateTops(path);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the most read reading items whose title or author starts with the prefix, most read first.
+     */
+    public ImmutableList<ReadingItemSuggestion> suggest(String prefix, int limit) {
+        var key = SearchTokenizer.fold(prefix);
+        if (key.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            var node = root;
+            var offset = 0;
+            while (offset < key.length()) {
+                var child = node.child(key.charAt(offset));
+                if (child == null) {
+                    return ImmutableList.of();
+                }
+                var matched = child.matchLength(key, offset);
+                if (offset + matched == key.length()) {
+                    // The prefix ends inside or at the end of this edge
+                    node = child;
+                    break;
+                }
+                if (matched < child.label.length) {
+                    return ImmutableList.of();
+                }
+                node = child;
+                offset += matched;
+            }
+
+            var suggestions = ImmutableList.<ReadingItemSuggestion>builder();
+            for (int i = 0; i < Math.min(limit, node.top.length); i++) {
+                suggestions.add(node.top[i].toSuggestion());
+            }
+            return suggestions.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String key, Entry entry) {
+        var path = new ArrayList<Node>();
+        path.add(root);
+        var node = root;
+        var offset = 0;
+        while (offset < key.length()) {
+            var child = node.child(key.charAt(offset));
+            if (child == null) {
+                var leaf = new Node(key.substring(offset).toCharArray());
+                leaf.entries = new Entry[] {entry};
+                node.addChild(leaf);
+                path.add(leaf);
+                offset = key.length();
+                break;
+            }
+            var matched = child.matchLength(key, offset);
+            if (matched < child.label.length) {
+                child = node.split(child, matched);
+            }
+            path.add(child);
+            node = child;
+            offset += matched;
+        }
+        var last = path.getLast();
+        if (last != root && !contains(last.entries, entry)) {
+            last.entries = append(last.entries, entry);
+        }
+        updateTops(path);
+    }
+
+    private void removeEntry(Entry entry) {
+        for (var key : entry.keys()) {
+            var path = findPath(key);
+            if (path == null) {
+                continue;
+            }
+            var node = path.getLast();
+            node.entries = without(node.entries, entry);
+
+            // Drop nodes that lead nowhere and merge nodes that no longer branch
+            for (int i = path.size() - 1; i > 0; i--) {
+                var current = path.get(i);
+                var parent = path.get(i - 1);
+                if (current.entries.length == 0 && current.children.length == 0) {
+                    parent.removeChild(current);
+                } else if (current.entries.length == 0 && current.children.length == 1) {
+                    current.absorbOnlyChild();
+                }
+            }
+            updateTops(livePath(path));
+        }
+    }
+
+    /**
+     * Returns the nodes from the root to the node where the key ends, or null if no node ends exactly there.
+     */
+    @Nullable
+    private List<Node> findPath(String key) {
+        var path = new ArrayList<Node>();
+        path.add(root);
+        var node = root;
+        var offset = 0;
+        while (offset < key.length()) {
+            var child = node.child(key.charAt(offset));
+            if (child == null || child.matchLength(key, offset) < child.label.length) {
+                return null;
+            }
+            path.add(child);
+            node = child;
+            offset += child.label.length;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the part of the path that is still attached to the trie after removals.
+     */
+    private static List<Node> livePath(List<Node> path) {
+        var live = new ArrayList<Node>(path.size());
+        live.add(path.getFirst());
+        for (int i = 1; i < path.size(); i++) {
+            if (!live.getLast().hasChild(path.get(i))) {
+                break;
+            }
+            live.add(path.get(i));
+        }
+        return live;
+    }
+
+    /**
+     * Recomputes the best reading items of every node on the path, deepest first, since each node's best are taken
+     * from its own entries and the best of its children.
+     */
+    private static void updateTops(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).updateTop();
+        }
+    }
+
+    private static boolean contains(Entry[] entries, Entry entry) {
+        for (var candidate : entries) {
+            if (candidate == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        var result = Arrays.copyOf(entries, entries.length + 1);
+        result[entries.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        if (!contains(entries, entry)) {
+            return entries;
+        }
+        if (entries.length == 1) {
+            return NO_ENTRIES;
+        }
+        var result = new Entry[entries.length - 1];
+        var count = 0;
+        for (var candidate : entries) {
+            if (candidate != entry) {
+                result[count++] = candidate;
+            }
+        }
+        return result;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String title;
+        private final String author;
+        private long readers;
+
+        Entry(long id, @Nullable String title, @Nullable String author, long readers) {
+            this.id = id;
+            this.title = title;
+            this.author = author;
+            this.readers = readers;
+        }
+
+        ImmutableSet<String> keys() {
+            var keys = ImmutableSet.<String>builder();
+            for (var text : new String[] {title, author}) {
+                var key = SearchTokenizer.fold(text);
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+            return keys.build();
+        }
+
+        /**
+         * Most readers first, lowest ID first between equal reader counts.
+         */
+        boolean ranksBefore(Entry other) {
+            return readers != other.readers ? readers > other.readers : id < other.id;
+        }
+
+        ReadingItemSuggestion toSuggestion() {
+            return new ReadingItemSuggestion(id, title, author);
+        }
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        @Nullable
+        Node child(char first) {
+            var index = childIndex(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        boolean hasChild(Node child) {
+            var index = childIndex(child.label[0]);
+            return index >= 0 && children[index] == child;
+        }
+
+        /**
+         * Returns how many characters of the label match the key from the offset on.
+         */
+        int matchLength(String key, int offset) {
+            var length = Math.min(label.length, key.length() - offset);
+            for (int i = 0; i < length; i++) {
+                if (label[i] != key.charAt(offset + i)) {
+                    return i;
+                }
+            }
+            return length;
+        }
+
+        void addChild(Node child) {
+            var insertionPoint = -(childIndex(child.label[0]) + 1);
+            var result = new Node[children.length + 1];
+            System.arraycopy(children, 0, result, 0, insertionPoint);
+            result[insertionPoint] = child;
+            System.arraycopy(children, insertionPoint, result, insertionPoint + 1, children.length - insertionPoint);
+            children = result;
+        }
+
+        void removeChild(Node child) {
+            var index = childIndex(child.label[0]);
+            if (index < 0 || children[index] != child) {
+                return;
+            }
+            if (children.length == 1) {
+                children = NO_CHILDREN;
+                return;
+            }
+            var result = new Node[children.length - 1];
+            System.arraycopy(children, 0, result, 0, index);
+            System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+            children = result;
+        }
+
+        /**
+         * Splits the edge to a child after the given number of characters and returns the new node in between.
+         */
+        Node split(Node child, int length) {
+            var index = childIndex(child.label[0]);
+            var middle = new Node(Arrays.copyOf(child.label, length));
+            child.label = Arrays.copyOfRange(child.label, length, child.label.length);
+            middle.children = new Node[] {child};
+            middle.top = child.top;
+            children[index] = middle;
+            return middle;
+        }
+
+        /**
+         * Merges the only child into this node, which has no entries of its own.
+         */
+        void absorbOnlyChild() {
+            var child = children[0];
+            var merged = Arrays.copyOf(label, label.length + child.label.length);
+            System.arraycopy(child.label, 0, merged, label.length, child.label.length);
+            label = merged;
+            children = child.children;
+            entries = child.entries;
+            top = child.top;
+        }
+
+        void updateTop() {
+            if (children.length == 0 && entries.length == 1) {
+                top = entries;
+                return;
+            }
+            var best = new Entry[MAX_SUGGESTIONS];
+            var count = mergeInto(best, 0, entries, false);
+            for (var child : children) {
+                count = mergeInto(best, count, child.top, true);
+            }
+            top = count == 0 ? NO_ENTRIES : Arrays.copyOf(best, count);
+        }
+
+        /**
+         * Inserts the candidates into the sorted, bounded list of best entries and returns its new size.
+         */
+        private static int mergeInto(Entry[] best, int count, Entry[] candidates, boolean sorted) {
+            for (var candidate : candidates) {
+                if (count == best.length && !candidate.ranksBefore(best[count - 1])) {
+                    if (sorted) {
+                        // None of the remaining candidates make it either
+                        break;
+                    }
+                    continue;
+                }
+                if (contains(best, count, candidate)) {
+                    continue;
+                }
+                var position = count == best.length ? count - 1 : count;
+                while (position > 0 && candidate.ranksBefore(best[position - 1])) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = candidate;
+                count = Math.min(count + 1, best.length);
+            }
+            return count;
+        }
+
+        private static boolean contains(Entry[] entries, int count, Entry entry) {
+            for (int i = 0; i < count; i++) {
+                if (entries[i] == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                var middle = (low + high) >>> 1;
+                var c = children[middle].label[0];
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
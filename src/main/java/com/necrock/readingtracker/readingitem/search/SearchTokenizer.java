@@ -0,0 +1,49 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import com.google.common.collect.ImmutableSet;
+import org.springframework.lang.Nullable;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into search terms: lower-cased, without accents, and broken up at anything that is not a letter or
+ * digit. "Les Misérables" and "les miserables" give the same terms.
+ */
+final class SearchTokenizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokenizer() {}
+
+    static ImmutableSet<String> tokenize(@Nullable String text) {
+        if (text == null || text.isBlank()) {
+            return ImmutableSet.of();
+        }
+        var terms = ImmutableSet.<String>builder();
+        for (var term : SEPARATORS.split(foldCase(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms.build();
+    }
+
+    /**
+     * Folds text the way {@link #tokenize} does, but keeps it in one piece with the terms separated by single spaces.
+     * "Les Misérables!" becomes "les miserables".
+     */
+    static String fold(@Nullable String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        return SEPARATORS.matcher(foldCase(text)).replaceAll(" ").strip();
+    }
+
+    private static String foldCase(String text) {
+        var decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
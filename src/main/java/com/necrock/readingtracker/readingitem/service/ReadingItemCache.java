@@ -0,0 +1,62 @@
+package com.necrock.readingtracker.readingitem.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded, time-limited cache of reading items, keyed by ID. The reading item service writes changed reading items
+ * through and drops deleted ones. Hits, misses and evictions are published as the {@code readingItems} cache metrics.
+ */
+@Component
+public class ReadingItemCache {
+
+    static final String CACHE_NAME = "readingItems";
+
+    private final Cache<Long, ReadingItem> cache;
+
+    public ReadingItemCache(AppProperties properties, MeterRegistry meterRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getReadingItemCacheMaxSize())
+                .expireAfterWrite(properties.getReadingItemCacheTtl())
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public ReadingItem get(Long id, Callable<ReadingItem> loader) {
+        try {
+            return cache.get(id, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load reading item", e.getCause());
+        }
+    }
+
+    public ImmutableMap<Long, ReadingItem> getAllPresent(Iterable<Long> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    public void put(ReadingItem item) {
+        cache.put(item.getId(), item);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -1,49 +1,308 @@
 package com.necrock.readingtracker.readingitem.service;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.exception.BadRequestException;
+import com.necrock.readingtracker.exception.ConflictException;
+import com.necrock.readingtracker.exception.DatabaseException;
+import com.necrock.readingtracker.readingitem.common.ReadingItemSort;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
 import com.necrock.readingtracker.readingitem.persistence.SafeReadingItemRepository;
+import com.necrock.readingtracker.readingitem.search.ReadingItemSearchIndex;
+import com.necrock.readingtracker.readingitem.search.ReadingItemSuggestIndex;
 import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemCursor;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportFailure;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportRecord;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportResult;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemPage;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemSuggestion;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.security.SecureRandom;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 @Service
+@Timed(value = "service.call", histogram = true)
 public class ReadingItemService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_REPORTED_IMPORT_FAILURES = 100;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    public static final int MAX_SUGGEST_LIMIT = ReadingItemSuggestIndex.MAX_SUGGESTIONS;
+    private static final int MAX_UPDATE_ATTEMPTS = 2;
+
     private final SafeReadingItemRepository repository;
     private final ReadingItemEntityMapper mapper;
+    private final ReadingItemSearchIndex searchIndex;
+    private final ReadingItemSuggestIndex suggestIndex;
+    private final ReadingItemCache cache;
     private final Clock clock;
+    private final TransactionTemplate transactionTemplate;
+    private final int importChunkSize;
+
+    // Counts changes to the catalog; the random part keeps versions from repeating after a restart
+    private final String catalogVersionPrefix = Long.toHexString(new SecureRandom().nextLong());
+    private final AtomicLong catalogChangeCount = new AtomicLong();
 
-    public ReadingItemService(SafeReadingItemRepository repository, ReadingItemEntityMapper mapper, Clock clock) {
+    public ReadingItemService(
+            SafeReadingItemRepository repository,
+            ReadingItemEntityMapper mapper,
+            ReadingItemSearchIndex searchIndex,
+            ReadingItemSuggestIndex suggestIndex,
+            ReadingItemCache cache,
+            Clock clock,
+            PlatformTransactionManager transactionManager,
+            AppProperties properties) {
         this.repository = repository;
         this.mapper = mapper;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.cache = cache;
         this.clock = clock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importChunkSize = properties.getImportChunkSize();
     }
 
     public ReadingItem addReadingItem(ReadingItem item) {
         var enrichedReadingItem = item.toBuilder().createdAt(Instant.now(clock)).build();
-        return mapper.toDomainModel(repository.save(mapper.toEntity(enrichedReadingItem)));
+        var savedItem = repository.save(mapper.toEntity(enrichedReadingItem));
+        addToIndexes(savedItem);
+        catalogChangeCount.incrementAndGet();
+        var readingItem = mapper.toDomainModel(savedItem);
+        cache.put(readingItem);
+        return readingItem;
+    }
+
+    /**
+     * Imports the records as they are read, saving each chunk of parsed items in its own transaction. Rejected records
+     * and items the database refuses are reported as failures without stopping the import.
+     */
+    public ReadingItemImportResult importReadingItems(Iterator<ReadingItemImportRecord> records) {
+        var tally = new ImportTally();
+        var chunk = new ArrayList<ReadingItemImportRecord>(importChunkSize);
+        while (records.hasNext()) {
+            var record = records.next();
+            if (record.failure() != null) {
+                tally.failed(record.failure());
+                continue;
+            }
+            chunk.add(record);
+            if (chunk.size() == importChunkSize) {
+                saveImportChunk(chunk, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveImportChunk(chunk, tally);
+        }
+        return tally.toResult();
+    }
+
+    private void saveImportChunk(List<ReadingItemImportRecord> chunk, ImportTally tally) {
+        var createdAt = Instant.now(clock);
+        try {
+            var savedItems = transactionTemplate.execute(status -> repository.saveAllAndFlush(chunk.stream()
+                    .map(record -> toImportedEntity(record, createdAt))
+                    .toList()));
+            savedItems.forEach(this::addToIndexes);
+            tally.imported(savedItems.size());
+        } catch (DatabaseException ex) {
+            // Retry the items one at a time to find out which ones the database refuses
+            for (var record : chunk) {
+                try {
+                    addToIndexes(transactionTemplate.execute(
+                            status -> repository.saveAndFlush(toImportedEntity(record, createdAt))));
+                    tally.imported(1);
+                } catch (DatabaseException recordEx) {
+                    tally.failed(new ReadingItemImportFailure(record.line(), "Reading item could not be saved"));
+                }
+            }
+        } finally {
+            // Keep memory use independent of the import size when the persistence context outlives the transaction
+            repository.clear();
+            catalogChangeCount.incrementAndGet();
+        }
+    }
+
+    private ReadingItemEntity toImportedEntity(ReadingItemImportRecord record, Instant createdAt) {
+        return mapper.toEntity(record.item().toBuilder().createdAt(createdAt).build());
+    }
+
+    private void addToIndexes(ReadingItemEntity item) {
+        searchIndex.put(item.getId(), item.getTitle(), item.getAuthor());
+        suggestIndex.put(item.getId(), item.getTitle(), item.getAuthor());
+    }
+
+    /**
+     * Returns a tag that changes whenever a reading item is added, changed or deleted.
+     */
+    public String getCatalogVersion() {
+        return catalogVersionPrefix + "-" + catalogChangeCount.get();
+    }
+
+    /**
+     * Returns the reading items whose title and author contain words starting with every word of the query, best match
+     * first.
+     */
+    public ImmutableList<ReadingItem> searchReadingItems(String query, int limit) {
+        if (query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException(
+                    String.format("Search limit must be between 1 and %d", MAX_SEARCH_LIMIT));
+        }
+
+        var ids = searchIndex.search(query, limit);
+        if (ids.length == 0) {
+            return ImmutableList.of();
+        }
+        var itemsById = getReadingItems(Longs.asList(ids));
+        return Arrays.stream(ids)
+                .filter(itemsById::containsKey)
+                .mapToObj(itemsById::get)
+                .collect(toImmutableList());
+    }
+
+    /**
+     * Returns the most read reading items whose title or author starts with the prefix, most read first.
+     */
+    public ImmutableList<ReadingItemSuggestion> suggestReadingItems(String prefix, int limit) {
+        if (prefix.isBlank()) {
+            throw new BadRequestException("Suggest prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new BadRequestException(
+                    String.format("Suggest limit must be between 1 and %d", MAX_SUGGEST_LIMIT));
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Records that a reader started or stopped tracking their progress on a reading item, which ranks its suggestions.
+     * Within a transaction the count only changes once it commits, so a rolled back change is not counted.
+     */
+    public void changeReaderCount(Long id, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            suggestIndex.addReaders(id, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                suggestIndex.addReaders(id, delta);
+            }
+        });
     }
 
     public ReadingItem getReadingItem(Long id) {
-        return repository.findById(id)
+        return cache.get(id, () -> repository.findById(id)
                 .map(mapper::toDomainModel)
-                .orElseThrow(() -> new NotFoundException(String.format("No reading item with id %d", id)));
+                .orElseThrow(() -> new NotFoundException(String.format("No reading item with id %d", id))));
     }
 
-    public ImmutableList<ReadingItem> getAllReadingItems() {
-        return repository.findAll().stream()
+    /**
+     * Returns the reading items with the given IDs, keyed by ID. Unknown IDs are left out.
+     */
+    public ImmutableMap<Long, ReadingItem> getReadingItems(Collection<Long> ids) {
+        var cachedItems = cache.getAllPresent(ids);
+        var missingIds = ids.stream().filter(id -> !cachedItems.containsKey(id)).toList();
+        if (missingIds.isEmpty()) {
+            return cachedItems;
+        }
+        var items = ImmutableMap.<Long, ReadingItem>builder().putAll(cachedItems);
+        for (var entity : repository.findAllById(missingIds)) {
+            var item = mapper.toDomainModel(entity);
+            cache.put(item);
+            items.put(item.getId(), item);
+        }
+        return items.build();
+    }
+
+    @Transactional(readOnly = true)
+    public ReadingItemPage getReadingItemPage(ReadingItemSort sort, @Nullable ReadingItemCursor after, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException(
+                    String.format("Page size must be between 1 and %d", MAX_PAGE_SIZE));
+        }
+        if (after != null && after.sort() != sort) {
+            throw new BadRequestException("Page token does not match the requested sort order");
+        }
+
+        // Fetch one extra row to find out whether there is a next page
+        var entities = findPage(sort, after, pageSize + 1);
+        var items = entities.stream()
+                .limit(pageSize)
                 .map(mapper::toDomainModel)
                 .collect(toImmutableList());
+        var nextCursor = entities.size() > pageSize
+                ? Optional.of(ReadingItemCursor.after(sort, items.getLast()))
+                : Optional.<ReadingItemCursor>empty();
+        return new ReadingItemPage(items, nextCursor);
     }
 
+    private List<ReadingItemEntity> findPage(ReadingItemSort sort, @Nullable ReadingItemCursor after, int limit) {
+        return switch (sort) {
+            case CREATED_AT -> after == null
+                    ? repository.findFirstPageByCreatedAt(limit)
+                    : repository.findPageByCreatedAtAfter(after.createdAt(), after.id(), limit);
+            case TITLE -> after == null
+                    ? repository.findFirstPageByTitle(limit)
+                    : repository.findPageByTitleAfter(after.title(), after.id(), limit);
+        };
+    }
+
+    /**
+     * Applies the non-null fields of the item with a single versioned update. When the item carries a version, the
+     * update is refused with a {@link ConflictException} unless the stored reading item still has that version.
+     */
     public ReadingItem updateReadingItem(Long id, ReadingItem item) {
-        var existingItem = getReadingItem(id);
+        // The second attempt reads the database, in case the cached copy fell behind it
+        for (int attempt = 1; ; attempt++) {
+            var existingItem = getReadingItem(id);
+            var expectedVersion = item.getVersion() != null ? item.getVersion() : existingItem.getVersion();
+            if (expectedVersion.equals(existingItem.getVersion())) {
+                var updatedItem = applyChanges(existingItem, item);
+                if (repository.updateIfVersionMatches(mapper.toEntity(updatedItem))) {
+                    var readingItem = updatedItem.toBuilder().version(expectedVersion + 1).build();
+                    searchIndex.put(id, readingItem.getTitle(), readingItem.getAuthor());
+                    suggestIndex.put(id, readingItem.getTitle(), readingItem.getAuthor());
+                    catalogChangeCount.incrementAndGet();
+                    cache.put(readingItem);
+                    return readingItem;
+                }
+            }
+            cache.invalidate(id);
+            if (attempt == MAX_UPDATE_ATTEMPTS) {
+                throw new ConflictException(String.format("Reading item %d was changed by another update", id));
+            }
+        }
+    }
 
+    private static ReadingItem applyChanges(ReadingItem existingItem, ReadingItem item) {
         var updatedItemBuilder = existingItem.toBuilder();
         if (item.getTitle() != null) {
             updatedItemBuilder.title(item.getTitle());
@@ -57,13 +316,37 @@ public class ReadingItemService {
         if (item.getTotalChapters() != null) {
             updatedItemBuilder.totalChapters(item.getTotalChapters());
         }
-
-        return mapper.toDomainModel(repository.save(mapper.toEntity(updatedItemBuilder.build())));
+        return updatedItemBuilder.build();
     }
 
     public void deleteReadingItem(Long id) {
         var item = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("No reading item with id %d", id)));
         repository.delete(item);
+        cache.invalidate(id);
+        catalogChangeCount.incrementAndGet();
+        searchIndex.remove(id);
+        suggestIndex.remove(id);
+    }
+
+    private static class ImportTally {
+        private final ImmutableList.Builder<ReadingItemImportFailure> failures = ImmutableList.builder();
+        private int importedCount;
+        private int failedCount;
+
+        void imported(int count) {
+            importedCount += count;
+        }
+
+        void failed(ReadingItemImportFailure failure) {
+            if (failedCount < MAX_REPORTED_IMPORT_FAILURES) {
+                failures.add(failure);
+            }
+            failedCount++;
+        }
+
+        ReadingItemImportResult toResult() {
+            return new ReadingItemImportResult(importedCount, failedCount, failures.build());
+        }
     }
 }
@@ -12,19 +12,22 @@ public class ReadingItem {
     private final String author;
     private final Integer totalChapters;
     private final Instant createdAt;
+    private final Long version;
 
     private ReadingItem(Long id,
                        String title,
                        ReadingItemType type,
                        String author,
                        Integer totalChapters,
-                       Instant createdAt) {
+                       Instant createdAt,
+                       Long version) {
         this.id = id;
         this.title = title;
         this.type = type;
         this.author = author;
         this.totalChapters = totalChapters;
         this.createdAt = createdAt;
+        this.version = version;
     }
 
     public static Builder builder() {
@@ -55,6 +58,10 @@ public class ReadingItem {
         return createdAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Builder toBuilder() {
         return builder()
                 .id(id)
@@ -62,7 +69,8 @@ public class ReadingItem {
                 .type(type)
                 .author(author)
                 .totalChapters(totalChapters)
-                .createdAt(createdAt);
+                .createdAt(createdAt)
+                .version(version);
     }
 
     @Override
@@ -77,7 +85,8 @@ public class ReadingItem {
                 && getType() == that.getType()
                 && Objects.equals(getAuthor(), that.getAuthor())
                 && Objects.equals(getTotalChapters(), that.getTotalChapters())
-                && Objects.equals(getCreatedAt(), that.getCreatedAt());
+                && Objects.equals(getCreatedAt(), that.getCreatedAt())
+                && Objects.equals(getVersion(), that.getVersion());
     }
 
     @Override
@@ -88,7 +97,8 @@ public class ReadingItem {
                 getType(),
                 getAuthor(),
                 getTotalChapters(),
-                getCreatedAt());
+                getCreatedAt(),
+                getVersion());
     }
 
     public static class Builder {
@@ -98,6 +108,7 @@ public class ReadingItem {
         private String author;
         private Integer totalChapters;
         private Instant createdAt;
+        private Long version;
 
         public Builder() {}
 
@@ -131,8 +142,13 @@ public class ReadingItem {
             return this;
         }
 
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public ReadingItem build() {
-            return new ReadingItem(id, title, type, author, totalChapters, createdAt);
+            return new ReadingItem(id, title, type, author, totalChapters, createdAt, version);
         }
     }
 }
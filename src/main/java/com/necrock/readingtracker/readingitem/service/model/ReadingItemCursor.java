@@ -0,0 +1,18 @@
+package com.necrock.readingtracker.readingitem.service.model;
+
+import com.necrock.readingtracker.readingitem.common.ReadingItemSort;
+
+import java.time.Instant;
+
+/**
+ * Position in a sorted listing of reading items: the sort key and id of the last item of the previous page.
+ */
+public record ReadingItemCursor(ReadingItemSort sort, Instant createdAt, String title, long id) {
+
+    public static ReadingItemCursor after(ReadingItemSort sort, ReadingItem item) {
+        return switch (sort) {
+            case CREATED_AT -> new ReadingItemCursor(sort, item.getCreatedAt(), null, item.getId());
+            case TITLE -> new ReadingItemCursor(sort, null, item.getTitle(), item.getId());
+        };
+    }
+}
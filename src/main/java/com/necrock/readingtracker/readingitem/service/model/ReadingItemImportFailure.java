@@ -0,0 +1,13 @@
+package com.necrock.readingtracker.readingitem.service.model;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Why the record starting on the given line of an import was not imported. The details map fields to messages.
+ */
+public record ReadingItemImportFailure(long line, String message, ImmutableMap<String, String> details) {
+
+    public ReadingItemImportFailure(long line, String message) {
+        this(line, message, ImmutableMap.of());
+    }
+}
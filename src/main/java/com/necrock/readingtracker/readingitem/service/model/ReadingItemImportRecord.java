@@ -0,0 +1,20 @@
+package com.necrock.readingtracker.readingitem.service.model;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * One record of an import, either parsed into a reading item or rejected with a failure.
+ */
+public record ReadingItemImportRecord(
+        long line,
+        @Nullable ReadingItem item,
+        @Nullable ReadingItemImportFailure failure) {
+
+    public static ReadingItemImportRecord parsed(long line, ReadingItem item) {
+        return new ReadingItemImportRecord(line, item, null);
+    }
+
+    public static ReadingItemImportRecord rejected(ReadingItemImportFailure failure) {
+        return new ReadingItemImportRecord(failure.line(), null, failure);
+    }
+}
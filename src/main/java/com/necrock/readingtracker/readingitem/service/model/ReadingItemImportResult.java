@@ -0,0 +1,11 @@
+package com.necrock.readingtracker.readingitem.service.model;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Outcome of an import. Only the first failures are listed, the failed count covers all of them.
+ */
+public record ReadingItemImportResult(
+        int importedCount,
+        int failedCount,
+        ImmutableList<ReadingItemImportFailure> failures) {}
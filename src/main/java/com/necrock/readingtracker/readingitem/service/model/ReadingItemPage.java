@@ -0,0 +1,7 @@
+package com.necrock.readingtracker.readingitem.service.model;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Optional;
+
+public record ReadingItemPage(ImmutableList<ReadingItem> items, Optional<ReadingItemCursor> nextCursor) {}
@@ -0,0 +1,6 @@
+package com.necrock.readingtracker.readingitem.service.model;
+
+/**
+ * A reading item offered while the user is still typing its title or author.
+ */
+public record ReadingItemSuggestion(long id, String title, String author) {}
@@ -1,12 +1,21 @@
 package com.necrock.readingtracker.readingprogress.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.collect.ImmutableList;
+import com.necrock.readingtracker.common.VersionTags;
+import com.necrock.readingtracker.readingprogress.api.dto.BatchUpdateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.CreateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressDetailsDto;
+import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressUpdateResultDto;
 import com.necrock.readingtracker.readingprogress.api.dto.UpdateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.service.ReadingProgressService;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
 import com.necrock.readingtracker.security.service.CustomUserDetails;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,13 +23,21 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("api/progress")
@@ -28,27 +45,65 @@ public class ReadingProgressController {
 
     private final ReadingProgressService service;
     private final ReadingProgressMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
 
-    public ReadingProgressController(ReadingProgressService service, ReadingProgressMapper mapper) {
+    public ReadingProgressController(
+            ReadingProgressService service,
+            ReadingProgressMapper mapper,
+            ObjectMapper objectMapper) {
         this.service = service;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        // Leave flushing to the response buffer instead of flushing after every line
+        this.exportWriter = objectMapper.writerFor(ReadingProgressDetailsDto.class).without(FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/{readingItemId}")
     public ReadingProgressDetailsDto getReadingProgress(
             @AuthenticationPrincipal CustomUserDetails user,
-            @PathVariable Long readingItemId) {
+            @PathVariable Long readingItemId,
+            WebRequest request) {
+        if (request.checkNotModified(service.getReadingProgressVersion(user.getUser(), readingItemId))) {
+            return null;
+        }
         return mapper.toDetailsDto(service.getReadingProgress(user.getUser(), readingItemId));
     }
 
     @GetMapping
     public ImmutableList<ReadingProgressDetailsDto> getAllReadingProgress(
-            @AuthenticationPrincipal CustomUserDetails user) {
+            @AuthenticationPrincipal CustomUserDetails user,
+            WebRequest request) {
+        if (request.checkNotModified(service.getReadingProgressListVersion(user.getUser()))) {
+            return null;
+        }
         return service.getAllReadingProgressForUser(user.getUser()).stream()
                 .map(mapper::toDetailsDto)
                 .collect(toImmutableList());
     }
 
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public void exportReadingProgress(
+            @AuthenticationPrincipal CustomUserDetails user,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        try (var generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            service.exportReadingProgressForUser(
+                    user.getUser(),
+                    progress -> writeLine(generator, mapper.toDetailsDto(progress)));
+        }
+    }
+
+    private void writeLine(JsonGenerator generator, ReadingProgressDetailsDto dto) {
+        try {
+            exportWriter.writeValue(generator, dto);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PostMapping
     @ResponseStatus(CREATED)
     public ReadingProgressDetailsDto addReadingProgress(
@@ -61,15 +116,37 @@ public class ReadingProgressController {
     }
 
     @PatchMapping("/{readingItemId}")
-    public ReadingProgressDetailsDto updateReadingProgress(
+    public ResponseEntity<ReadingProgressDetailsDto> updateReadingProgress(
             @AuthenticationPrincipal CustomUserDetails user,
             @PathVariable Long readingItemId,
+            @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateReadingProgressRequest request) {
-        return mapper.toDetailsDto(
-                service.updateReadingProgress(
-                        user.getUser(),
-                        readingItemId,
-                        mapper.toDomainModel(request)));
+        var update = mapper.toDomainModel(request).toBuilder()
+                .version(VersionTags.parseCombinedIfMatch(ifMatch))
+                .build();
+        var progress = service.updateReadingProgress(user.getUser(), readingItemId, update);
+        return ResponseEntity.ok()
+                .eTag(eTag(progress))
+                .body(mapper.toDetailsDto(progress));
+    }
+
+    /**
+     * The response embeds the reading item, so its tag changes when either the progress or the reading item does.
+     */
+    private static String eTag(ReadingProgress progress) {
+        return VersionTags.combine(progress.getVersion(), progress.getReadingItem().getVersion());
+    }
+
+    @PostMapping("/batch")
+    public ImmutableList<ReadingProgressUpdateResultDto> updateReadingProgressBatch(
+            @AuthenticationPrincipal CustomUserDetails user,
+            @Valid @RequestBody BatchUpdateReadingProgressRequest request) {
+        var updates = request.getEntries().stream()
+                .map(mapper::toDomainModel)
+                .collect(toImmutableList());
+        return service.updateReadingProgressBatch(user.getUser(), updates).stream()
+                .map(mapper::toResultDto)
+                .collect(toImmutableList());
     }
 
     @DeleteMapping("/{readingItemId}")
@@ -1,11 +1,14 @@
 package com.necrock.readingtracker.readingprogress.api;
 
 import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingprogress.api.dto.BatchUpdateReadingProgressEntry;
 import com.necrock.readingtracker.readingprogress.api.dto.CreateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressDetailsDto;
 import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressItemDto;
+import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressUpdateResultDto;
 import com.necrock.readingtracker.readingprogress.api.dto.UpdateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgressUpdateResult;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -17,13 +20,23 @@ public interface ReadingProgressMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "readingItem", source = "readingItemId")
+    @Mapping(target = "version", ignore = true)
     ReadingProgress toDomainModel(CreateReadingProgressRequest dto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "readingItem", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ReadingProgress toDomainModel(UpdateReadingProgressRequest dto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "readingItem", source = "readingItemId")
+    @Mapping(target = "version", ignore = true)
+    ReadingProgress toDomainModel(BatchUpdateReadingProgressEntry dto);
+
+    ReadingProgressUpdateResultDto toResultDto(ReadingProgressUpdateResult result);
+
     ReadingProgressItemDto toItemDto(ReadingItem item);
 
     default ReadingItem.Builder toReadingItem(Long id) {
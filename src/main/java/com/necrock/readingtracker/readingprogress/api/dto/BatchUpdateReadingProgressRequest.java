@@ -0,0 +1,43 @@
+package com.necrock.readingtracker.readingprogress.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchUpdateReadingProgressRequest {
+
+    public static final int MAX_ENTRIES = 500;
+
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = MAX_ENTRIES, message = "At most " + MAX_ENTRIES + " entries are allowed")
+    private final List<@Valid BatchUpdateReadingProgressEntry> entries;
+
+    private BatchUpdateReadingProgressRequest(List<BatchUpdateReadingProgressEntry> entries) {
+        this.entries = entries;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<BatchUpdateReadingProgressEntry> getEntries() {
+        return entries;
+    }
+
+    public static class Builder {
+        private List<BatchUpdateReadingProgressEntry> entries;
+
+        private Builder() {}
+
+        public Builder entries(List<BatchUpdateReadingProgressEntry> entries) {
+            this.entries = entries;
+            return this;
+        }
+
+        public BatchUpdateReadingProgressRequest build() {
+            return new BatchUpdateReadingProgressRequest(entries);
+        }
+    }
+}
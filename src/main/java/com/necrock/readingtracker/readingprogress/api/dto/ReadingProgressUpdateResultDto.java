@@ -0,0 +1,61 @@
+package com.necrock.readingtracker.readingprogress.api.dto;
+
+import com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus;
+
+public class ReadingProgressUpdateResultDto {
+    private final Long readingItemId;
+    private final ReadingProgressUpdateStatus status;
+    private final ReadingProgressDetailsDto progress;
+
+    private ReadingProgressUpdateResultDto(
+            Long readingItemId,
+            ReadingProgressUpdateStatus status,
+            ReadingProgressDetailsDto progress) {
+        this.readingItemId = readingItemId;
+        this.status = status;
+        this.progress = progress;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Long getReadingItemId() {
+        return readingItemId;
+    }
+
+    public ReadingProgressUpdateStatus getStatus() {
+        return status;
+    }
+
+    public ReadingProgressDetailsDto getProgress() {
+        return progress;
+    }
+
+    public static class Builder {
+        private Long readingItemId;
+        private ReadingProgressUpdateStatus status;
+        private ReadingProgressDetailsDto progress;
+
+        private Builder() {}
+
+        public Builder readingItemId(Long readingItemId) {
+            this.readingItemId = readingItemId;
+            return this;
+        }
+
+        public Builder status(ReadingProgressUpdateStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder progress(ReadingProgressDetailsDto progress) {
+            this.progress = progress;
+            return this;
+        }
+
+        public ReadingProgressUpdateResultDto build() {
+            return new ReadingProgressUpdateResultDto(readingItemId, status, progress);
+        }
+    }
+}
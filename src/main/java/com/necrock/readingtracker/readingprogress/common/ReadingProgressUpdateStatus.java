@@ -0,0 +1,7 @@
+package com.necrock.readingtracker.readingprogress.common;
+
+public enum ReadingProgressUpdateStatus {
+    CREATED,
+    UPDATED,
+    NOT_FOUND
+}
@@ -9,14 +9,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.util.Objects;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static com.necrock.readingtracker.common.IdSequenceAligner.ID_ALLOCATION_SIZE;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @Entity
 @Table(
@@ -26,6 +29,8 @@ import static jakarta.persistence.GenerationType.IDENTITY;
                 columnNames = {"user_id", "reading_item_id"}))
 public class ReadingProgressEntity {
 
+    public static final String ID_SEQUENCE =
+            "progress_id_seq";
     public static final String UNIQUE_USER_READING_ITEM =
             "reading_progress_unique_user_reading_item";
     public static final String FK_USER =
@@ -34,7 +39,8 @@ public class ReadingProgressEntity {
             "reading_progress_fk_reading_item";
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -54,14 +60,19 @@ public class ReadingProgressEntity {
 
     private Integer lastReadChapter;
 
+    @Version
+    private Long version;
+
     private ReadingProgressEntity(Long id,
                                   UserEntity user,
                                   ReadingItemEntity readingItem,
-                                  Integer lastReadChapter) {
+                                  Integer lastReadChapter,
+                                  Long version) {
         this.id = id;
         this.user = user;
         this.readingItem = readingItem;
         this.lastReadChapter = lastReadChapter;
+        this.version = version;
     }
 
     @SuppressWarnings("unused") // Required for JPA
@@ -92,6 +103,10 @@ public class ReadingProgressEntity {
         return lastReadChapter;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -102,7 +117,8 @@ public class ReadingProgressEntity {
         return Objects.equals(getId(), that.getId())
                 && Objects.equals(getUser(), that.getUser())
                 && Objects.equals(getReadingItem(), that.getReadingItem())
-                && Objects.equals(getLastReadChapter(), that.getLastReadChapter());
+                && Objects.equals(getLastReadChapter(), that.getLastReadChapter())
+                && Objects.equals(getVersion(), that.getVersion());
     }
 
     @Override
@@ -111,7 +127,8 @@ public class ReadingProgressEntity {
                 getId(),
                 getUser(),
                 getReadingItem(),
-                getLastReadChapter());
+                getLastReadChapter(),
+                getVersion());
     }
 
     public static class Builder {
@@ -119,6 +136,7 @@ public class ReadingProgressEntity {
         private UserEntity user;
         private ReadingItemEntity readingItem;
         private Integer lastReadChapter;
+        private Long version;
 
         public Builder id(Long id) {
             this.id = id;
@@ -150,8 +168,13 @@ public class ReadingProgressEntity {
             return this;
         }
 
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public ReadingProgressEntity build() {
-            return new ReadingProgressEntity(id, user, readingItem, lastReadChapter);
+            return new ReadingProgressEntity(id, user, readingItem, lastReadChapter, version);
         }
     }
 }
@@ -0,0 +1,12 @@
+package com.necrock.readingtracker.readingprogress.persistence;
+
+/**
+ * Aggregates over the progress of one user that together change whenever the user's progress list does. IDs and
+ * versions only grow, so a creation raises the highest ID, an update raises a version sum and a deletion lowers the
+ * count.
+ */
+public record ReadingProgressListVersion(
+        long count,
+        long maxId,
+        long progressVersionSum,
+        long readingItemVersionSum) {}
@@ -1,13 +1,102 @@
 package com.necrock.readingtracker.readingprogress.persistence;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ReadingProgressRepository  extends JpaRepository<ReadingProgressEntity, Long> {
 
     Optional<ReadingProgressEntity> findByUserIdAndReadingItemId(Long userId, Long readingItemId);
 
     List<ReadingProgressEntity> findAllByUserId(Long userId);
+
+    @Query("""
+            SELECT p FROM ReadingProgressEntity p
+            JOIN FETCH p.user
+            JOIN FETCH p.readingItem
+            WHERE p.user.id = :userId AND p.readingItem.id = :readingItemId""")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    Optional<ReadingProgressEntity> findWithUserAndReadingItemByUserIdAndReadingItemId(
+            @Param("userId") Long userId, @Param("readingItemId") Long readingItemId);
+
+    @Query("""
+            SELECT p FROM ReadingProgressEntity p
+            JOIN FETCH p.user
+            JOIN FETCH p.readingItem
+            WHERE p.user.id = :userId""")
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    List<ReadingProgressEntity> findAllWithUserAndReadingItemByUserId(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE ReadingProgressEntity p
+            SET p.lastReadChapter = :lastReadChapter, p.version = p.version + 1
+            WHERE p.user.id = :userId AND p.readingItem.id = :readingItemId
+                AND (:version IS NULL OR p.version = :version)""")
+    int updateLastReadChapter(
+            @Param("userId") Long userId,
+            @Param("readingItemId") Long readingItemId,
+            @Param("lastReadChapter") Integer lastReadChapter,
+            @Param("version") Long version);
+
+    /**
+     * Inserts the progress and returns its ID, in one statement. The ID is drawn from the sequence directly, which
+     * never hands out a value inside a block that Hibernate's pooled optimizer has drawn.
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            SELECT id FROM FINAL TABLE (
+                INSERT INTO progress (id, user_id, reading_item_id, last_read_chapter, version)
+                VALUES (NEXT VALUE FOR progress_id_seq, :userId, :readingItemId, :lastReadChapter, 0))""")
+    Long insertProgress(
+            @Param("userId") Long userId,
+            @Param("readingItemId") Long readingItemId,
+            @Param("lastReadChapter") Integer lastReadChapter);
+
+    @Query("""
+            SELECT new com.necrock.readingtracker.readingprogress.persistence.ReadingProgressVersion(
+                p.version, i.version)
+            FROM ReadingProgressEntity p JOIN p.readingItem i
+            WHERE p.user.id = :userId AND i.id = :readingItemId""")
+    Optional<ReadingProgressVersion> findVersionByUserIdAndReadingItemId(
+            @Param("userId") Long userId, @Param("readingItemId") Long readingItemId);
+
+    @Query("""
+            SELECT new com.necrock.readingtracker.readingprogress.persistence.ReadingProgressListVersion(
+                COUNT(p), COALESCE(MAX(p.id), 0), COALESCE(SUM(p.version), 0), COALESCE(SUM(i.version), 0))
+            FROM ReadingProgressEntity p JOIN p.readingItem i
+            WHERE p.user.id = :userId""")
+    ReadingProgressListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    @Query("""
+            SELECT p FROM ReadingProgressEntity p
+            JOIN FETCH p.user
+            JOIN FETCH p.readingItem
+            WHERE p.user.id = :userId AND p.readingItem.id IN :readingItemIds""")
+    List<ReadingProgressEntity> findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(
+            @Param("userId") Long userId, @Param("readingItemIds") Collection<Long> readingItemIds);
+
+    @Query("""
+            SELECT p FROM ReadingProgressEntity p
+            JOIN FETCH p.user
+            JOIN FETCH p.readingItem
+            WHERE p.user.id = :userId
+            ORDER BY p.id""")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<ReadingProgressEntity> streamAllByUserIdWithReadingItem(@Param("userId") Long userId);
 }
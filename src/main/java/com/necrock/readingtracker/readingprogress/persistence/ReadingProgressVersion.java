@@ -0,0 +1,8 @@
+package com.necrock.readingtracker.readingprogress.persistence;
+
+/**
+ * The versions of one progress and of its reading item, which together change whenever the progress details do.
+ */
+public record ReadingProgressVersion(
+        long progressVersion,
+        long readingItemVersion) {}
@@ -3,13 +3,20 @@ package com.necrock.readingtracker.readingprogress.persistence;
 import com.google.common.collect.ImmutableMap;
 import com.necrock.readingtracker.common.SafeRepository;
 import com.necrock.readingtracker.exception.AlreadyExistsException;
+import com.necrock.readingtracker.exception.DatabaseException;
 import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
 import jakarta.persistence.EntityManager;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.hibernate.Hibernate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 @Component
@@ -27,14 +34,39 @@ public class SafeReadingProgressRepository extends SafeRepository<ReadingProgres
     protected ImmutableMap<String, Function<ReadingProgressEntity, RuntimeException>> getUniqueConstraints() {
         return ImmutableMap.of(
                 ReadingProgressEntity.UNIQUE_USER_READING_ITEM,
-                entity -> new AlreadyExistsException(
-                        String.format(
-                                "Reading progress for user %d and reading item %d already exists",
-                                entity.getUser().getId(),
-                                entity.getReadingItem().getId()))
+                entity -> alreadyExists(entity.getUser().getId(), entity.getReadingItem().getId())
         );
     }
 
+    /**
+     * Creates progress with a single statement and returns its ID, without reading anything first. The foreign key
+     * and unique constraints tell that the reading item does not exist or that the user already has progress for it,
+     * so of two concurrent inserts for the same reading item exactly one succeeds.
+     */
+    public Long insert(Long userId, Long readingItemId, @Nullable Integer lastReadChapter) {
+        return timed("insert", () -> {
+            try {
+                return repository.insertProgress(userId, readingItemId, lastReadChapter);
+            } catch (DataIntegrityViolationException ex) {
+                if (messageIndicatesConstraint(ex, ReadingProgressEntity.FK_READING_ITEM)) {
+                    throw new NotFoundException(String.format("No reading item with id %d", readingItemId));
+                }
+                if (messageIndicatesConstraint(ex, ReadingProgressEntity.UNIQUE_USER_READING_ITEM)) {
+                    throw alreadyExists(userId, readingItemId);
+                }
+                throw new DatabaseException("Failed to save: " + ExceptionUtils.getRootCauseMessage(ex), ex);
+            }
+        });
+    }
+
+    private static AlreadyExistsException alreadyExists(Long userId, Long readingItemId) {
+        return new AlreadyExistsException(
+                String.format(
+                        "Reading progress for user %d and reading item %d already exists",
+                        userId,
+                        readingItemId));
+    }
+
     public Optional<ReadingProgressEntity> findByUserIdAndReadingItemId(Long userId, Long readingItemId) {
         return repository.findByUserIdAndReadingItemId(userId, readingItemId);
     }
@@ -43,21 +75,81 @@ public class SafeReadingProgressRepository extends SafeRepository<ReadingProgres
         return repository.findAllByUserId(id);
     }
 
+    /**
+     * Like {@link #findByUserIdAndReadingItemId}, but loads the user and reading item in the same query.
+     */
+    public Optional<ReadingProgressEntity> findWithUserAndReadingItemByUserIdAndReadingItemId(
+            Long userId, Long readingItemId) {
+        return repository.findWithUserAndReadingItemByUserIdAndReadingItemId(userId, readingItemId);
+    }
+
+    /**
+     * Like {@link #findAllByUserId}, but loads the users and reading items in the same query.
+     */
+    public List<ReadingProgressEntity> findAllWithUserAndReadingItemByUserId(Long id) {
+        return repository.findAllWithUserAndReadingItemByUserId(id);
+    }
+
+    /**
+     * Sets the last read chapter and increments the version in one statement, without reading the progress first.
+     * When a version is given, only progress that still has that version is updated. Returns whether a row was.
+     */
+    public boolean updateLastReadChapter(
+            Long userId, Long readingItemId, Integer lastReadChapter, @Nullable Long version) {
+        return repository.updateLastReadChapter(userId, readingItemId, lastReadChapter, version) > 0;
+    }
+
+    /**
+     * Returns the versions of the progress and its reading item, without loading either.
+     */
+    public Optional<ReadingProgressVersion> findVersionByUserIdAndReadingItemId(Long userId, Long readingItemId) {
+        return repository.findVersionByUserIdAndReadingItemId(userId, readingItemId);
+    }
+
+    /**
+     * Returns aggregates that change whenever the progress list of the user, or one of its reading items, changes.
+     */
+    public ReadingProgressListVersion findListVersionByUserId(Long userId) {
+        return repository.findListVersionByUserId(userId);
+    }
+
+    public List<ReadingProgressEntity> findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(
+            Long userId, Collection<Long> readingItemIds) {
+        return repository.findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(userId, readingItemIds);
+    }
+
+    /**
+     * Streams all progress of a user, with its reading item, without keeping the visited rows in memory.
+     * Must be called within a transaction.
+     */
+    public void forEachByUserIdWithReadingItem(Long userId, Consumer<ReadingProgressEntity> action) {
+        try (var progressStream = repository.streamAllByUserIdWithReadingItem(userId)) {
+            progressStream.forEach(progress -> {
+                action.accept(progress);
+                entityManager.detach(progress);
+                entityManager.detach(progress.getReadingItem());
+            });
+        }
+    }
+
     @Override
     protected void onSave(ReadingProgressEntity progress) {
-        getManagedReference(progress.getReadingItem()).addProgress(progress);
+        ifProgressLoaded(progress.getReadingItem(), readingItem -> readingItem.addProgress(progress));
     }
 
     @Override
     protected void onDelete(ReadingProgressEntity progress) {
-        getManagedReference(progress.getReadingItem()).removeProgress(progress);
+        ifProgressLoaded(progress.getReadingItem(), readingItem -> readingItem.removeProgress(progress));
     }
 
-    private ReadingItemEntity getManagedReference(ReadingItemEntity unmanaged) {
-        ReadingItemEntity managed = entityManager.find(ReadingItemEntity.class, unmanaged.getId());
-        if (managed == null) {
-            throw new NotFoundException(String.format("No reading item entity with id %d", unmanaged.getId()));
+    /**
+     * Keeps the inverse side of the reading item relation in sync, but only when this persistence context already
+     * holds it: loading it here would read the progress of every user of the reading item.
+     */
+    private void ifProgressLoaded(ReadingItemEntity readingItem, Consumer<ReadingItemEntity> action) {
+        ReadingItemEntity managed = entityManager.getReference(ReadingItemEntity.class, readingItem.getId());
+        if (Hibernate.isInitialized(managed) && managed.isProgressLoaded()) {
+            action.accept(managed);
         }
-        return managed;
     }
 }
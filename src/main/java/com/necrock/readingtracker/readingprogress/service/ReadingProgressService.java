@@ -1,17 +1,37 @@
 package com.necrock.readingtracker.readingprogress.service;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.necrock.readingtracker.common.VersionTags;
 import com.necrock.readingtracker.exception.AlreadyExistsException;
+import com.necrock.readingtracker.exception.ConflictException;
 import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.readingitem.service.ReadingItemService;
 import com.necrock.readingtracker.readingprogress.persistence.SafeReadingProgressRepository;
+import com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus;
 import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgressUpdateResult;
 import com.necrock.readingtracker.user.service.model.User;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.CREATED;
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.NOT_FOUND;
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.UPDATED;
+import static java.util.function.Function.identity;
 
 @Service
+@Timed(value = "service.call", histogram = true)
 public class ReadingProgressService {
 
     private final SafeReadingProgressRepository repository;
@@ -28,28 +48,26 @@ public class ReadingProgressService {
         this.readingItemService = readingItemService;
     }
 
+    /**
+     * Creates the progress with a single insert, which fails with a {@link NotFoundException} for an unknown reading
+     * item and with an {@link AlreadyExistsException} when the user already has progress for it. The reading item in
+     * the result usually comes from the cache.
+     */
     public ReadingProgress addReadingProgress(User user, ReadingProgress progress) {
-        var readingItem = readingItemService.getReadingItem(progress.getReadingItem().getId());
-        var enrichedProgress = progress.toBuilder().user(user).readingItem(readingItem).build();
-        if (repository.findByUserIdAndReadingItemId(
-                enrichedProgress.getUser().getId(),
-                enrichedProgress.getReadingItem().getId())
-                .isPresent()) {
-            throw new AlreadyExistsException(
-                    String.format(
-                            "Reading progress for user %d and reading item %d already exists",
-                            enrichedProgress.getUser().getId(),
-                            enrichedProgress.getReadingItem().getId()));
-        }
-        if (enrichedProgress.getReadingItem().getId() == null) {
-            throw new RuntimeException("Reading item ID somehow became null. Input: " + progress.getReadingItem().getId()
-            + "  Result from ReadingItemService: " + readingItem.getId());
-        }
-        return mapper.toDomainModel(repository.save(mapper.toEntity(enrichedProgress)));
+        var readingItemId = progress.getReadingItem().getId();
+        var id = repository.insert(user.getId(), readingItemId, progress.getLastReadChapter());
+        readingItemService.changeReaderCount(readingItemId, 1);
+        return progress.toBuilder()
+                .id(id)
+                .user(user)
+                .readingItem(readingItemService.getReadingItem(readingItemId))
+                .version(0L)
+                .build();
     }
 
+    @Transactional(readOnly = true)
     public ReadingProgress getReadingProgress(User user, Long readingItemId) {
-        return repository.findByUserIdAndReadingItemId(user.getId(), readingItemId)
+        return repository.findWithUserAndReadingItemByUserIdAndReadingItemId(user.getId(), readingItemId)
                 .map(mapper::toDomainModel)
                 .orElseThrow(() -> new NotFoundException(
                         String.format(
@@ -58,21 +76,123 @@ public class ReadingProgressService {
                                 readingItemId)));
     }
 
+    @Transactional(readOnly = true)
     public ImmutableList<ReadingProgress> getAllReadingProgressForUser(User user) {
-        return repository.findAllByUserId(user.getId()).stream()
+        return repository.findAllWithUserAndReadingItemByUserId(user.getId()).stream()
                 .map(mapper::toDomainModel)
                 .collect(toImmutableList());
     }
 
+    /**
+     * Returns a tag that changes whenever the progress or its reading item changes, without loading either. It is the
+     * same tag as {@link VersionTags#combine} gives for the loaded progress.
+     */
+    @Transactional(readOnly = true)
+    public String getReadingProgressVersion(User user, Long readingItemId) {
+        return repository.findVersionByUserIdAndReadingItemId(user.getId(), readingItemId)
+                .map(version -> VersionTags.combine(version.progressVersion(), version.readingItemVersion()))
+                .orElseThrow(() -> new NotFoundException(
+                        String.format(
+                                "No reading progress for user %d and reading item %d",
+                                user.getId(),
+                                readingItemId)));
+    }
+
+    /**
+     * Returns a tag that changes whenever the progress list of the user changes, without loading the list.
+     */
+    @Transactional(readOnly = true)
+    public String getReadingProgressListVersion(User user) {
+        var version = repository.findListVersionByUserId(user.getId());
+        return String.format("%d-%d-%d-%d",
+                version.count(), version.maxId(), version.progressVersionSum(), version.readingItemVersionSum());
+    }
+
+    @Transactional(readOnly = true)
+    public void exportReadingProgressForUser(User user, Consumer<ReadingProgress> consumer) {
+        repository.forEachByUserIdWithReadingItem(
+                user.getId(),
+                progress -> consumer.accept(mapper.toDomainModel(progress)));
+    }
+
+    /**
+     * Writes the last read chapter with a single versioned update, then reads the result. When the progress carries a
+     * version, the update is refused with a {@link ConflictException} unless the stored progress still has that
+     * version.
+     */
     public ReadingProgress updateReadingProgress(User user, Long readingItemId, ReadingProgress progress) {
-        var existingProgress = getReadingProgress(user, readingItemId);
+        var updated = progress.getLastReadChapter() == null || repository.updateLastReadChapter(
+                user.getId(), readingItemId, progress.getLastReadChapter(), progress.getVersion());
+
+        // Reading afterwards returns what was stored, and tells missing progress apart from a version conflict
+        var updatedProgress = getReadingProgress(user, readingItemId);
+        if (!updated || (progress.getVersion() != null && progress.getLastReadChapter() == null
+                && !progress.getVersion().equals(updatedProgress.getVersion()))) {
+            throw new ConflictException(
+                    String.format(
+                            "Reading progress for user %d and reading item %d was changed by another update",
+                            user.getId(),
+                            readingItemId));
+        }
+        return updatedProgress;
+    }
 
-        var updatedProgressBuilder = existingProgress.toBuilder();
-        if (progress.getLastReadChapter() != null) {
-            updatedProgressBuilder.lastReadChapter(progress.getLastReadChapter());
+    /**
+     * Creates or updates the progress of each entry in one transaction, in order, so a later entry for the same
+     * reading item wins. Returns one result per entry.
+     */
+    @Transactional
+    public ImmutableList<ReadingProgressUpdateResult> updateReadingProgressBatch(
+            User user, ImmutableList<ReadingProgress> updates) {
+        var readingItemIds = updates.stream()
+                .map(update -> update.getReadingItem().getId())
+                .collect(toImmutableSet());
+
+        Map<Long, ReadingProgress> progressByReadingItemId = new HashMap<>();
+        repository.findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(user.getId(), readingItemIds)
+                .forEach(entity -> progressByReadingItemId.put(entity.getReadingItem().getId(),
+                        mapper.toDomainModel(entity)));
+        var newReadingItems = readingItemService.getReadingItems(
+                Sets.difference(readingItemIds, progressByReadingItemId.keySet()));
+
+        var statuses = new ArrayList<ReadingProgressUpdateStatus>(updates.size());
+        Map<Long, ReadingProgress> changedProgress = new LinkedHashMap<>();
+        for (var update : updates) {
+            var readingItemId = update.getReadingItem().getId();
+            var existingProgress = progressByReadingItemId.get(readingItemId);
+            ReadingProgress.Builder progressBuilder;
+            if (existingProgress != null) {
+                statuses.add(UPDATED);
+                progressBuilder = existingProgress.toBuilder();
+            } else if (newReadingItems.containsKey(readingItemId)) {
+                statuses.add(CREATED);
+                progressBuilder = ReadingProgress.builder().user(user).readingItem(newReadingItems.get(readingItemId));
+            } else {
+                statuses.add(NOT_FOUND);
+                continue;
+            }
+            var progress = progressBuilder.lastReadChapter(update.getLastReadChapter()).build();
+            progressByReadingItemId.put(readingItemId, progress);
+            changedProgress.put(readingItemId, progress);
+        }
+
+        var changedEntities = changedProgress.values().stream().map(mapper::toEntity).toList();
+        var savedProgress = repository.saveAllAndFlush(changedEntities).stream()
+                .map(mapper::toDomainModel)
+                .collect(toImmutableMap(progress -> progress.getReadingItem().getId(), identity()));
+        for (int i = 0; i < updates.size(); i++) {
+            if (statuses.get(i) == CREATED) {
+                readingItemService.changeReaderCount(updates.get(i).getReadingItem().getId(), 1);
+            }
         }
 
-        return mapper.toDomainModel(repository.save(mapper.toEntity(updatedProgressBuilder.build())));
+        var results = ImmutableList.<ReadingProgressUpdateResult>builder();
+        for (int i = 0; i < updates.size(); i++) {
+            var readingItemId = updates.get(i).getReadingItem().getId();
+            results.add(new ReadingProgressUpdateResult(
+                    readingItemId, statuses.get(i), savedProgress.get(readingItemId)));
+        }
+        return results.build();
     }
 
     public void deleteReadingProgress(User user, Long readingItemId) {
@@ -83,5 +203,6 @@ public class ReadingProgressService {
                                 user.getId(),
                                 readingItemId)));
         repository.delete(progress);
+        readingItemService.changeReaderCount(readingItemId, -1);
     }
 }
@@ -10,12 +10,14 @@ public class ReadingProgress {
     private final User user;
     private final ReadingItem readingItem;
     private final Integer lastReadChapter;
+    private final Long version;
 
-    private ReadingProgress(Long id, User user, ReadingItem readingItem, Integer lastReadChapter) {
+    private ReadingProgress(Long id, User user, ReadingItem readingItem, Integer lastReadChapter, Long version) {
         this.id = id;
         this.user = user;
         this.readingItem = readingItem;
         this.lastReadChapter = lastReadChapter;
+        this.version = version;
     }
 
     public static Builder builder() {
@@ -38,12 +40,17 @@ public class ReadingProgress {
         return lastReadChapter;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Builder toBuilder() {
         return builder()
                 .id(id)
                 .user(user)
                 .readingItem(readingItem)
-                .lastReadChapter(lastReadChapter);
+                .lastReadChapter(lastReadChapter)
+                .version(version);
     }
 
     @Override
@@ -53,7 +60,8 @@ public class ReadingProgress {
         return Objects.equals(getId(), that.getId())
                 && Objects.equals(getUser(), that.getUser())
                 && Objects.equals(getReadingItem(), that.getReadingItem())
-                && Objects.equals(getLastReadChapter(), that.getLastReadChapter());
+                && Objects.equals(getLastReadChapter(), that.getLastReadChapter())
+                && Objects.equals(getVersion(), that.getVersion());
     }
 
     @Override
@@ -62,7 +70,8 @@ public class ReadingProgress {
                 getId(),
                 getUser(),
                 getReadingItem(),
-                getLastReadChapter());
+                getLastReadChapter(),
+                getVersion());
     }
 
     public static class Builder {
@@ -70,6 +79,7 @@ public class ReadingProgress {
         private User user;
         private ReadingItem readingItem;
         private Integer lastReadChapter;
+        private Long version;
 
         public Builder() {}
 
@@ -103,8 +113,13 @@ public class ReadingProgress {
             return this;
         }
 
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public ReadingProgress build() {
-            return new ReadingProgress(id, user, readingItem, lastReadChapter);
+            return new ReadingProgress(id, user, readingItem, lastReadChapter, version);
         }
     }
 }
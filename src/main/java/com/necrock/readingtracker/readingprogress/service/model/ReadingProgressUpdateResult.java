@@ -0,0 +1,12 @@
+package com.necrock.readingtracker.readingprogress.service.model;
+
+import com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus;
+import org.springframework.lang.Nullable;
+
+/**
+ * Outcome of one entry of a batch update. The progress is absent when the reading item does not exist.
+ */
+public record ReadingProgressUpdateResult(
+        Long readingItemId,
+        ReadingProgressUpdateStatus status,
+        @Nullable ReadingProgress progress) {}
@@ -0,0 +1,136 @@
+package com.necrock.readingtracker.security.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static com.necrock.readingtracker.common.IdSequenceAligner.ID_ALLOCATION_SIZE;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+/**
+ * A revoked access token, identified by its {@code jti}, or, without one, every access token issued to the user up
+ * to the revocation time. Rows can be dropped once the tokens they cover have expired.
+ */
+@Entity
+@Table(
+        name = "revoked_tokens",
+        uniqueConstraints = @UniqueConstraint(
+                name = "revoked_token_unique_jti",
+                columnNames = {"jti"}))
+public class RevokedTokenEntity {
+
+    public static final String ID_SEQUENCE =
+            "revoked_tokens_id_seq";
+    public static final String UNIQUE_JTI =
+            "revoked_token_unique_jti";
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    private String jti;
+
+    private String username;
+
+    private Instant revokedAt;
+
+    private Instant expiresAt;
+
+    private RevokedTokenEntity(Long id, String jti, String username, Instant revokedAt, Instant expiresAt) {
+        this.id = id;
+        this.jti = jti;
+        this.username = username;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @SuppressWarnings("unused") // Required for JPA
+    protected RevokedTokenEntity() {}
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        RevokedTokenEntity that = (RevokedTokenEntity) o;
+        return Objects.equals(getId(), that.getId())
+                && Objects.equals(getJti(), that.getJti())
+                && Objects.equals(getUsername(), that.getUsername())
+                && Objects.equals(getRevokedAt(), that.getRevokedAt())
+                && Objects.equals(getExpiresAt(), that.getExpiresAt());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getJti(), getUsername(), getRevokedAt(), getExpiresAt());
+    }
+
+    public static class Builder {
+        private Long id;
+        private String jti;
+        private String username;
+        private Instant revokedAt;
+        private Instant expiresAt;
+
+        public Builder id(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder jti(String jti) {
+            this.jti = jti;
+            return this;
+        }
+
+        public Builder username(String username) {
+            this.username = username;
+            return this;
+        }
+
+        public Builder revokedAt(Instant revokedAt) {
+            this.revokedAt = revokedAt;
+            return this;
+        }
+
+        public Builder expiresAt(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public RevokedTokenEntity build() {
+            return new RevokedTokenEntity(id, jti, username, revokedAt, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.necrock.readingtracker.security.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, Long> {
+
+    List<RevokedTokenEntity> findAllByExpiresAtAfter(Instant now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM RevokedTokenEntity t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
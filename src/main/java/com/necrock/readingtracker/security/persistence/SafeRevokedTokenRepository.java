@@ -0,0 +1,37 @@
+package com.necrock.readingtracker.security.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.necrock.readingtracker.common.SafeRepository;
+import com.necrock.readingtracker.exception.AlreadyExistsException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class SafeRevokedTokenRepository extends SafeRepository<RevokedTokenEntity, Long> {
+    private final RevokedTokenRepository repository;
+
+    public SafeRevokedTokenRepository(RevokedTokenRepository repository) {
+        super(repository);
+        this.repository = repository;
+    }
+
+    @Override
+    protected ImmutableMap<String, Function<RevokedTokenEntity, RuntimeException>> getUniqueConstraints() {
+        return ImmutableMap.of(
+                RevokedTokenEntity.UNIQUE_JTI,
+                entity -> new AlreadyExistsException(
+                        String.format("Token '%s' is already revoked", entity.getJti()))
+        );
+    }
+
+    public List<RevokedTokenEntity> findAllUnexpired(Instant now) {
+        return repository.findAllByExpiresAtAfter(now);
+    }
+
+    public void deleteExpired(Instant now) {
+        repository.deleteExpired(now);
+    }
+}
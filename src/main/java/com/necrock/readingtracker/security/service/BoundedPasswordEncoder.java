@@ -0,0 +1,133 @@
+package com.necrock.readingtracker.security.service;
+
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt password encoder that hashes on a small dedicated thread pool, so that a burst of logins can keep at most
+ * that many cores busy instead of every request thread. Callers wait for their turn in a bounded queue; when it is
+ * full, they are turned away with a {@link ServiceUnavailableException} rather than queued without limit.
+ * Hashing time and queue wait are published as the {@code password.hash} and {@code password.hash.queue.wait} timers.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    static final String HASH_TIMER = "password.hash";
+    static final String QUEUE_WAIT_TIMER = "password.hash.queue.wait";
+    static final String REJECTED_COUNTER = "password.hash.rejected";
+    static final String QUEUE_SIZE_GAUGE = "password.hash.queue.size";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public BoundedPasswordEncoder(AppProperties properties, MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(properties.getPasswordHashCost()), properties, meterRegistry);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, AppProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfter = properties.getPasswordHashRetryAfter();
+
+        var threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getPasswordHashThreads(),
+                properties.getPasswordHashThreads(),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getPasswordHashQueueCapacity()),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.queueWaitTimer = Timer.builder(QUEUE_WAIT_TIMER)
+                .description("Time password hashing requests wait for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(REJECTED_COUNTER)
+                .description("Password hashing requests turned away because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder(QUEUE_SIZE_GAUGE, executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder(HASH_TIMER)
+                .description("Time spent hashing passwords")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer hashTimer, Callable<T> hash) {
+        var queuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(hash);
+            }).get();
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many password checks in progress, try again later", retryAfter);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to hash password", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        }
+    }
+
+    /**
+     * Stops the hashing threads once the hashes in progress are done.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,7 +2,6 @@ package com.necrock.readingtracker.security.service;
 
 import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.user.service.UserService;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -17,7 +16,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public CustomUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         try {
             return new CustomUserDetails(service.getUser(username));
         } catch (NotFoundException e) {
@@ -1,71 +1,186 @@
 package com.necrock.readingtracker.security.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.necrock.readingtracker.configuration.AppProperties;
 import com.necrock.readingtracker.exception.UnauthorizedException;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.common.UserStatus;
 import com.necrock.readingtracker.user.service.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static com.necrock.readingtracker.user.common.UserStatus.ACTIVE;
 
 @Service
 public class JwtService {
 
-    private static final Duration EXPIRATION_TIME = Duration.ofHours(1);
+    static final String VERIFY_TIMER = "jwt.verify";
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String STATUS_CLAIM = "status";
+    private static final String SECURITY_STAMP_CLAIM = "stamp";
 
     private final Key signingKey;
     private final Clock clock;
-    private final CustomUserDetailsService userDetailsService;
+    private final Duration accessTokenTtl;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList revocationList;
+    private final SecurityStampCache securityStampCache;
+    private final boolean selfContainedTokens;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedClaims;
+    private final Timer cachedVerifyTimer;
+    private final Timer fullVerifyTimer;
 
-    public JwtService(Key signingKey, Clock clock, CustomUserDetailsService userDetailsService) {
+    public JwtService(Key signingKey, Clock clock, UserDetailsCache userDetailsCache,
+                      TokenRevocationList revocationList, SecurityStampCache securityStampCache,
+                      AppProperties properties, MeterRegistry meterRegistry) {
         this.signingKey = signingKey;
         this.clock = clock;
-        this.userDetailsService = userDetailsService;
+        this.accessTokenTtl = properties.getAccessTokenTtl();
+        this.userDetailsCache = userDetailsCache;
+        this.revocationList = revocationList;
+        this.securityStampCache = securityStampCache;
+        this.selfContainedTokens = properties.isSelfContainedTokens();
+        this.parser = Jwts.parserBuilder()
+                .setClock(() -> Date.from(clock.instant()))
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedClaims = CacheBuilder.newBuilder()
+                .maximumSize(properties.getVerifiedTokenCacheMaxSize())
+                .expireAfterWrite(accessTokenTtl)
+                .build();
+        this.cachedVerifyTimer = verifyTimer("hit", meterRegistry);
+        this.fullVerifyTimer = verifyTimer("miss", meterRegistry);
+    }
+
+    private static Timer verifyTimer(String cache, MeterRegistry meterRegistry) {
+        return Timer.builder(VERIFY_TIMER)
+                .description("Time spent parsing and verifying access tokens")
+                .tag("cache", cache)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public String generateToken(User user) {
         var now = Instant.now(clock);
-        return Jwts.builder()
+        var builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getUsername())
                 .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(now.plus(EXPIRATION_TIME)))
-                .signWith(signingKey)
-                .compact();
+                .setExpiration(Date.from(now.plus(accessTokenTtl)));
+        if (selfContainedTokens && user.getId() != null && user.getRole() != null && user.getStatus() != null) {
+            builder.claim(USER_ID_CLAIM, user.getId())
+                    .claim(ROLE_CLAIM, user.getRole().name())
+                    .claim(STATUS_CLAIM, user.getStatus().name())
+                    .claim(SECURITY_STAMP_CLAIM, Objects.requireNonNullElse(user.getSecurityStamp(), ""));
+        }
+        return builder.signWith(signingKey).compact();
     }
 
     public Token getToken(String tokenString) {
-        return new Token(tokenString);
+        return new Token(getVerifiedClaims(tokenString));
+    }
+
+    private Claims getVerifiedClaims(String tokenString) {
+        var start = System.nanoTime();
+        var tokenHash = Hashing.sha256().hashString(tokenString, StandardCharsets.UTF_8).toString();
+
+        var cachedClaims = verifiedClaims.getIfPresent(tokenHash);
+        if (cachedClaims != null && cachedClaims.getExpiration().toInstant().isAfter(clock.instant())) {
+            cachedVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cachedClaims;
+        }
+
+        // Not seen before or expired since: a full parse verifies the signature or reports the expiry
+        try {
+            verifiedClaims.invalidate(tokenHash);
+            var claims = parser.parseClaimsJws(tokenString).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(tokenHash, claims);
+            }
+            return claims;
+        } finally {
+            fullVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public class Token {
         private final Claims claims;
+        private CustomUserDetails userDetails;
 
-        private Token(String tokenString) {
-            var parser = Jwts.parserBuilder()
-                    .setClock(() -> Date.from(clock.instant()))
-                    .setSigningKey(signingKey)
-                    .build();
-            claims = parser.parseClaimsJws(tokenString)
-                    .getBody();
+        private Token(Claims claims) {
+            this.claims = claims;
         }
 
         public String getUsername() {
             return claims.getSubject();
         }
 
+        public String getId() {
+            return claims.getId();
+        }
+
+        public Instant getExpiration() {
+            return claims.getExpiration().toInstant();
+        }
+
+        /**
+         * Whether the token carries the user's id, role, status and security stamp, rather than only their username.
+         */
+        public boolean isSelfContained() {
+            return claims.get(SECURITY_STAMP_CLAIM) != null;
+        }
+
         public UserDetails getUserDetails() {
-            return userDetailsService.loadUserByUsername(getUsername());
+            // Resolved once per token so that validating and authenticating a request share one lookup
+            if (userDetails == null) {
+                userDetails = isSelfContained() ? userDetailsFromClaims() : userDetailsCache.get(getUsername());
+            }
+            return userDetails;
+        }
+
+        private CustomUserDetails userDetailsFromClaims() {
+            return new CustomUserDetails(User.builder()
+                    .id(claims.get(USER_ID_CLAIM, Number.class).longValue())
+                    .username(getUsername())
+                    .role(UserRole.valueOf(claims.get(ROLE_CLAIM, String.class)))
+                    .status(UserStatus.valueOf(claims.get(STATUS_CLAIM, String.class)))
+                    .securityStamp(claims.get(SECURITY_STAMP_CLAIM, String.class))
+                    .build());
         }
 
         public void validate() {
+            if (revocationList.isRevoked(getId(), getUsername(), claims.getIssuedAt().toInstant())) {
+                throw new JwtException("Token has been revoked");
+            }
+            // A changed stamp means the role, status or password changed after the token was issued
+            if (isSelfContained()) {
+                var stamp = claims.get(SECURITY_STAMP_CLAIM, String.class);
+                if (!securityStampCache.get(getUsername()).map(stamp::equals).orElse(false)) {
+                    throw new JwtException("Token is no longer valid");
+                }
+            }
             var userDetails = getUserDetails();
             if (!userDetails.isEnabled()) {
                 throw new DisabledException("User is disabled");
@@ -0,0 +1,56 @@
+package com.necrock.readingtracker.security.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.user.service.UserService;
+import com.necrock.readingtracker.user.service.event.UserUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded, time-limited cache of each user's security stamp, keyed by username. It is all that self-contained tokens
+ * need from the database, and a single short string per user, so it can hold many more users than
+ * {@link UserDetailsCache}. Entries are dropped as soon as a user changes.
+ */
+@Component
+public class SecurityStampCache {
+
+    private final UserService userService;
+    private final Cache<String, Optional<String>> cache;
+
+    public SecurityStampCache(UserService userService, AppProperties properties) {
+        this.userService = userService;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getSecurityStampCacheMaxSize())
+                .expireAfterWrite(properties.getSecurityStampCacheTtl())
+                .build();
+    }
+
+    /**
+     * Returns the user's current security stamp, or empty if there is no such user.
+     */
+    public Optional<String> get(String username) {
+        try {
+            return cache.get(username, () -> userService.getSecurityStamp(username));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load security stamp", e.getCause());
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidate(event.username());
+    }
+}
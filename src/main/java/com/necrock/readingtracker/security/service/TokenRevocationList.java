@@ -0,0 +1,186 @@
+package com.necrock.readingtracker.security.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.security.persistence.RevokedTokenEntity;
+import com.necrock.readingtracker.security.persistence.SafeRevokedTokenRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revoked access tokens, stored in the database and mirrored in memory for the check on every request. A Bloom
+ * filter answers that almost every token is not revoked without touching the exact maps; only its rare positives,
+ * true or false, are settled by a hash lookup.
+ */
+@Component
+public class TokenRevocationList implements SmartInitializingSingleton {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final String JTI_KEY_PREFIX = "jti:";
+    private static final String USER_KEY_PREFIX = "user:";
+
+    private final SafeRevokedTokenRepository repository;
+    private final Clock clock;
+    private final Duration accessTokenTtl;
+    private final int filterCapacity;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /** Expiry of each revoked token, by {@code jti}. */
+    private volatile Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    /** Per username, the time up to which every token issued to the user is revoked. */
+    private volatile Map<String, Instant> revokedUntil = new ConcurrentHashMap<>();
+    private volatile BloomFilter<CharSequence> filter;
+    private int filterSize;
+    private int filterInsertions;
+
+    public TokenRevocationList(SafeRevokedTokenRepository repository, Clock clock, AppProperties properties) {
+        this.repository = repository;
+        this.clock = clock;
+        this.accessTokenTtl = properties.getAccessTokenTtl();
+        this.filterCapacity = properties.getRevokedTokenFilterCapacity();
+        this.filterSize = filterCapacity;
+        this.filter = newFilter(filterSize);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public boolean isRevoked(@Nullable String jti, String username, Instant issuedAt) {
+        var currentFilter = filter;
+        if (jti != null && currentFilter.mightContain(JTI_KEY_PREFIX + jti) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (currentFilter.mightContain(USER_KEY_PREFIX + username)) {
+            var until = revokedUntil.get(username);
+            return until != null && !issuedAt.isAfter(until);
+        }
+        return false;
+    }
+
+    public void revoke(String jti, String username, Instant expiresAt) {
+        repository.save(RevokedTokenEntity.builder()
+                .jti(jti)
+                .username(username)
+                .revokedAt(clock.instant())
+                .expiresAt(expiresAt)
+                .build());
+        boolean filterFull;
+        synchronized (this) {
+            revokedTokens.put(jti, expiresAt);
+            filterFull = addToFilter(JTI_KEY_PREFIX + jti);
+        }
+        if (filterFull) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Revokes every token issued to the user so far. Token issue times have a resolution of one second, so a token
+     * issued later within the same second is revoked as well.
+     */
+    public void revokeAll(String username) {
+        var now = clock.instant();
+        var until = now.truncatedTo(ChronoUnit.SECONDS);
+        repository.save(RevokedTokenEntity.builder()
+                .username(username)
+                .revokedAt(until)
+                .expiresAt(now.plus(accessTokenTtl))
+                .build());
+        boolean filterFull;
+        synchronized (this) {
+            revokedUntil.merge(username, until, TokenRevocationList::later);
+            filterFull = addToFilter(USER_KEY_PREFIX + username);
+        }
+        if (filterFull) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds the key to the filter and returns whether the filter is past its size. It then reports more and more false
+     * positives, so it should be rebuilt without expired entries.
+     */
+    private boolean addToFilter(String key) {
+        filter.put(key);
+        return ++filterInsertions > filterSize;
+    }
+
+    /**
+     * Reloads the unexpired revocations and swaps in new maps and a new filter, so that concurrent checks see either
+     * the old or the new state, but never a partly filled one. The database is read without holding the lock, so
+     * revocations do not wait for it; the ones made meanwhile are carried over from the current maps.
+     */
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            var now = clock.instant();
+            repository.deleteExpired(now);
+            var storedRevocations = repository.findAllUnexpired(now);
+            synchronized (this) {
+                swapIn(storedRevocations, now);
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void swapIn(List<RevokedTokenEntity> storedRevocations, Instant now) {
+        Map<String, Instant> newRevokedTokens = new ConcurrentHashMap<>();
+        Map<String, Instant> newRevokedUntil = new ConcurrentHashMap<>();
+        for (var revokedToken : storedRevocations) {
+            if (revokedToken.getJti() != null) {
+                newRevokedTokens.put(revokedToken.getJti(), revokedToken.getExpiresAt());
+            } else {
+                newRevokedUntil.merge(
+                        revokedToken.getUsername(), revokedToken.getRevokedAt(), TokenRevocationList::later);
+            }
+        }
+        revokedTokens.forEach((jti, expiresAt) -> {
+            if (expiresAt.isAfter(now)) {
+                newRevokedTokens.put(jti, expiresAt);
+            }
+        });
+        revokedUntil.forEach((username, until) -> {
+            if (until.plus(accessTokenTtl).isAfter(now)) {
+                newRevokedUntil.merge(username, until, TokenRevocationList::later);
+            }
+        });
+
+        var entries = newRevokedTokens.size() + newRevokedUntil.size();
+        // Leave room to grow, so that many long-lived revocations do not cause a rebuild on every insertion
+        filterSize = Math.max(filterCapacity, 2 * entries);
+        var newFilter = newFilter(filterSize);
+        newRevokedTokens.keySet().forEach(jti -> newFilter.put(JTI_KEY_PREFIX + jti));
+        newRevokedUntil.keySet().forEach(username -> newFilter.put(USER_KEY_PREFIX + username));
+        filterInsertions = entries;
+
+        // Publish the maps before the filter that refers to them
+        revokedTokens = newRevokedTokens;
+        revokedUntil = newRevokedUntil;
+        filter = newFilter;
+    }
+
+    private static BloomFilter<CharSequence> newFilter(int size) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), size, FALSE_POSITIVE_RATE);
+    }
+
+    private static Instant later(Instant first, Instant second) {
+        return second.isAfter(first) ? second : first;
+    }
+}
@@ -0,0 +1,50 @@
+package com.necrock.readingtracker.security.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.user.service.event.UserUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded, time-limited cache of the user details that back authenticated requests, keyed by username.
+ * Entries are dropped as soon as a user's status, role or credentials change.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, CustomUserDetails> cache;
+
+    public UserDetailsCache(CustomUserDetailsService userDetailsService, AppProperties properties) {
+        this.userDetailsService = userDetailsService;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(properties.getUserDetailsCacheMaxSize())
+                .expireAfterWrite(properties.getUserDetailsCacheTtl())
+                .build();
+    }
+
+    public CustomUserDetails get(String username) {
+        try {
+            return cache.get(username, () -> userDetailsService.loadUserByUsername(username));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load user details", e.getCause());
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidate(event.username());
+    }
+}
@@ -1,5 +1,6 @@
 package com.necrock.readingtracker.user.api.admin;
 
+import com.necrock.readingtracker.auth.service.AuthService;
 import com.necrock.readingtracker.user.api.admin.dto.UpdateUserRoleRequest;
 import com.necrock.readingtracker.user.api.admin.dto.UpdateUserStatusRequest;
 import com.necrock.readingtracker.user.api.admin.dto.AdminUserDetailsDto;
@@ -8,11 +9,15 @@ import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+
 @RestController
 @RequestMapping("api/users")
 @PreAuthorize("hasRole('ADMIN')")
@@ -20,10 +25,12 @@ public class AdminUserController {
 
     private final UserService service;
     private final AdminUserMapper mapper;
+    private final AuthService authService;
 
-    public AdminUserController(UserService service, AdminUserMapper mapper) {
+    public AdminUserController(UserService service, AdminUserMapper mapper, AuthService authService) {
         this.service = service;
         this.mapper = mapper;
+        this.authService = authService;
     }
 
     @GetMapping("/{id}")
@@ -40,4 +47,10 @@ public class AdminUserController {
     public void setUserRole(@PathVariable Long id, @Valid @RequestBody UpdateUserRoleRequest request) {
         service.setUserRole(id, request.role());
     }
+
+    @PostMapping("/{id}/revoke-tokens")
+    @ResponseStatus(NO_CONTENT)
+    public void revokeTokens(@PathVariable Long id) {
+        authService.revokeAllTokens(service.getUser(id));
+    }
 }
@@ -17,5 +17,6 @@ public interface SelfUserMapper {
     @Mapping(target = "role", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "securityStamp", ignore = true)
     User toDomainModel(UpdateUserDetailsRequest dto);
 }
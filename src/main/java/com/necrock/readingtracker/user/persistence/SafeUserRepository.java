@@ -31,4 +31,8 @@ public class SafeUserRepository extends SafeRepository<UserEntity, Long> {
     public Optional<UserEntity> findByUsername(String username) {
         return repository.findByUsername(username);
     }
+
+    public Optional<String> findSecurityStampByUsername(String username) {
+        return repository.findSecurityStampByUsername(username);
+    }
 }
@@ -7,13 +7,15 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
 import java.time.Instant;
 import java.util.Objects;
 
-import static jakarta.persistence.GenerationType.AUTO;
+import static com.necrock.readingtracker.common.IdSequenceAligner.ID_ALLOCATION_SIZE;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @Entity
 @Table(
@@ -23,11 +25,14 @@ import static jakarta.persistence.GenerationType.AUTO;
                 columnNames = {"username"}))
 public class UserEntity {
 
+    public static final String ID_SEQUENCE =
+            "users_id_seq";
     public static final String UNIQUE_USERNAME =
             "user_unique_username";
 
     @Id
-    @GeneratedValue(strategy = AUTO)
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String username;
@@ -44,13 +49,17 @@ public class UserEntity {
 
     private Instant createdAt;
 
+    /** Changes whenever the role, status or password changes, so that tokens carrying an older one are refused. */
+    private String securityStamp;
+
     private UserEntity(Long id,
                        String username,
                        String email,
                        String passwordHash,
                        UserRole role,
                        UserStatus status,
-                       Instant createdAt) {
+                       Instant createdAt,
+                       String securityStamp) {
         this.id = id;
         this.username = username;
         this.email = email;
@@ -58,6 +67,7 @@ public class UserEntity {
         this.role = role;
         this.status = status;
         this.createdAt = createdAt;
+        this.securityStamp = securityStamp;
     }
 
     @SuppressWarnings("unused") // Required for JPA
@@ -99,6 +109,10 @@ public class UserEntity {
         return createdAt;
     }
 
+    public String getSecurityStamp() {
+        return securityStamp;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -112,7 +126,8 @@ public class UserEntity {
                 && Objects.equals(getPasswordHash(), that.getPasswordHash())
                 && getRole() == that.getRole()
                 && getStatus() == that.getStatus()
-                && Objects.equals(getCreatedAt(), that.getCreatedAt());
+                && Objects.equals(getCreatedAt(), that.getCreatedAt())
+                && Objects.equals(getSecurityStamp(), that.getSecurityStamp());
     }
 
     @Override
@@ -124,7 +139,8 @@ public class UserEntity {
                 getPasswordHash(),
                 getRole(),
                 getStatus(),
-                getCreatedAt());
+                getCreatedAt(),
+                getSecurityStamp());
     }
 
     public static class Builder {
@@ -135,6 +151,7 @@ public class UserEntity {
         private UserRole role;
         private UserStatus status;
         private Instant createdAt;
+        private String securityStamp;
 
         public Builder id(Long id) {
             this.id = id;
@@ -171,8 +188,13 @@ public class UserEntity {
             return this;
         }
 
+        public Builder securityStamp(String securityStamp) {
+            this.securityStamp = securityStamp;
+            return this;
+        }
+
         public UserEntity build() {
-            return new UserEntity(id, username, email, passwordHash, role, status, createdAt);
+            return new UserEntity(id, username, email, passwordHash, role, status, createdAt, securityStamp);
         }
     }
 }
@@ -1,10 +1,20 @@
 package com.necrock.readingtracker.user.persistence;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
     Optional<UserEntity> findByUsername(String username);
+
+    @Query("SELECT COALESCE(u.securityStamp, '') FROM UserEntity u WHERE u.username = :username")
+    Optional<String> findSecurityStampByUsername(@Param("username") String username);
 }
@@ -5,29 +5,47 @@ import com.necrock.readingtracker.exception.AlreadyExistsException;
 import com.necrock.readingtracker.user.persistence.SafeUserRepository;
 import com.necrock.readingtracker.user.common.UserRole;
 import com.necrock.readingtracker.user.common.UserStatus;
+import com.necrock.readingtracker.user.service.event.UserUpdatedEvent;
 import com.necrock.readingtracker.user.service.model.User;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
+@Timed(value = "service.call", histogram = true)
 public class UserService {
 
     private final SafeUserRepository repository;
     private final UserEntityMapper mapper;
     private final Clock clock;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(SafeUserRepository repository, UserEntityMapper mapper, Clock clock) {
+    public UserService(
+            SafeUserRepository repository,
+            UserEntityMapper mapper,
+            Clock clock,
+            ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
         this.mapper = mapper;
         this.clock = clock;
+        this.eventPublisher = eventPublisher;
     }
 
     public User addUser(User user) {
         validateAddPreconditions(user);
         var enrichedUser =
-                user.toBuilder().status(UserStatus.ACTIVE).role(UserRole.USER).createdAt(Instant.now(clock)).build();
+                user.toBuilder()
+                        .status(UserStatus.ACTIVE)
+                        .role(UserRole.USER)
+                        .createdAt(Instant.now(clock))
+                        .securityStamp(newSecurityStamp())
+                        .build();
         return saveUser(enrichedUser);
     }
 
@@ -47,44 +65,66 @@ public class UserService {
             updatedUserBuilder.email(user.getEmail());
         }
 
-        return saveUser(updatedUserBuilder.build());
+        return saveExistingUser(updatedUserBuilder.build(), false);
     }
 
     public void setPassword(long id, String passwordHash) {
         var user = getUser(id);
-        var updatedUser = user.toBuilder().passwordHash(passwordHash).build();
-        saveUser(updatedUser);
+        var updatedUser = user.toBuilder().passwordHash(passwordHash).securityStamp(newSecurityStamp()).build();
+        saveExistingUser(updatedUser, true);
     }
 
     public void setUserStatus(long id, UserStatus newStatus) {
         var user = getUser(id);
-        var updatedUser = user.toBuilder().status(newStatus).build();
-        saveUser(updatedUser);
+        var updatedUser = user.toBuilder().status(newStatus).securityStamp(newSecurityStamp()).build();
+        saveExistingUser(updatedUser, true);
     }
 
     public void setUserRole(long id, UserRole newRole) {
         var user = getUser(id);
-        var updatedUser = user.toBuilder().role(newRole).build();
-        saveUser(updatedUser);
+        var updatedUser = user.toBuilder().role(newRole).securityStamp(newSecurityStamp()).build();
+        saveExistingUser(updatedUser, true);
     }
 
+    @Transactional(readOnly = true)
     public boolean hasUserRole(long id, UserRole requiredRole) {
         return getUser(id).getRole() == requiredRole;
     }
 
+    @Transactional(readOnly = true)
     public User getUser(long id) {
         return repository.findById(id)
                 .map(mapper::toDomainModel)
                 .orElseThrow(() -> new NotFoundException(String.format("No user with id %d", id)));
     }
 
+    @Transactional(readOnly = true)
     public User getUser(String username) {
         return repository.findByUsername(username)
                 .map(mapper::toDomainModel)
                 .orElseThrow(() -> new NotFoundException(String.format("No user with username '%s'", username)));
     }
 
+    /**
+     * Returns the user's security stamp, which changes whenever their role, status or password does, or an empty
+     * string for users created before stamps were introduced.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getSecurityStamp(String username) {
+        return repository.findSecurityStampByUsername(username);
+    }
+
+    private static String newSecurityStamp() {
+        return UUID.randomUUID().toString();
+    }
+
     private User saveUser(User user) {
         return mapper.toDomainModel(repository.save(mapper.toEntity(user)));
     }
+
+    private User saveExistingUser(User user, boolean securityStampChanged) {
+        var savedUser = saveUser(user);
+        eventPublisher.publishEvent(new UserUpdatedEvent(user.getUsername(), securityStampChanged));
+        return savedUser;
+    }
 }
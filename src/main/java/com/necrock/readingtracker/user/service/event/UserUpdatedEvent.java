@@ -0,0 +1,7 @@
+package com.necrock.readingtracker.user.service.event;
+
+/**
+ * Published after an existing user has been changed. A change to the password, status or role also replaces the
+ * user's security stamp, which ends their sessions.
+ */
+public record UserUpdatedEvent(String username, boolean securityStampChanged) {}
@@ -14,6 +14,7 @@ public class User {
     private final UserRole role;
     private final UserStatus status;
     private final Instant createdAt;
+    private final String securityStamp;
 
     private User(Long id,
                  String username,
@@ -21,7 +22,8 @@ public class User {
                  String passwordHash,
                  UserRole role,
                  UserStatus status,
-                 Instant createdAt) {
+                 Instant createdAt,
+                 String securityStamp) {
         this.id = id;
         this.username = username;
         this.email = email;
@@ -29,6 +31,7 @@ public class User {
         this.role = role;
         this.status = status;
         this.createdAt = createdAt;
+        this.securityStamp = securityStamp;
     }
 
     public static Builder builder() {
@@ -63,6 +66,10 @@ public class User {
         return createdAt;
     }
 
+    public String getSecurityStamp() {
+        return securityStamp;
+    }
+
     public Builder toBuilder() {
         return builder()
                 .id(id)
@@ -71,7 +78,8 @@ public class User {
                 .passwordHash(passwordHash)
                 .role(role)
                 .status(status)
-                .createdAt(createdAt);
+                .createdAt(createdAt)
+                .securityStamp(securityStamp);
     }
 
     @Override
@@ -87,7 +95,8 @@ public class User {
                 && Objects.equals(getPasswordHash(), user.getPasswordHash())
                 && getRole() == user.getRole()
                 && getStatus() == user.getStatus()
-                && Objects.equals(getCreatedAt(), user.getCreatedAt());
+                && Objects.equals(getCreatedAt(), user.getCreatedAt())
+                && Objects.equals(getSecurityStamp(), user.getSecurityStamp());
     }
 
     @Override
@@ -99,7 +108,8 @@ public class User {
                 getPasswordHash(),
                 getRole(),
                 getStatus(),
-                getCreatedAt());
+                getCreatedAt(),
+                getSecurityStamp());
     }
 
     public static class Builder {
@@ -110,6 +120,7 @@ public class User {
         private UserRole role;
         private UserStatus status;
         private Instant createdAt;
+        private String securityStamp;
 
         public Builder() {}
 
@@ -148,8 +159,13 @@ public class User {
             return this;
         }
 
+        public Builder securityStamp(String securityStamp) {
+            this.securityStamp = securityStamp;
+            return this;
+        }
+
         public User build() {
-            return new User(id, username, email, passwordHash, role, status, createdAt);
+            return new User(id, username, email, passwordHash, role, status, createdAt, securityStamp);
         }
     }
 }
@@ -1,25 +1,48 @@
 package com.necrock.readingtracker.auth.api;
 
 import com.necrock.readingtracker.auth.api.dto.LoginRequest;
+import com.necrock.readingtracker.auth.api.dto.LoginResponse;
+import com.necrock.readingtracker.auth.api.dto.LogoutRequest;
+import com.necrock.readingtracker.auth.api.dto.RefreshRequest;
+import com.necrock.readingtracker.auth.api.dto.RefreshResponse;
 import com.necrock.readingtracker.auth.api.dto.RegisterRequest;
 import com.necrock.readingtracker.auth.api.dto.RegisterResponse;
+import com.necrock.readingtracker.exception.ServiceUnavailableException;
+import com.necrock.readingtracker.security.service.BoundedPasswordEncoder;
 import com.necrock.readingtracker.security.service.JwtService;
 import com.necrock.readingtracker.testsupport.auth.AuthTestClient;
 import com.necrock.readingtracker.user.persistence.UserEntity;
 import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.UserService;
+import com.necrock.readingtracker.user.service.model.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 
 import static com.necrock.readingtracker.user.common.UserRole.USER;
 import static com.necrock.readingtracker.user.common.UserStatus.ACTIVE;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// A long refill period keeps the attempt budgets from refilling while a test uses them up
+@SpringBootTest(properties = "app.authAttemptRefillPeriod=1h")
 @AutoConfigureMockMvc
 @Import(AuthTestClient.Config.class)
 class AuthControllerTest {
@@ -33,6 +56,12 @@ class AuthControllerTest {
     PasswordEncoder passwordEncoder;
     @Autowired
     JwtService jwtService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    Key signingKey;
+    @MockitoSpyBean
+    BoundedPasswordEncoder boundedPasswordEncoder;
 
     @Test
     void register_returns201Created() throws Exception {
@@ -135,4 +164,191 @@ class AuthControllerTest {
         testClient.login(login)
                 .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_afterUsernameBudgetUsedUp_returns429WithRetryAfter() throws Exception {
+        var username = "user_login_afterUsernameBudgetUsedUp_returns429WithRetryAfter";
+        var password = "somePassword";
+        var userEntity = UserEntity.builder()
+                .username(username)
+                .passwordHash(passwordEncoder.encode(password))
+                .email("email")
+                .role(USER)
+                .status(ACTIVE)
+                .build();
+        userRepository.save(userEntity);
+        for (int i = 0; i < 5; i++) {
+            testClient.login(new LoginRequest(username, "wrongPassword"), "192.0.2." + i)
+                    .andExpect(status().isUnauthorized());
+        }
+
+        testClient.login(new LoginRequest(username, password), "192.0.2.100")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(RETRY_AFTER))
+                .andExpect(jsonPath("$.type").value("RATE_LIMITED_ERROR"));
+    }
+
+    @Test
+    void login_afterAddressBudgetUsedUp_returns429() throws Exception {
+        var address = "198.51.100.7";
+        for (int i = 0; i < 20; i++) {
+            testClient.login(new LoginRequest("user_login_afterAddressBudgetUsedUp_" + i, "somePassword"), address)
+                    .andExpect(status().isUnauthorized());
+        }
+
+        testClient.login(new LoginRequest("user_login_afterAddressBudgetUsedUp_last", "somePassword"), address)
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void login_withPasswordHashingSaturated_returns503WithRetryAfter() throws Exception {
+        var username = "user_login_withPasswordHashingSaturated";
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .passwordHash(passwordEncoder.encode("somePassword"))
+                .email("email")
+                .role(USER)
+                .status(ACTIVE)
+                .build());
+        doThrow(new ServiceUnavailableException("Too many password checks in progress, try again later",
+                Duration.ofSeconds(2)))
+                .when(boundedPasswordEncoder).matches(any(), any());
+
+        testClient.login(new LoginRequest(username, "somePassword"), "192.0.2.202")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.type").value("UNAVAILABLE_ERROR"));
+    }
+
+    @Test
+    void refresh_withTokenFromLogin_returnsNewTokens() throws Exception {
+        var username = "user_refresh_withTokenFromLogin_returnsNewTokens";
+        var login = loginNewUser(username);
+
+        var result = testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isOk());
+
+        var response = testClient.parseResponse(result, RefreshResponse.class);
+        assertThat(jwtService.getToken(response.token()).getUsername()).isEqualTo(username);
+        assertThat(response.refreshToken()).isNotEqualTo(login.refreshToken());
+    }
+
+    @Test
+    void refresh_withRedeemedToken_returns401Unauthorized() throws Exception {
+        var login = loginNewUser("user_refresh_withRedeemedToken_returns401Unauthorized");
+        testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isOk());
+
+        testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refresh_withUnknownToken_returns401Unauthorized() throws Exception {
+        testClient.refresh(new RefreshRequest("unknownToken"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refresh_withMissingToken_returns400BadRequest() throws Exception {
+        testClient.refresh(new RefreshRequest(null))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.details.refreshToken").value("Refresh token is required"));
+    }
+
+    @Test
+    void logout_revokesAccessAndRefreshToken() throws Exception {
+        var login = loginNewUser("user_logout_revokesAccessAndRefreshToken");
+
+        testClient.logout(login.token(), new LogoutRequest(login.refreshToken()))
+                .andExpect(status().isNoContent());
+
+        assertThatThrownBy(() -> jwtService.getToken(login.token()).validate())
+                .isInstanceOf(JwtException.class);
+        testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_withRevokedToken_returns403Forbidden() throws Exception {
+        var login = loginNewUser("user_logout_withRevokedToken_returns403Forbidden");
+        testClient.logout(login.token(), new LogoutRequest(null))
+                .andExpect(status().isNoContent());
+
+        testClient.logout(login.token(), new LogoutRequest(null))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void logout_keepsOtherSessionsOfUser() throws Exception {
+        var username = "user_logout_keepsOtherSessionsOfUser";
+        var login = loginNewUser(username);
+        var otherLogin = testClient.parseResponse(
+                testClient.login(new LoginRequest(username, "somePassword"), "192.0.2.201"), LoginResponse.class);
+
+        testClient.logout(login.token(), new LogoutRequest(login.refreshToken()))
+                .andExpect(status().isNoContent());
+
+        jwtService.getToken(otherLogin.token()).validate();
+        testClient.refresh(new RefreshRequest(otherLogin.refreshToken()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void logout_withTokenWithoutId_revokesAccessTokensOfUser() throws Exception {
+        var username = "user_logout_withTokenWithoutId_revokesAccessTokensOfUser";
+        var login = loginNewUser(username);
+        var issuedAt = Instant.now().minusSeconds(1);
+        var tokenWithoutId = Jwts.builder()
+                .setSubject(username)
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(issuedAt.plus(Duration.ofMinutes(5))))
+                .signWith(signingKey)
+                .compact();
+
+        testClient.logout(tokenWithoutId, new LogoutRequest(null))
+                .andExpect(status().isNoContent());
+
+        assertThatThrownBy(() -> jwtService.getToken(tokenWithoutId).validate())
+                .isInstanceOf(JwtException.class);
+        testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refresh_afterEmailChange_returnsNewTokens() throws Exception {
+        var username = "user_refresh_afterEmailChange_returnsNewTokens";
+        var login = loginNewUser(username);
+        var userId = userRepository.findByUsername(username).orElseThrow().getId();
+        userService.updateUser(userId, User.builder().email("new@provider.com").build());
+
+        testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refresh_afterPasswordChange_returns401Unauthorized() throws Exception {
+        var username = "user_refresh_afterPasswordChange_returns401Unauthorized";
+        var login = loginNewUser(username);
+        var userId = userRepository.findByUsername(username).orElseThrow().getId();
+        userService.setPassword(userId, passwordEncoder.encode("otherPassword"));
+
+        testClient.refresh(new RefreshRequest(login.refreshToken()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private LoginResponse loginNewUser(String username) throws Exception {
+        var password = "somePassword";
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .passwordHash(passwordEncoder.encode(password))
+                .email("email")
+                .role(USER)
+                .status(ACTIVE)
+                .build());
+        var result = testClient.login(new LoginRequest(username, password), "192.0.2.200")
+                .andExpect(status().isOk());
+        return testClient.parseResponse(result, LoginResponse.class);
+    }
+}
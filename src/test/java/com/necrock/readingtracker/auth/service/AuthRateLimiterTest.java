@@ -0,0 +1,124 @@
+package com.necrock.readingtracker.auth.service;
+
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTest {
+
+    private static final String ADDRESS = "203.0.113.1";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2020-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void acquireLogin_withinUsernameBudget_succeeds() {
+        var limiter = limiter(3, 20);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireLogin(ADDRESS, "user");
+        }
+    }
+
+    @Test
+    void acquireLogin_overUsernameBudget_throwsWithTimeUntilNextAttempt() {
+        var limiter = limiter(3, 20);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireLogin("203.0.113." + i, "user");
+        }
+
+        assertThatThrownBy(() -> limiter.acquireLogin("203.0.113.99", "user"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(ex -> ((TooManyRequestsException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(20));
+        assertThat(meterRegistry.get(AuthRateLimiter.THROTTLED_COUNTER)
+                .tag("endpoint", "login")
+                .tag("key", "username")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void acquireLogin_overAddressBudget_throwsForAnyUsername() {
+        var limiter = limiter(3, 2);
+        limiter.acquireLogin(ADDRESS, "first");
+        limiter.acquireLogin(ADDRESS, "second");
+
+        assertThatThrownBy(() -> limiter.acquireLogin(ADDRESS, "third"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.get(AuthRateLimiter.THROTTLED_COUNTER)
+                .tag("endpoint", "login")
+                .tag("key", "address")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void acquireLogin_afterRefill_succeedsAgain() {
+        var limiter = limiter(3, 20);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireLogin(ADDRESS, "user");
+        }
+
+        clock.advance(Duration.ofSeconds(20));
+
+        assertThatCode(() -> limiter.acquireLogin(ADDRESS, "user")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.acquireLogin(ADDRESS, "user"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void acquireRegister_sharesAddressBudgetWithLogin() {
+        var limiter = limiter(3, 2);
+        limiter.acquireLogin(ADDRESS, "user");
+        limiter.acquireRegister(ADDRESS);
+
+        assertThatThrownBy(() -> limiter.acquireRegister(ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> limiter.acquireRegister("203.0.113.2")).doesNotThrowAnyException();
+    }
+
+    private AuthRateLimiter limiter(int attemptsPerUsername, int attemptsPerAddress) {
+        var properties = new AppProperties();
+        properties.setLoginAttemptsPerUsername(attemptsPerUsername);
+        properties.setAuthAttemptsPerAddress(attemptsPerAddress);
+        properties.setAuthAttemptRefillPeriod(Duration.ofMinutes(1));
+        return new AuthRateLimiter(properties, clock, meterRegistry);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
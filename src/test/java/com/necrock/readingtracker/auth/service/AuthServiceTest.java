@@ -1,5 +1,7 @@
 package com.necrock.readingtracker.auth.service;
 
+import com.necrock.readingtracker.auth.persistence.RefreshTokenEntity;
+import com.necrock.readingtracker.auth.persistence.RefreshTokenRepository;
 import com.necrock.readingtracker.auth.service.model.UserLogin;
 import com.necrock.readingtracker.auth.service.model.UserRegistration;
 import com.necrock.readingtracker.testsupport.configuration.TestTimeConfig;
@@ -14,17 +16,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import static com.necrock.readingtracker.user.common.UserRole.USER;
 import static com.necrock.readingtracker.user.common.UserStatus.ACTIVE;
+import static com.necrock.readingtracker.user.common.UserStatus.DELETED;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +43,8 @@ class AuthServiceTest {
 
     @MockitoBean
     private UserRepository userRepository;
+    @MockitoBean
+    private RefreshTokenRepository refreshTokenRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
@@ -173,6 +181,88 @@ class AuthServiceTest {
                 .isInstanceOf(UnauthorizedException.class);
     }
 
+    @Test
+    void login_storesHashOfRefreshToken() {
+        var username = "user";
+        var password = "password";
+        var userEntity =
+                testUserEntity(u -> u
+                        .username(username)
+                        .passwordHash(passwordEncoder.encode(password)));
+        when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(userEntity));
+
+        var result = service.login(new UserLogin(username, password));
+
+        var captor = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        var storedToken = captor.getValue();
+        assertThat(result.refreshToken()).isNotBlank();
+        assertThat(storedToken.getTokenHash()).isNotEqualTo(result.refreshToken());
+        assertThat(storedToken.getUser().getId()).isEqualTo(userEntity.getId());
+        assertThat(storedToken.getExpiresAt()).isEqualTo(TestTimeConfig.NOW.plus(Duration.ofDays(30)));
+    }
+
+    @Test
+    void refresh_withValidToken_returnsNewTokens() {
+        var userEntity = testUserEntity(u -> u.username("user"));
+        when(refreshTokenRepository.findWithUserByTokenHash(any(String.class)))
+                .thenReturn(Optional.of(testRefreshToken(userEntity, Duration.ofDays(1))));
+        when(refreshTokenRepository.deleteTokenById(anyLong())).thenReturn(1);
+
+        var result = service.refresh("refreshToken");
+
+        assertThat(jwtService.getToken(result.token()).getUsername()).isEqualTo("user");
+        assertThat(result.refreshToken()).isNotEqualTo("refreshToken");
+        verify(refreshTokenRepository).deleteTokenById(7L);
+    }
+
+    @Test
+    void refresh_withUnknownToken_throwsUnauthorizedException() {
+        when(refreshTokenRepository.findWithUserByTokenHash(any(String.class))).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.refresh("refreshToken"))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void refresh_withExpiredToken_throwsUnauthorizedException() {
+        when(refreshTokenRepository.findWithUserByTokenHash(any(String.class)))
+                .thenReturn(Optional.of(testRefreshToken(testUserEntity(u -> {}), Duration.ZERO)));
+
+        assertThatThrownBy(() -> service.refresh("refreshToken"))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void refresh_withTokenRedeemedConcurrently_throwsUnauthorizedException() {
+        when(refreshTokenRepository.findWithUserByTokenHash(any(String.class)))
+                .thenReturn(Optional.of(testRefreshToken(testUserEntity(u -> {}), Duration.ofDays(1))));
+        when(refreshTokenRepository.deleteTokenById(anyLong())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.refresh("refreshToken"))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void refresh_withDeletedUser_throwsDisabledException() {
+        when(refreshTokenRepository.findWithUserByTokenHash(any(String.class)))
+                .thenReturn(Optional.of(testRefreshToken(testUserEntity(u -> u.status(DELETED)), Duration.ofDays(1))));
+        when(refreshTokenRepository.deleteTokenById(anyLong())).thenReturn(1);
+
+        assertThatThrownBy(() -> service.refresh("refreshToken"))
+                .isInstanceOf(DisabledException.class);
+    }
+
+    private static RefreshTokenEntity testRefreshToken(UserEntity user, Duration remainingLifetime) {
+        return RefreshTokenEntity.builder()
+                .id(7L)
+                .tokenHash("#tokenHash")
+                .user(user)
+                .createdAt(TestTimeConfig.NOW.minus(Duration.ofDays(1)))
+                .expiresAt(TestTimeConfig.NOW.plus(remainingLifetime))
+                .build();
+    }
+
     private static UserEntity testUserEntity(Consumer<UserEntity.Builder> overrides) {
         var builder = UserEntity.builder()
                 .id(666L)
@@ -0,0 +1,53 @@
+package com.necrock.readingtracker.common;
+
+import com.necrock.readingtracker.readingitem.common.ReadingItemType;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@DataJpaTest
+@Import(IdSequenceAligner.class)
+class IdSequenceAlignerTest {
+
+    @Autowired
+    private IdSequenceAligner aligner;
+
+    @Autowired
+    private ReadingItemRepository readingItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void afterSingletonsInstantiated_withRowsAheadOfSequence_generatesIdsAfterExistingRows() {
+        jdbcTemplate.update("INSERT INTO items (id, title, type) VALUES (?, ?, ?)", 1000L, "legacy", "BOOK");
+
+        aligner.afterSingletonsInstantiated();
+        var savedReadingItem = readingItemRepository.saveAndFlush(ReadingItemEntity.builder()
+                .title("title")
+                .type(ReadingItemType.BOOK)
+                .build());
+
+        assertThat(savedReadingItem.getId()).isGreaterThan(1000L);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_withSequenceAheadOfRows_leavesSequence() {
+        var nextValue = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PROGRESS_ID_SEQ'",
+                Long.class);
+
+        aligner.afterSingletonsInstantiated();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PROGRESS_ID_SEQ'",
+                Long.class))
+                .isEqualTo(nextValue);
+    }
+}
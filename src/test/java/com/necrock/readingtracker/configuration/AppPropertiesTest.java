@@ -63,4 +63,16 @@ class AppPropertiesTest {
                 assertThat(context.getStartupFailure())
                         .hasRootCauseInstanceOf(BindValidationException.class));
     }
+
+    @Test
+    void appProperties_withPasswordHashCostAboveBcryptMaximum_throwsValidationError() {
+        var properties = validProperties();
+        properties.put("app.passwordHashCost", "32");
+
+        var contextRunner = contextRunner(properties);
+
+        contextRunner.run(context ->
+                assertThat(context.getStartupFailure())
+                        .hasRootCauseInstanceOf(BindValidationException.class));
+    }
 }
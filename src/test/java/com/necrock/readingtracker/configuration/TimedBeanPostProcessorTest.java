@@ -0,0 +1,81 @@
+package com.necrock.readingtracker.configuration;
+
+import com.necrock.readingtracker.common.SafeRepository;
+import com.necrock.readingtracker.exception.NotFoundException;
+import com.necrock.readingtracker.testsupport.configuration.TestTimeConfig;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@Import(TestTimeConfig.class)
+@SpringBootTest
+class TimedBeanPostProcessorTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private UserRepository repository;
+
+    @Test
+    void timedService_recordsCallTaggedWithClassAndMethod() {
+        when(repository.findById(41L)).thenReturn(Optional.of(UserEntity.builder().id(41L).username("user").build()));
+        var before = serviceTimerCount("getUser", "none");
+
+        userService.getUser(41L);
+
+        assertThat(serviceTimerCount("getUser", "none")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void timedService_withException_recordsCallTaggedWithException() {
+        when(repository.findById(42L)).thenReturn(Optional.empty());
+        var before = serviceTimerCount("getUser", "NotFoundException");
+
+        assertThatThrownBy(() -> userService.getUser(42L)).isInstanceOf(NotFoundException.class);
+
+        assertThat(serviceTimerCount("getUser", "NotFoundException")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void safeRepository_recordsOperationTaggedWithEntityType() {
+        when(repository.findById(43L)).thenReturn(Optional.empty());
+        var before = repositoryTimerCount("findById");
+
+        assertThatThrownBy(() -> userService.getUser(43L)).isInstanceOf(NotFoundException.class);
+
+        assertThat(repositoryTimerCount("findById")).isEqualTo(before + 1);
+    }
+
+    private long serviceTimerCount(String method, String exception) {
+        var timer = meterRegistry.find("service.call")
+                .tag("class", "UserService")
+                .tag("method", method)
+                .tag("exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long repositoryTimerCount(String operation) {
+        var timer = meterRegistry.find(SafeRepository.OPERATION_TIMER)
+                .tag("entity", "UserEntity")
+                .tag("operation", operation)
+                .tag("exception", "none")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
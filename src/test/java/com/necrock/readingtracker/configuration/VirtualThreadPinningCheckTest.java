@@ -0,0 +1,150 @@
+package com.necrock.readingtracker.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.necrock.readingtracker.testsupport.configuration.AppPropertiesTestSupport.contextRunner;
+import static com.necrock.readingtracker.testsupport.configuration.AppPropertiesTestSupport.validProperties;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(OutputCaptureExtension.class)
+class VirtualThreadPinningCheckTest {
+
+    private static final String PROPERTY_VIRTUAL_THREADS = "spring.threads.virtual.enabled";
+    private static final String PROPERTY_FAIL_ON_PINNING = "app.failOnVirtualThreadPinning";
+
+    private final Object monitor = new Object();
+
+    @Test
+    void findPinnedStacks_withBlockingInsideSynchronized_reportsBlockingStack() {
+        var pinnedStacks = VirtualThreadPinningCheck.findPinnedStacks(this::sleepInsideSynchronized, 4);
+
+        assertThat(pinnedStacks).isNotEmpty();
+        assertThat(pinnedStacks).anySatisfy(stack -> assertThat(stack).contains("sleepInsideSynchronized"));
+    }
+
+    @Test
+    void findPinnedStacks_withBlockingUnderReentrantLock_reportsNothing() {
+        var lock = new ReentrantLock();
+
+        var pinnedStacks = VirtualThreadPinningCheck.findPinnedStacks(() -> {
+            lock.lock();
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }, 4);
+
+        assertThat(pinnedStacks).isEmpty();
+    }
+
+    @Test
+    void check_withPlatformThreads_isNotCreated() {
+        contextRunner(validProperties())
+                .withBean(DataSource.class, () -> mock(DataSource.class))
+                .withUserConfiguration(VirtualThreadPinningCheck.class)
+                .run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningCheck.class));
+    }
+
+    @Test
+    void check_withVirtualThreadsAndPinningDriver_warnsByDefault(CapturedOutput output) {
+        var properties = validProperties();
+        properties.put(PROPERTY_VIRTUAL_THREADS, "true");
+
+        contextRunner(properties)
+                .withBean(DataSource.class, this::pinningDataSource)
+                .withUserConfiguration(VirtualThreadPinningCheck.class)
+                .run(context -> assertThat(context).hasSingleBean(VirtualThreadPinningCheck.class));
+
+        assertThat(output).contains("WARN");
+        assertThat(output).contains("Virtual threads were pinned to their carrier on the JDBC path");
+        assertThat(output).contains("sleepInsideSynchronized");
+    }
+
+    @Test
+    void check_withVirtualThreadsAndPinningDriver_failsStartupWhenConfigured() {
+        var properties = validProperties();
+        properties.put(PROPERTY_VIRTUAL_THREADS, "true");
+        properties.put(PROPERTY_FAIL_ON_PINNING, "true");
+
+        contextRunner(properties)
+                .withBean(DataSource.class, this::pinningDataSource)
+                .withUserConfiguration(VirtualThreadPinningCheck.class)
+                .run(context -> assertThat(context.getStartupFailure())
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("sleepInsideSynchronized"));
+    }
+
+    @Test
+    void check_withVirtualThreads_logsPinningAfterStartup(CapturedOutput output) {
+        var properties = validProperties();
+        properties.put(PROPERTY_VIRTUAL_THREADS, "true");
+
+        contextRunner(properties)
+                .withBean(DataSource.class, this::dataSource)
+                .withUserConfiguration(VirtualThreadPinningCheck.class)
+                .run(context -> {
+                    Thread.ofVirtual().start(() -> sleepInsideSynchronized(Duration.ofMillis(50))).join();
+
+                    await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(output)
+                            .contains("A virtual thread was pinned to its carrier")
+                            .contains("sleepInsideSynchronized"));
+                });
+    }
+
+    private DataSource dataSource() {
+        try {
+            var connection = mock(Connection.class);
+            when(connection.createStatement()).thenReturn(mock(Statement.class));
+            var dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            return dataSource;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private DataSource pinningDataSource() {
+        try {
+            var statement = mock(Statement.class);
+            var connection = mock(Connection.class);
+            when(connection.createStatement()).thenReturn(statement);
+            var dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenAnswer(invocation -> {
+                sleepInsideSynchronized();
+                return connection;
+            });
+            return dataSource;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void sleepInsideSynchronized() {
+        sleepInsideSynchronized(Duration.ofMillis(5));
+    }
+
+    private void sleepInsideSynchronized(Duration duration) {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
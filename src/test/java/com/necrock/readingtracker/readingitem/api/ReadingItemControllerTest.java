@@ -1,9 +1,13 @@
 package com.necrock.readingtracker.readingitem.api;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.necrock.readingtracker.readingitem.api.dto.CreateReadingItemRequest;
 import com.necrock.readingtracker.readingitem.api.dto.ReadingItemDetailsDto;
 import com.necrock.readingtracker.readingitem.api.dto.UpdateReadingItemRequest;
+import com.necrock.readingtracker.readingprogress.api.dto.CreateReadingProgressRequest;
+import com.necrock.readingtracker.testsupport.readingProgress.ReadingProgressTestClient;
 import com.necrock.readingtracker.testsupport.readingitem.ReadingItemTestClient;
+import com.necrock.readingtracker.testsupport.user.TestUserFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -11,19 +15,34 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.necrock.readingtracker.readingitem.api.ReadingItemImportParser.TEXT_CSV;
 import static com.necrock.readingtracker.readingitem.common.ReadingItemType.BOOK;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-@Import(ReadingItemTestClient.Config.class)
+@Import({ReadingItemTestClient.Config.class, ReadingProgressTestClient.Config.class})
 class ReadingItemControllerTest {
 
     @Autowired
     ReadingItemTestClient testClient;
 
+    @Autowired
+    ReadingProgressTestClient readingProgressTestClient;
+
+    @Autowired
+    TestUserFactory testUserFactory;
+
     @Test
     void createReadingItem_returns201Created() throws Exception {
         var createReadingItem = CreateReadingItemRequest.builder()
@@ -213,6 +232,29 @@ class ReadingItemControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void deleteReadingItem_withReadingProgress_deletesReadingProgress() throws Exception {
+        var createReadingItem = CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .totalChapters(30)
+                .build();
+        var createResult = testClient.addReadingItem(createReadingItem);
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+        var reader = testUserFactory.createUser("reader");
+        readingProgressTestClient.runAsUser(reader)
+                .addReadingProgress(CreateReadingProgressRequest.builder().readingItemId(id).lastReadChapter(3).build())
+                .andExpect(status().isCreated());
+
+        testClient.deleteReadingItem(id)
+                .andExpect(status().isNoContent());
+
+        readingProgressTestClient.runAsUser(reader)
+                .getReadingProgress(id)
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void deleteReadingItem_withUnknownId_returns404NotFound() throws Exception {
         testClient.deleteReadingItem(98765)
@@ -289,10 +331,348 @@ class ReadingItemControllerTest {
                 .andExpect(jsonPath("$.message").value("No reading item with id " + id));
     }
 
+    @Test
+    void getReadingItem_withCurrentETag_returns304NotModified() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+        var etag = testClient.getReadingItem(id).andReturn().getResponse().getHeader("ETag");
+
+        testClient.getReadingItem(id, etag)
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getReadingItem_withETagBeforeUpdate_returns200Ok() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+        var etag = testClient.getReadingItem(id).andReturn().getResponse().getHeader("ETag");
+        testClient.runAsAdmin()
+                .updateReadingItem(id, UpdateReadingItemRequest.builder().totalChapters(30).build())
+                .andExpect(status().isOk());
+
+        testClient.getReadingItem(id, etag)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.totalChapters").value(30));
+    }
+
+    @Test
+    void updateReadingItem_withCurrentETag_returnsNextETag() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+        var etag = testClient.getReadingItem(id).andReturn().getResponse().getHeader("ETag");
+
+        var newEtag = testClient.runAsAdmin()
+                .updateReadingItem(id, etag, UpdateReadingItemRequest.builder().totalChapters(30).build())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        testClient.getReadingItem(id, newEtag)
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateReadingItem_withOutdatedETag_returns409Conflict() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+        var etag = testClient.getReadingItem(id).andReturn().getResponse().getHeader("ETag");
+        testClient.runAsAdmin()
+                .updateReadingItem(id, etag, UpdateReadingItemRequest.builder().totalChapters(30).build())
+                .andExpect(status().isOk());
+
+        testClient.runAsAdmin()
+                .updateReadingItem(id, etag, UpdateReadingItemRequest.builder().totalChapters(40).build())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.type").value("CONFLICT_ERROR"));
+        testClient.getReadingItem(id)
+                .andExpect(jsonPath("$.totalChapters").value(30));
+    }
+
+    @Test
+    void updateReadingItem_withInvalidIfMatch_returns400BadRequest() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+
+        testClient.runAsAdmin()
+                .updateReadingItem(id, "W/\"1\"", UpdateReadingItemRequest.builder().totalChapters(30).build())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void getAllItems_withCurrentETag_returns304NotModified() throws Exception {
+        var etag = testClient.listReadingItems().andReturn().getResponse().getHeader("ETag");
+
+        testClient.listReadingItems(etag)
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllItems_withETagBeforeAdd_returns200Ok() throws Exception {
+        var etag = testClient.listReadingItems().andReturn().getResponse().getHeader("ETag");
+        testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Clean Architecture")
+                .author("Robert C. Martin")
+                .type(BOOK)
+                .build());
+
+        testClient.listReadingItems(etag)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
     @Test
     void getAllItems_returnsAllReadingItems() throws Exception {
         testClient.listReadingItems()
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray());
     }
+
+    @Test
+    void getAllItems_withPageSize_returnsEveryItemExactlyOnceAcrossPages() throws Exception {
+        var createdIds = new HashSet<Long>();
+        for (var title : List.of("Paged A", "Paged B", "Paged C")) {
+            var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                    .title(title)
+                    .author("Robert C. Martin")
+                    .type(BOOK)
+                    .build());
+            createdIds.add(testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId());
+        }
+
+        var listedIds = new ArrayList<Long>();
+        String pageToken = null;
+        do {
+            var result = testClient.listReadingItems("TITLE", 2, pageToken)
+                    .andExpect(status().isOk());
+            var page = testClient.parseResponse(result, new TypeReference<List<ReadingItemDetailsDto>>() {});
+            assertThat(page.size()).isLessThanOrEqualTo(2);
+            page.forEach(item -> listedIds.add(item.getId()));
+            pageToken = result.andReturn().getResponse().getHeader(ReadingItemController.NEXT_PAGE_TOKEN_HEADER);
+        } while (pageToken != null);
+
+        assertThat(listedIds).doesNotHaveDuplicates();
+        assertThat(listedIds).containsAll(createdIds);
+    }
+
+    @Test
+    void getAllItems_withTooLargePageSize_returns400BadRequest() throws Exception {
+        testClient.listReadingItems("CREATED_AT", 1000, null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void getAllItems_withInvalidPageToken_returns400BadRequest() throws Exception {
+        testClient.listReadingItems("CREATED_AT", 10, "not-a-token")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.message").value("Invalid page token"));
+    }
+
+    @Test
+    void getAllItems_withUnknownSort_returns400BadRequest() throws Exception {
+        testClient.listReadingItems("AUTHOR", 10, null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void importItems_withCsv_importsEveryRow() throws Exception {
+        var csv = """
+                title,author,type,totalChapters
+                Clean Architecture,Robert C. Martin,BOOK,30
+                "Refactoring, Second Edition",Martin Fowler,BOOK,
+                "A ""quoted""
+                title",Someone,ARTICLE,1
+                """;
+
+        testClient.importReadingItems(TEXT_CSV, csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(3))
+                .andExpect(jsonPath("$.failedCount").value(0))
+                .andExpect(jsonPath("$.failures").isEmpty());
+    }
+
+    @Test
+    void importItems_withTooLongQuotedCsvValue_skipsRestOfValue() throws Exception {
+        var csv = """
+                title,author,type,totalChapters
+                "%s
+                Not a record,Someone,BOOK,1
+                end of title",Someone,ARTICLE,1
+                Clean Code,Robert C. Martin,BOOK,17
+                """.formatted("x".repeat(ReadingItemImportParser.MAX_RECORD_LENGTH));
+
+        testClient.importReadingItems(TEXT_CSV, csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(1))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.failures[0].line").value(2))
+                .andExpect(jsonPath("$.failures[0].message").value(
+                        "Record is longer than %d characters".formatted(ReadingItemImportParser.MAX_RECORD_LENGTH)));
+    }
+
+    @Test
+    void importItems_withInvalidNdjsonLines_reportsFailuresAndImportsOtherLines() throws Exception {
+        var ndjson = """
+                {"title":"Clean Architecture","author":"Robert C. Martin","type":"BOOK"}
+                {"author":"Robert C. Martin","type":"BOOK"}
+
+                {"title":
+                {"title":"Clean Code","author":"Robert C. Martin","type":"POEM"}
+                """;
+
+        testClient.importReadingItems(APPLICATION_NDJSON, ndjson)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(1))
+                .andExpect(jsonPath("$.failedCount").value(3))
+                .andExpect(jsonPath("$.failures[0].line").value(2))
+                .andExpect(jsonPath("$.failures[0].details.title").value("Title is required"))
+                .andExpect(jsonPath("$.failures[1].line").value(4))
+                .andExpect(jsonPath("$.failures[1].message").value("Malformed JSON"))
+                .andExpect(jsonPath("$.failures[2].line").value(5))
+                .andExpect(jsonPath("$.failures[2].message").value("Invalid value for 'type'"));
+    }
+
+    @Test
+    void importItems_withItemRefusedByDatabase_importsOtherItemsOfChunk() throws Exception {
+        var ndjson = """
+                {"title":"Clean Architecture","author":"Robert C. Martin","type":"BOOK"}
+                {"title":"%s","author":"Robert C. Martin","type":"BOOK"}
+                {"title":"Clean Code","author":"Robert C. Martin","type":"BOOK"}
+                """.formatted("x".repeat(300));
+
+        testClient.importReadingItems(APPLICATION_NDJSON, ndjson)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.failures[0].line").value(2))
+                .andExpect(jsonPath("$.failures[0].message").value("Reading item could not be saved"));
+    }
+
+    @Test
+    void importItems_withUnknownCsvColumn_returns400BadRequest() throws Exception {
+        var csv = """
+                title,author,type,isbn
+                Clean Architecture,Robert C. Martin,BOOK,9780134494166
+                """;
+
+        testClient.importReadingItems(TEXT_CSV, csv)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void searchItems_returnsMatchingReadingItemsTitleMatchesFirst() throws Exception {
+        testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Notes on Zweig")
+                .author("Ellis Ørsted")
+                .type(BOOK)
+                .build());
+        testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Chess")
+                .author("Stefan Zweig")
+                .type(BOOK)
+                .build());
+        testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Zweihänder drills")
+                .author("Someone Else")
+                .type(BOOK)
+                .build());
+
+        testClient.searchReadingItems("zweig")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Notes on Zweig"))
+                .andExpect(jsonPath("$[1].title").value("Chess"));
+    }
+
+    @Test
+    void searchItems_afterUpdate_findsNewTitleOnly() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Quixotic draft")
+                .author("Anonymous")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+
+        testClient.updateReadingItem(id, UpdateReadingItemRequest.builder().title("Quarrelsome final").build());
+
+        testClient.searchReadingItems("quixotic")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        testClient.searchReadingItems("quarrel")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id));
+    }
+
+    @Test
+    void searchItems_withBlankQuery_returns400BadRequest() throws Exception {
+        testClient.searchReadingItems(" ")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void suggestItems_returnsItemsStartingWithPrefix() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Xenogenesis")
+                .author("Octavia E. Butler")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+
+        testClient.suggestReadingItems("xenog")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].title").value("Xenogenesis"))
+                .andExpect(jsonPath("$[0].author").value("Octavia E. Butler"));
+    }
+
+    @Test
+    void suggestItems_afterDelete_doesNotSuggestItem() throws Exception {
+        var createResult = testClient.addReadingItem(CreateReadingItemRequest.builder()
+                .title("Yesteryear almanac")
+                .author("Anonymous")
+                .type(BOOK)
+                .build());
+        long id = testClient.parseResponse(createResult, ReadingItemDetailsDto.class).getId();
+
+        testClient.deleteReadingItem(id);
+
+        testClient.suggestReadingItems("yesteryear")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void suggestItems_withBlankPrefix_returns400BadRequest() throws Exception {
+        testClient.suggestReadingItems("")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.type").value("VALIDATION_ERROR"));
+    }
 }
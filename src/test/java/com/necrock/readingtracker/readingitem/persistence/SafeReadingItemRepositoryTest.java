@@ -9,7 +9,9 @@ import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @Transactional(propagation = Propagation.NOT_SUPPORTED)
 @DataJpaTest
@@ -90,4 +92,30 @@ class SafeReadingItemRepositoryTest {
         assertThat(foundItem.getType()).isEqualTo(type);
         assertThat(foundItem.getTotalChapters()).isEqualTo(numChapters);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findPageByCreatedAtAfter_withTiedCreatedAt_continuesById() {
+        var createdAt = Instant.parse("2020-01-01T00:00:00Z");
+        var first = repository.save(ReadingItemEntity.builder().title("b").createdAt(createdAt).build());
+        var second = repository.save(ReadingItemEntity.builder().title("a").createdAt(createdAt).build());
+        var third = repository.save(
+                ReadingItemEntity.builder().title("c").createdAt(createdAt.plusSeconds(1)).build());
+
+        var page = repository.findPageByCreatedAtAfter(first.getCreatedAt(), first.getId(), 10);
+
+        assertThat(page).extracting(ReadingItemEntity::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    void findPageByTitleAfter_returnsItemsAfterTitleInOrder() {
+        var itemA = repository.save(ReadingItemEntity.builder().title("a").build());
+        var itemC = repository.save(ReadingItemEntity.builder().title("c").build());
+        var itemB = repository.save(ReadingItemEntity.builder().title("b").build());
+
+        var firstPage = repository.findFirstPageByTitle(2);
+        var nextPage = repository.findPageByTitleAfter(itemB.getTitle(), itemB.getId(), 2);
+
+        assertThat(firstPage).extracting(ReadingItemEntity::getId).containsExactly(itemA.getId(), itemB.getId());
+        assertThat(nextPage).extracting(ReadingItemEntity::getId).containsExactly(itemC.getId());
+    }
+}
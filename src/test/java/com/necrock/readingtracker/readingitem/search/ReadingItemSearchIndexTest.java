@@ -0,0 +1,93 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadingItemSearchIndexTest {
+
+    private final ReadingItemSearchIndex index = new ReadingItemSearchIndex();
+
+    @Test
+    void search_ignoresCaseAndAccents() {
+        index.put(1L, "Les Misérables", "Victor Hugo");
+
+        assertThat(index.search("MISERABLES", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_matchesPrefixesOfTerms() {
+        index.put(1L, "Clean Architecture", "Robert C. Martin");
+        index.put(2L, "Clean Code", "Robert C. Martin");
+
+        assertThat(index.search("clea arch", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_requiresAllQueryTermsToMatch() {
+        index.put(1L, "Clean Architecture", "Robert C. Martin");
+        index.put(2L, "Refactoring", "Martin Fowler");
+
+        assertThat(index.search("martin fowler", 10)).containsExactly(2L);
+        assertThat(index.search("clean fowler", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ranksTitleAboveAuthorAndWholeTermsAbovePrefixes() {
+        index.put(1L, "Something", "Dune Herbert");
+        index.put(2L, "Dunes of Arrakis", "Someone");
+        index.put(3L, "Dune", "Frank Herbert");
+
+        assertThat(index.search("dune", 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void search_withEqualScores_ranksLowerIdFirst() {
+        index.put(3L, "Dune", "Frank Herbert");
+        index.put(1L, "Dune", "Frank Herbert");
+        index.put(2L, "Dune", "Frank Herbert");
+
+        assertThat(index.search("dune", 10)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void search_returnsAtMostLimitIds() {
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, "Volume " + id, "Author");
+        }
+
+        assertThat(index.search("volume", 5)).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void search_afterRemove_doesNotFindItem() {
+        index.put(1L, "Clean Architecture", "Robert C. Martin");
+        index.put(2L, "Clean Code", "Robert C. Martin");
+
+        index.remove(1L);
+
+        assertThat(index.search("clean", 10)).containsExactly(2L);
+        assertThat(index.search("architecture", 10)).isEmpty();
+    }
+
+    @Test
+    void search_afterPutWithNewTitle_findsNewTitleOnly() {
+        index.put(1L, "Clean Architecture", "Robert C. Martin");
+
+        index.put(1L, "Clean Code", "Robert C. Martin");
+
+        assertThat(index.search("code", 10)).containsExactly(1L);
+        assertThat(index.search("architecture", 10)).isEmpty();
+        assertThat(index.search("clean", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_withRareAndCommonTerms_findsIntersection() {
+        for (long id = 1; id <= 5_000; id++) {
+            index.put(id, "Common title " + id, "Prolific author");
+        }
+        index.put(6_000L, "Common rarity", "Prolific author");
+
+        assertThat(index.search("prolific rarity common", 10)).containsExactly(6_000L);
+    }
+}
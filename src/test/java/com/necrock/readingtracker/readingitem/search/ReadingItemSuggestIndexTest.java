@@ -0,0 +1,147 @@
+package com.necrock.readingtracker.readingitem.search;
+
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadingItemSuggestIndexTest {
+
+    private final ReadingItemSuggestIndex index = new ReadingItemSuggestIndex();
+
+    @Test
+    void suggest_matchesStartOfTitleOrAuthor() {
+        index.put(1L, "Clean Architecture", "Robert C. Martin");
+        index.put(2L, "Refactoring", "Martin Fowler");
+
+        assertThat(ids(index.suggest("mart", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("clean a", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("architecture", 10))).isEmpty();
+    }
+
+    @Test
+    void suggest_ignoresCaseAccentsAndPunctuation() {
+        index.put(1L, "Les Misérables", "Victor Hugo");
+
+        assertThat(index.suggest("LES-MISERA", 10))
+                .containsExactly(new ReadingItemSuggestion(1L, "Les Misérables", "Victor Hugo"));
+    }
+
+    @Test
+    void suggest_ranksMostReadFirst() {
+        index.put(1L, "Dune", "Frank Herbert", 3);
+        index.put(2L, "Dune Messiah", "Frank Herbert", 7);
+        index.put(3L, "Dunes of Arrakis", "Someone", 5);
+
+        assertThat(ids(index.suggest("dune", 10))).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void suggest_afterAddReaders_reranks() {
+        index.put(1L, "Dune", "Frank Herbert", 3);
+        index.put(2L, "Dune Messiah", "Frank Herbert", 7);
+
+        index.addReaders(1L, 5);
+
+        assertThat(ids(index.suggest("dun", 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void suggest_withTitleAndAuthorMatching_returnsItemOnce() {
+        index.put(1L, "Herbert's Notebook", "Herbert West");
+
+        assertThat(ids(index.suggest("herbert", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void suggest_returnsAtMostLimitItems() {
+        for (long id = 1; id <= 30; id++) {
+            index.put(id, "Volume " + id, "Author", id);
+        }
+
+        assertThat(ids(index.suggest("vol", 3))).containsExactly(30L, 29L, 28L);
+        assertThat(ids(index.suggest("volume 1", 10)))
+                .containsExactly(19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L, 11L, 10L);
+    }
+
+    @Test
+    void suggest_afterPut_findsNewTitleOnlyAndKeepsReaders() {
+        index.put(1L, "Old title", "Author", 4);
+        index.put(2L, "Other title", "Someone", 2);
+
+        index.put(1L, "New title", "Author");
+
+        assertThat(ids(index.suggest("old", 10))).isEmpty();
+        assertThat(ids(index.suggest("new", 10))).containsExactly(1L);
+        index.put(3L, "New edition", "Else", 3);
+        assertThat(ids(index.suggest("new", 10))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void suggest_afterRemove_keepsOtherItemsReachable() {
+        index.put(1L, "Test", "A");
+        index.put(2L, "Testing", "B");
+        index.put(3L, "Tester", "C");
+        index.put(4L, "Team", "D");
+
+        index.remove(2L);
+        index.remove(4L);
+
+        assertThat(ids(index.suggest("te", 10))).containsExactly(1L, 3L);
+        assertThat(ids(index.suggest("tester", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("testi", 10))).isEmpty();
+
+        index.remove(1L);
+
+        assertThat(ids(index.suggest("test", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void suggest_afterRandomChanges_matchesFullScan() {
+        var random = new Random(7);
+        var words = List.of("a", "ab", "abc", "b", "ba", "bab", "abba", "c");
+        Map<Long, String> titles = new HashMap<>();
+        Map<Long, Long> readers = new HashMap<>();
+        for (int step = 0; step < 2_000; step++) {
+            var id = (long) random.nextInt(40);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    var title = words.get(random.nextInt(words.size())) + " " + words.get(random.nextInt(words.size()));
+                    index.put(id, title, null);
+                    titles.put(id, title);
+                    readers.putIfAbsent(id, 0L);
+                }
+                case 1 -> {
+                    index.remove(id);
+                    titles.remove(id);
+                    readers.remove(id);
+                }
+                default -> {
+                    index.addReaders(id, 1);
+                    readers.computeIfPresent(id, (key, count) -> count + 1);
+                }
+            }
+        }
+
+        for (var prefix : List.of("a", "ab", "abb", "b", "ba", "c", "a a", "bab c")) {
+            var expected = titles.keySet().stream()
+                    .filter(id -> titles.get(id).startsWith(prefix))
+                    .sorted(Comparator.<Long>comparingLong(readers::get).reversed().thenComparing(id -> id))
+                    .limit(ReadingItemSuggestIndex.MAX_SUGGESTIONS)
+                    .toList();
+            assertThat(ids(index.suggest(prefix, ReadingItemSuggestIndex.MAX_SUGGESTIONS)))
+                    .as("prefix '%s'", prefix)
+                    .isEqualTo(expected);
+        }
+    }
+
+    private static List<Long> ids(List<ReadingItemSuggestion> suggestions) {
+        return suggestions.stream().map(ReadingItemSuggestion::id).toList();
+    }
+}
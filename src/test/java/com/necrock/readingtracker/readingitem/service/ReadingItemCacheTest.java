@@ -0,0 +1,124 @@
+package com.necrock.readingtracker.readingitem.service;
+
+import com.necrock.readingtracker.exception.NotFoundException;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
+import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.testsupport.configuration.TestTimeConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.necrock.readingtracker.readingitem.common.ReadingItemType.BOOK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Import(TestTimeConfig.class)
+@SpringBootTest
+class ReadingItemCacheTest {
+
+    @Autowired
+    private ReadingItemService service;
+    @Autowired
+    private ReadingItemCache cache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private ReadingItemRepository repository;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll();
+    }
+
+    @Test
+    void getReadingItem_calledTwice_loadsReadingItemOnce() {
+        when(repository.findById(1L)).thenReturn(Optional.of(testEntity(1L, "Dune")));
+
+        service.getReadingItem(1L);
+        var result = service.getReadingItem(1L);
+
+        assertThat(result.getTitle()).isEqualTo("Dune");
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getReadingItem_afterUpdate_returnsUpdatedReadingItemWithoutReloading() {
+        when(repository.findById(2L)).thenReturn(Optional.of(testEntity(2L, "Dune")));
+        when(repository.updateIfVersionMatches(any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        service.getReadingItem(2L);
+        service.updateReadingItem(2L, ReadingItem.builder().title("Dune Messiah").build());
+        var result = service.getReadingItem(2L);
+
+        assertThat(result.getTitle()).isEqualTo("Dune Messiah");
+        verify(repository, times(1)).findById(2L);
+    }
+
+    @Test
+    void getReadingItem_afterDelete_throwsNotFoundException() {
+        when(repository.findById(3L)).thenReturn(Optional.of(testEntity(3L, "Dune")));
+
+        service.getReadingItem(3L);
+        service.deleteReadingItem(3L);
+        when(repository.findById(3L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getReadingItem(3L)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void getReadingItems_loadsOnlyUncachedReadingItems() {
+        when(repository.findById(4L)).thenReturn(Optional.of(testEntity(4L, "Dune")));
+        when(repository.findAllById(List.of(5L))).thenReturn(List.of(testEntity(5L, "Dune Messiah")));
+
+        service.getReadingItem(4L);
+        var result = service.getReadingItems(List.of(4L, 5L));
+
+        assertThat(result.keySet()).containsExactlyInAnyOrder(4L, 5L);
+        verify(repository, times(1)).findAllById(List.of(5L));
+    }
+
+    @Test
+    void getReadingItem_publishesHitAndMissMetrics() {
+        when(repository.findById(6L)).thenReturn(Optional.of(testEntity(6L, "Dune")));
+        var hits = cacheGets("hit");
+        var misses = cacheGets("miss");
+
+        service.getReadingItem(6L);
+        service.getReadingItem(6L);
+
+        assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+        assertThat(cacheGets("miss")).isEqualTo(misses + 1);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", ReadingItemCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private static ReadingItemEntity testEntity(long id, String title) {
+        return ReadingItemEntity.builder()
+                .id(id)
+                .title(title)
+                .author("Frank Herbert")
+                .type(BOOK)
+                .createdAt(TestTimeConfig.NOW)
+                .version(0L)
+                .build();
+    }
+}
@@ -2,25 +2,37 @@ package com.necrock.readingtracker.readingitem.service;
 
 import com.google.common.collect.ImmutableList;
 import com.necrock.readingtracker.testsupport.configuration.TestTimeConfig;
+import com.necrock.readingtracker.exception.BadRequestException;
+import com.necrock.readingtracker.exception.ConflictException;
 import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
 import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemCursor;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportFailure;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItemImportRecord;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import static com.necrock.readingtracker.readingitem.common.ReadingItemSort.CREATED_AT;
+import static com.necrock.readingtracker.readingitem.common.ReadingItemSort.TITLE;
 import static com.necrock.readingtracker.readingitem.common.ReadingItemType.ARTICLE;
 import static com.necrock.readingtracker.readingitem.common.ReadingItemType.BOOK;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,23 +40,61 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 class ReadingItemServiceTest {
 
+    private static long nextId = 1000L;
+
     @Autowired
     private ReadingItemService service;
+    @Autowired
+    private ReadingItemCache cache;
 
     @MockitoBean
     private ReadingItemRepository repository;
 
+    @BeforeEach
+    void clearReadingItemCache() {
+        // The cache outlives the repository mocks, which every test stubs anew
+        cache.invalidateAll();
+    }
+
+    @Test
+    void getReadingItemPage_withMoreItemsThanPageSize_returnsNextCursor() {
+        ReadingItemEntity item1 = testReadingItemEntity(ri -> ri.id(1L).title("Book 1"));
+        ReadingItemEntity item2 = testReadingItemEntity(ri -> ri.id(2L).title("Book 2"));
+        ReadingItemEntity item3 = testReadingItemEntity(ri -> ri.id(3L).title("Book 3"));
+        when(repository.findFirstPageByTitle(Limit.of(3))).thenReturn(ImmutableList.of(item1, item2, item3));
+
+        var result = service.getReadingItemPage(TITLE, null, 2);
+
+        assertThat(result.items()).hasSize(2);
+        assertThat(result.items().get(0).getId()).isEqualTo(1L);
+        assertThat(result.items().get(1).getId()).isEqualTo(2L);
+        assertThat(result.nextCursor()).contains(new ReadingItemCursor(TITLE, null, "Book 2", 2L));
+    }
+
+    @Test
+    void getReadingItemPage_withLastPage_returnsNoNextCursor() {
+        ReadingItemEntity item = testReadingItemEntity(ri -> ri.id(3L).title("Book 3"));
+        when(repository.findPageByTitleAfter("Book 2", 2L, Limit.of(3))).thenReturn(ImmutableList.of(item));
+
+        var result = service.getReadingItemPage(TITLE, new ReadingItemCursor(TITLE, null, "Book 2", 2L), 2);
+
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.nextCursor()).isEmpty();
+    }
+
     @Test
-    void getAllReadingItems_returnsAllReadingItems() {
-        ReadingItemEntity item1 = ReadingItemEntity.builder().id(1L).title("Book 1").type(BOOK).build();
-        ReadingItemEntity item2 = ReadingItemEntity.builder().id(2L).title("Book 2").type(BOOK).build();
-        when(repository.findAll()).thenReturn(ImmutableList.of(item1, item2));
+    void getReadingItemPage_withTooLargePageSize_throwsBadRequestException() {
+        assertThatThrownBy(() -> service.getReadingItemPage(CREATED_AT, null, ReadingItemService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(BadRequestException.class);
+    }
 
-        var result = service.getAllReadingItems();
+    @Test
+    void getReadingItemPage_withCursorForOtherSort_throwsBadRequestException() {
+        var cursor = new ReadingItemCursor(TITLE, null, "Book 2", 2L);
 
-        assertThat(result).hasSize(2);
-        assertThat(result).anySatisfy(item -> assertReadingItemMatchesEntity(item, item1));
-        assertThat(result).anySatisfy(item -> assertReadingItemMatchesEntity(item, item2));
+        assertThatThrownBy(() -> service.getReadingItemPage(CREATED_AT, cursor, 2))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Page token does not match the requested sort order");
     }
 
     @Test
@@ -55,6 +105,7 @@ class ReadingItemServiceTest {
                 .type(BOOK)
                 .totalChapters(69)
                 .build();
+        when(repository.save(any(ReadingItemEntity.class))).thenAnswer(ReadingItemServiceTest::saveWithNewId);
 
         service.addReadingItem(toSaveReadingItem);
 
@@ -69,6 +120,27 @@ class ReadingItemServiceTest {
         assertThat(savedReadingItemEntity.getCreatedAt()).isEqualTo(TestTimeConfig.NOW);
     }
 
+    @Test
+    void importReadingItems_savesParsedRecordsAndReportsRejectedRecords() {
+        var failure = new ReadingItemImportFailure(2, "Malformed JSON");
+        var records = ImmutableList.of(
+                ReadingItemImportRecord.parsed(1, testReadingItem(ri -> ri.id(null).title("Book 1"))),
+                ReadingItemImportRecord.rejected(failure),
+                ReadingItemImportRecord.parsed(3, testReadingItem(ri -> ri.id(null).title("Book 2"))));
+        when(repository.save(any(ReadingItemEntity.class))).thenAnswer(ReadingItemServiceTest::saveWithNewId);
+
+        var result = service.importReadingItems(records.iterator());
+
+        var captor = ArgumentCaptor.forClass(ReadingItemEntity.class);
+        verify(repository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(ReadingItemEntity::getTitle).containsExactly("Book 1", "Book 2");
+        assertThat(captor.getAllValues()).allSatisfy(
+                entity -> assertThat(entity.getCreatedAt()).isEqualTo(TestTimeConfig.NOW));
+        assertThat(result.importedCount()).isEqualTo(2);
+        assertThat(result.failedCount()).isEqualTo(1);
+        assertThat(result.failures()).containsExactly(failure);
+    }
+
     @Test
     void addReadingItem_returnsSavedReadingItem() {
         var title = "New Book";
@@ -90,12 +162,13 @@ class ReadingItemServiceTest {
     }
 
     @Test
-    void updateReadingItem_appliesChanges() {
+    void updateReadingItem_appliesChangesWithVersionedUpdate() {
         var id = 42L;
         ReadingItemEntity originalEntity =
                 testReadingItemEntity(ri -> ri
                         .id(id)
-                        .title("Old Title"));
+                        .title("Old Title")
+                        .version(3L));
         ReadingItem updateMask =
                 ReadingItem.builder()
                         .title("New Title")
@@ -103,42 +176,69 @@ class ReadingItemServiceTest {
 
         when(repository.findById(any(Long.class)))
                 .thenReturn(Optional.of(originalEntity));
+        when(repository.updateIfVersionMatches(any(), any(), any(), any(), any(), any())).thenReturn(1);
 
         service.updateReadingItem(id, updateMask);
 
-        var captor = ArgumentCaptor.forClass(ReadingItemEntity.class);
-        verify(repository).save(captor.capture());
-        ReadingItemEntity updatedEntity = captor.getValue();
-        assertThat(updatedEntity.getId()).isEqualTo(originalEntity.getId());
-        assertThat(updatedEntity.getTitle()).isEqualTo(updateMask.getTitle());
-        assertThat(updatedEntity.getType()).isEqualTo(originalEntity.getType());
-        assertThat(updatedEntity.getAuthor()).isEqualTo(originalEntity.getAuthor());
-        assertThat(updatedEntity.getTotalChapters()).isEqualTo(originalEntity.getTotalChapters());
-        assertThat(updatedEntity.getCreatedAt()).isEqualTo(originalEntity.getCreatedAt());
+        verify(repository).updateIfVersionMatches(
+                id,
+                3L,
+                updateMask.getTitle(),
+                originalEntity.getType(),
+                originalEntity.getAuthor(),
+                originalEntity.getTotalChapters());
+        verify(repository, never()).save(any(ReadingItemEntity.class));
     }
 
     @Test
-    void updateReadingItem_returnsNewlySavedReadingItem() {
+    void updateReadingItem_returnsUpdatedReadingItemWithNextVersion() {
         var id = 42L;
         ReadingItemEntity originalEntity =
                 testReadingItemEntity(ri -> ri
                         .id(id)
-                        .title("Old Title"));
+                        .title("Old Title")
+                        .version(3L));
         ReadingItem updateMask =
                 ReadingItem.builder()
                         .title("New Title")
                         .build();
-        ReadingItemEntity updatedEntity =
-                testReadingItemEntity(ri -> ri
-                        .id(id)
-                        .title("New Title"));
 
         when(repository.findById(any(Long.class))).thenReturn(Optional.of(originalEntity));
-        when(repository.save(any(ReadingItemEntity.class))).thenReturn(updatedEntity);
+        when(repository.updateIfVersionMatches(any(), any(), any(), any(), any(), any())).thenReturn(1);
 
         var result = service.updateReadingItem(id, updateMask);
 
-        assertReadingItemMatchesEntity(result, updatedEntity);
+        assertReadingItemMatchesEntity(result, originalEntity.toBuilder().title("New Title").build());
+        assertThat(result.getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void updateReadingItem_withOutdatedVersion_throwsConflictException() {
+        var id = 42L;
+        when(repository.findById(any(Long.class)))
+                .thenReturn(Optional.of(testReadingItemEntity(ri -> ri.id(id).version(3L))));
+
+        assertThatThrownBy(() -> service.updateReadingItem(id, ReadingItem.builder().title("New").version(2L).build()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Reading item 42 was changed by another update");
+        verify(repository, never()).updateIfVersionMatches(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateReadingItem_whenChangedConcurrently_retriesOnStoredReadingItem() {
+        var id = 42L;
+        when(repository.findById(any(Long.class)))
+                .thenReturn(Optional.of(testReadingItemEntity(ri -> ri.id(id).version(3L))))
+                .thenReturn(Optional.of(testReadingItemEntity(ri -> ri.id(id).author("Other").version(4L))));
+        when(repository.updateIfVersionMatches(any(), any(), any(), any(), any(), any()))
+                .thenReturn(0)
+                .thenReturn(1);
+
+        var result = service.updateReadingItem(id, ReadingItem.builder().title("New Title").build());
+
+        assertThat(result.getTitle()).isEqualTo("New Title");
+        assertThat(result.getAuthor()).isEqualTo("Other");
+        assertThat(result.getVersion()).isEqualTo(5L);
     }
 
     @Test
@@ -214,6 +314,11 @@ class ReadingItemServiceTest {
                 .hasMessage("No reading item with id " + id);
     }
 
+    private static ReadingItemEntity saveWithNewId(InvocationOnMock invocation) {
+        ReadingItemEntity entity = invocation.getArgument(0);
+        return entity.toBuilder().id(nextId++).build();
+    }
+
     private static ReadingItem testReadingItem() {
         return testReadingItem(ri -> {});
     }
@@ -235,7 +340,8 @@ class ReadingItemServiceTest {
                 .title("an article")
                 .type(ARTICLE)
                 .author("an author")
-                .totalChapters(500);
+                .totalChapters(500)
+                .version(0L);
         overrides.accept(builder);
         return builder.build();
     }
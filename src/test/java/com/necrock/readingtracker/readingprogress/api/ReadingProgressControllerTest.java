@@ -1,9 +1,17 @@
 package com.necrock.readingtracker.readingprogress.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.necrock.readingtracker.readingitem.service.ReadingItemService;
+import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
+import com.necrock.readingtracker.readingprogress.api.dto.BatchUpdateReadingProgressEntry;
+import com.necrock.readingtracker.readingprogress.api.dto.BatchUpdateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.CreateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressDetailsDto;
+import com.necrock.readingtracker.readingprogress.api.dto.ReadingProgressUpdateResultDto;
 import com.necrock.readingtracker.readingprogress.api.dto.UpdateReadingProgressRequest;
+import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
+import com.necrock.readingtracker.readingprogress.persistence.SafeReadingProgressRepository;
 import com.necrock.readingtracker.testsupport.readingProgress.ReadingProgressTestClient;
 import com.necrock.readingtracker.testsupport.readingProgress.TestReadingProgressFactory;
 import com.necrock.readingtracker.testsupport.readingitem.TestReadingItemFactory;
@@ -13,12 +21,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.CREATED;
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.NOT_FOUND;
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.UPDATED;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -42,6 +65,12 @@ class ReadingProgressControllerTest {
     TestUserFactory testUserFactory;
     @Autowired
     TestReadingItemFactory testReadingItemFactory;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ReadingItemService readingItemService;
+    @MockitoSpyBean
+    SafeReadingProgressRepository progressRepository;
 
     @Test
     void createReadingProgress_returns201Created() throws Exception {
@@ -153,6 +182,40 @@ class ReadingProgressControllerTest {
         assertThat(responseDto.getLastReadChapter()).isEqualTo(testReadingProgress.getLastReadChapter());
     }
 
+    @Test
+    void getReadingProgress_withCurrentETag_returns304NotModified() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId())
+                .andReturn().getResponse().getHeader("ETag");
+        clearInvocations(progressRepository);
+
+        testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId(), etag)
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(progressRepository, never()).findWithUserAndReadingItemByUserIdAndReadingItemId(any(), any());
+    }
+
+    @Test
+    void getReadingProgress_withETagBeforeReadingItemUpdate_returns200Ok() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId())
+                .andReturn().getResponse().getHeader("ETag");
+        readingItemService.updateReadingItem(testReadingItem.getId(), ReadingItem.builder().title("new book").build());
+
+        testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId(), etag)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.readingItem.title").value("new book"));
+    }
+
     @Test
     void getReadingProgress_withUnknownReadingItemId_returns404NotFound() throws Exception {
         testClient.runAsRegularUser()
@@ -192,6 +255,87 @@ class ReadingProgressControllerTest {
         });
     }
 
+    @Test
+    void getAllReadingProgress_withCurrentETag_returns304NotModified() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser).listReadingProgress().andReturn().getResponse().getHeader("ETag");
+
+        testClient.runAsUser(testUser)
+                .listReadingProgress(etag)
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllReadingProgress_withETagBeforeUpdate_returns200Ok() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser).listReadingProgress().andReturn().getResponse().getHeader("ETag");
+        testClient.runAsUser(testUser)
+                .updateReadingProgress(
+                        testReadingItem.getId(), UpdateReadingProgressRequest.builder().lastChapterRead(15).build())
+                .andExpect(status().isOk());
+
+        testClient.runAsUser(testUser)
+                .listReadingProgress(etag)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void getAllReadingProgress_withETagBeforeDelete_returns200Ok() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser).listReadingProgress().andReturn().getResponse().getHeader("ETag");
+        testClient.runAsUser(testUser)
+                .deleteReadingProgress(testReadingItem.getId())
+                .andExpect(status().isNoContent());
+
+        testClient.runAsUser(testUser)
+                .listReadingProgress(etag)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void exportReadingProgress_returnsOneJsonLinePerProgress() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem1 = testReadingItemFactory.createReadingItem("book", "author");
+        var testReadingProgress1 = testReadingProgressFactory.createReadingProgress(testUser, testReadingItem1);
+        var testReadingItem2 = testReadingItemFactory.createReadingItem("other book", "author");
+        var testReadingProgress2 = testReadingProgressFactory.createReadingProgress(testUser, testReadingItem2);
+
+        var response = testClient.runAsUser(testUser)
+                .exportReadingProgress()
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andReturn().getResponse();
+
+        var lines = response.getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        var progressDto1 = objectMapper.readValue(lines[0], ReadingProgressDetailsDto.class);
+        assertThat(progressDto1.getReadingItem().getId()).isEqualTo(testReadingItem1.getId());
+        assertThat(progressDto1.getReadingItem().getTitle()).isEqualTo(testReadingItem1.getTitle());
+        assertThat(progressDto1.getLastReadChapter()).isEqualTo(testReadingProgress1.getLastReadChapter());
+        var progressDto2 = objectMapper.readValue(lines[1], ReadingProgressDetailsDto.class);
+        assertThat(progressDto2.getReadingItem().getId()).isEqualTo(testReadingItem2.getId());
+        assertThat(progressDto2.getLastReadChapter()).isEqualTo(testReadingProgress2.getLastReadChapter());
+    }
+
+    @Test
+    void exportReadingProgress_withoutProgress_returnsEmptyBody() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+
+        testClient.runAsUser(testUser)
+                .exportReadingProgress()
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void updateReadingProgress_returns200Ok() throws Exception {
         var testUser = testUserFactory.createUser("user");
@@ -251,6 +395,183 @@ class ReadingProgressControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void updateReadingProgress_withCurrentETag_returns200Ok() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId())
+                .andReturn().getResponse().getHeader("ETag");
+
+        testClient.runAsUser(testUser)
+                .updateReadingProgress(
+                        testReadingItem.getId(),
+                        etag,
+                        UpdateReadingProgressRequest.builder().lastChapterRead(15).build())
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void updateReadingProgress_withETagBeforeReadingItemUpdate_returns200Ok() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId())
+                .andReturn().getResponse().getHeader("ETag");
+        readingItemService.updateReadingItem(testReadingItem.getId(), ReadingItem.builder().title("new book").build());
+
+        testClient.runAsUser(testUser)
+                .updateReadingProgress(
+                        testReadingItem.getId(),
+                        etag,
+                        UpdateReadingProgressRequest.builder().lastChapterRead(15).build())
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateReadingProgress_withOutdatedETag_returns409Conflict() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        var etag = testClient.runAsUser(testUser)
+                .getReadingProgress(testReadingItem.getId())
+                .andReturn().getResponse().getHeader("ETag");
+        testClient.runAsUser(testUser)
+                .updateReadingProgress(
+                        testReadingItem.getId(),
+                        etag,
+                        UpdateReadingProgressRequest.builder().lastChapterRead(15).build())
+                .andExpect(status().isOk());
+
+        testClient.runAsUser(testUser)
+                .updateReadingProgress(
+                        testReadingItem.getId(),
+                        etag,
+                        UpdateReadingProgressRequest.builder().lastChapterRead(12).build())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.type").value("CONFLICT_ERROR"));
+
+        var progress = testClient.parseResponse(
+                testClient.runAsUser(testUser).getReadingProgress(testReadingItem.getId()),
+                ReadingProgressDetailsDto.class);
+        assertThat(progress.getLastReadChapter()).isEqualTo(15);
+    }
+
+    @Test
+    void updateReadingProgressBatch_returnsResultPerEntry() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var existingReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, existingReadingItem);
+        var newReadingItem = testReadingItemFactory.createReadingItem("other book", "author");
+        var request = BatchUpdateReadingProgressRequest.builder()
+                .entries(List.of(
+                        batchEntry(existingReadingItem.getId(), 15),
+                        batchEntry(newReadingItem.getId(), 3),
+                        batchEntry(666L, 1)))
+                .build();
+
+        var result = testClient.runAsUser(testUser)
+                .updateReadingProgressBatch(request)
+                .andExpect(status().isOk());
+
+        var responseDto = testClient.parseResponse(
+                result, new TypeReference<List<ReadingProgressUpdateResultDto>>() {});
+        assertThat(responseDto).hasSize(3);
+        assertThat(responseDto.get(0).getReadingItemId()).isEqualTo(existingReadingItem.getId());
+        assertThat(responseDto.get(0).getStatus()).isEqualTo(UPDATED);
+        assertThat(responseDto.get(0).getProgress().getLastReadChapter()).isEqualTo(15);
+        assertThat(responseDto.get(1).getReadingItemId()).isEqualTo(newReadingItem.getId());
+        assertThat(responseDto.get(1).getStatus()).isEqualTo(CREATED);
+        assertThat(responseDto.get(1).getProgress().getReadingItem().getTitle()).isEqualTo("other book");
+        assertThat(responseDto.get(1).getProgress().getLastReadChapter()).isEqualTo(3);
+        assertThat(responseDto.get(2).getReadingItemId()).isEqualTo(666L);
+        assertThat(responseDto.get(2).getStatus()).isEqualTo(NOT_FOUND);
+        assertThat(responseDto.get(2).getProgress()).isNull();
+    }
+
+    @Test
+    void updateReadingProgressBatch_storesLastEntryPerReadingItem() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        var request = BatchUpdateReadingProgressRequest.builder()
+                .entries(List.of(
+                        batchEntry(testReadingItem.getId(), 3),
+                        batchEntry(testReadingItem.getId(), 4)))
+                .build();
+
+        var result = testClient.runAsUser(testUser)
+                .updateReadingProgressBatch(request)
+                .andExpect(status().isOk());
+
+        var responseDto = testClient.parseResponse(
+                result, new TypeReference<List<ReadingProgressUpdateResultDto>>() {});
+        assertThat(responseDto.get(0).getStatus()).isEqualTo(CREATED);
+        assertThat(responseDto.get(1).getStatus()).isEqualTo(UPDATED);
+        var storedProgress = testClient.parseResponse(
+                testClient.runAsUser(testUser).getReadingProgress(testReadingItem.getId()),
+                ReadingProgressDetailsDto.class);
+        assertThat(storedProgress.getLastReadChapter()).isEqualTo(4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateReadingProgressBatch_withConcurrentUpdate_returns409Conflict() throws Exception {
+        var testUser = testUserFactory.createUser("user");
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        testReadingProgressFactory.createReadingProgress(testUser, testReadingItem);
+        testClient.runAsUser(testUser)
+                .updateReadingProgress(
+                        testReadingItem.getId(), UpdateReadingProgressRequest.builder().lastChapterRead(15).build())
+                .andExpect(status().isOk());
+        // Read the progress as it was before that update, as if the update had been stored after the read
+        doAnswer(invocation -> ((List<ReadingProgressEntity>) invocation.callRealMethod()).stream()
+                .map(entity -> ReadingProgressEntity.builder()
+                        .id(entity.getId())
+                        .user(entity.getUser())
+                        .readingItem(entity.getReadingItem())
+                        .lastReadChapter(entity.getLastReadChapter())
+                        .version(entity.getVersion() - 1)
+                        .build())
+                .toList())
+                .when(progressRepository).findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(any(), any());
+        var request = BatchUpdateReadingProgressRequest.builder()
+                .entries(List.of(batchEntry(testReadingItem.getId(), 20)))
+                .build();
+
+        testClient.runAsUser(testUser)
+                .updateReadingProgressBatch(request)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.type").value("CONFLICT_ERROR"));
+    }
+
+    @Test
+    void updateReadingProgressBatch_withNegativeLastReadChapter_returns400BadRequest() throws Exception {
+        var testReadingItem = testReadingItemFactory.createReadingItem("book", "author");
+        var request = BatchUpdateReadingProgressRequest.builder()
+                .entries(List.of(batchEntry(testReadingItem.getId(), -1)))
+                .build();
+
+        testClient.runAsRegularUser()
+                .updateReadingProgressBatch(request)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateReadingProgressBatch_withTooManyEntries_returns400BadRequest() throws Exception {
+        var entries = new ArrayList<BatchUpdateReadingProgressEntry>();
+        for (long i = 0; i <= BatchUpdateReadingProgressRequest.MAX_ENTRIES; i++) {
+            entries.add(batchEntry(i, 1));
+        }
+        var request = BatchUpdateReadingProgressRequest.builder().entries(entries).build();
+
+        testClient.runAsRegularUser()
+                .updateReadingProgressBatch(request)
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteReadingProgress_returns204NoContent() throws Exception {
         var testUser = testUserFactory.createUser("user");
@@ -277,4 +598,11 @@ class ReadingProgressControllerTest {
                 .deleteReadingProgress(testReadingItem.getId())
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    private static BatchUpdateReadingProgressEntry batchEntry(long readingItemId, int lastReadChapter) {
+        return BatchUpdateReadingProgressEntry.builder()
+                .readingItemId(readingItemId)
+                .lastReadChapter(lastReadChapter)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.necrock.readingtracker.readingprogress.persistence;
 
 import com.necrock.readingtracker.exception.AlreadyExistsException;
 import com.necrock.readingtracker.exception.DatabaseException;
+import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.readingitem.common.ReadingItemType;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
@@ -16,6 +17,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+import static com.necrock.readingtracker.testsupport.persistence.QueryCountAssertions.assertStatementCount;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -126,6 +130,29 @@ class SafeReadingProgressRepositoryTest {
                 .isInstanceOf(AlreadyExistsException.class);
     }
 
+    @Test
+    void saveAllAndFlush_withExistingProgress_throwsAlreadyExistsException() {
+        UserEntity user = createUser();
+        ReadingItemEntity readingItem = createReadingItem();
+        repository.saveAndFlush(ReadingProgressEntity.builder()
+                .user(user)
+                .readingItem(readingItem)
+                .lastReadChapter(12)
+                .build());
+        var duplicateProgress = ReadingProgressEntity.builder()
+                .user(user)
+                .readingItem(readingItem)
+                .lastReadChapter(10)
+                .build();
+
+        assertThatThrownBy(() -> repository.saveAllAndFlush(List.of(duplicateProgress)))
+                .isInstanceOf(AlreadyExistsException.class)
+                .hasMessage(String.format(
+                        "Reading progress for user %d and reading item %d already exists",
+                        user.getId(),
+                        readingItem.getId()));
+    }
+
     @Test
     void save_withNewProgress_withUnknownUser_fails() {
         UserEntity unsavedUser = UserEntity.builder()
@@ -182,6 +209,52 @@ class SafeReadingProgressRepositoryTest {
         });
     }
 
+    @Test
+    void save_doesNotLoadProgressOfReadingItem() {
+        var readingItem = createReadingItem();
+        for (int i = 0; i < 3; i++) {
+            unsafeRepository.save(ReadingProgressEntity.builder()
+                    .user(createUser("reader" + i))
+                    .readingItem(readingItem)
+                    .lastReadChapter(i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        var managedReadingItem = entityManager.find(ReadingItemEntity.class, readingItem.getId());
+
+        repository.saveAndFlush(ReadingProgressEntity.builder()
+                .user(createUser())
+                .readingItem(managedReadingItem)
+                .lastReadChapter(10)
+                .build());
+
+        assertThat(managedReadingItem.isProgressLoaded()).isFalse();
+        assertThat(unsafeRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void delete_doesNotLoadProgressOfReadingItem() {
+        var readingItem = createReadingItem();
+        for (int i = 0; i < 3; i++) {
+            unsafeRepository.save(ReadingProgressEntity.builder()
+                    .user(createUser("reader" + i))
+                    .readingItem(readingItem)
+                    .lastReadChapter(i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        var managedReadingItem = entityManager.find(ReadingItemEntity.class, readingItem.getId());
+        var progress = unsafeRepository.findAll().getFirst();
+
+        repository.delete(progress);
+        entityManager.flush();
+
+        assertThat(managedReadingItem.isProgressLoaded()).isFalse();
+        assertThat(unsafeRepository.count()).isEqualTo(2);
+    }
+
     @Test
     void findById_withNonexistentId_returnsEmptyOptional() {
         var notFoundProgress = repository.findById(1L);
@@ -250,6 +323,147 @@ class SafeReadingProgressRepositoryTest {
         });
     }
 
+    @Test
+    void findWithUserAndReadingItemByUserIdAndReadingItemId_loadsAssociationsInOneStatement() {
+        var progress = repository.save(ReadingProgressEntity.builder()
+                .user(createUser())
+                .readingItem(createReadingItem())
+                .lastReadChapter(10)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertStatementCount(entityManager, 1, () -> {
+            var foundProgress = repository.findWithUserAndReadingItemByUserIdAndReadingItemId(
+                    progress.getUser().getId(),
+                    progress.getReadingItem().getId());
+            assertThat(foundProgress).hasValueSatisfying(found -> {
+                assertThat(found.getUser().getUsername()).isEqualTo("user");
+                assertThat(found.getReadingItem().getTitle()).isEqualTo("title");
+            });
+        });
+    }
+
+    @Test
+    void findAllWithUserAndReadingItemByUserId_loadsAssociationsInOneStatement() {
+        var user = createUser();
+        for (int i = 0; i < 10; i++) {
+            repository.save(ReadingProgressEntity.builder()
+                    .user(user)
+                    .readingItem(createReadingItem())
+                    .lastReadChapter(i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertStatementCount(entityManager, 1, () -> {
+            var foundProgressList = repository.findAllWithUserAndReadingItemByUserId(user.getId());
+            assertThat(foundProgressList).hasSize(10);
+            assertThat(foundProgressList).allSatisfy(foundProgress -> {
+                assertThat(foundProgress.getUser().getUsername()).isEqualTo("user");
+                assertThat(foundProgress.getReadingItem().getTitle()).isEqualTo("title");
+            });
+        });
+    }
+
+    @Test
+    void updateLastReadChapter_updatesInOneStatementAndIncrementsVersion() {
+        var progress = repository.save(ReadingProgressEntity.builder()
+                .user(createUser())
+                .readingItem(createReadingItem())
+                .lastReadChapter(10)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertStatementCount(entityManager, 1, () -> assertThat(repository.updateLastReadChapter(
+                progress.getUser().getId(), progress.getReadingItem().getId(), 12, progress.getVersion()))
+                .isTrue());
+
+        var updatedProgress = repository.findById(progress.getId()).orElseThrow();
+        assertThat(updatedProgress.getLastReadChapter()).isEqualTo(12);
+        assertThat(updatedProgress.getVersion()).isEqualTo(progress.getVersion() + 1);
+    }
+
+    @Test
+    void updateLastReadChapter_withOutdatedVersion_changesNothing() {
+        var progress = repository.save(ReadingProgressEntity.builder()
+                .user(createUser())
+                .readingItem(createReadingItem())
+                .lastReadChapter(10)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        var updated = repository.updateLastReadChapter(
+                progress.getUser().getId(), progress.getReadingItem().getId(), 12, progress.getVersion() - 1);
+
+        assertThat(updated).isFalse();
+        assertThat(repository.findById(progress.getId()).orElseThrow().getLastReadChapter()).isEqualTo(10);
+    }
+
+    @Test
+    void insert_insertsInOneStatementWithInitialVersion() {
+        var user = createUser();
+        var readingItem = createReadingItem();
+
+        var id = new Long[1];
+        assertStatementCount(entityManager, 1, () ->
+                id[0] = repository.insert(user.getId(), readingItem.getId(), 10));
+
+        var insertedProgress = repository.findById(id[0]).orElseThrow();
+        assertThat(insertedProgress.getUser().getId()).isEqualTo(user.getId());
+        assertThat(insertedProgress.getReadingItem().getId()).isEqualTo(readingItem.getId());
+        assertThat(insertedProgress.getLastReadChapter()).isEqualTo(10);
+        assertThat(insertedProgress.getVersion()).isEqualTo(0L);
+    }
+
+    @Test
+    void insert_thenUpdateLastReadChapter_matchesInitialVersion() {
+        var user = createUser();
+        var readingItem = createReadingItem();
+        repository.insert(user.getId(), readingItem.getId(), 10);
+
+        assertThat(repository.updateLastReadChapter(user.getId(), readingItem.getId(), 12, 0L)).isTrue();
+    }
+
+    @Test
+    void insert_doesNotReuseIdsOfSavedProgress() {
+        var readingItem = createReadingItem();
+        var savedProgress = repository.saveAndFlush(ReadingProgressEntity.builder()
+                .user(createUser("first"))
+                .readingItem(readingItem)
+                .build());
+
+        var insertedId = repository.insert(createUser("second").getId(), readingItem.getId(), null);
+        var laterSavedProgress = repository.saveAndFlush(ReadingProgressEntity.builder()
+                .user(createUser("third"))
+                .readingItem(readingItem)
+                .build());
+
+        assertThat(insertedId).isNotIn(savedProgress.getId(), laterSavedProgress.getId());
+    }
+
+    @Test
+    void insert_withUnknownReadingItem_throwsNotFoundException() {
+        var user = createUser();
+
+        assertThatThrownBy(() -> repository.insert(user.getId(), 404L, 10))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No reading item with id 404");
+    }
+
+    @Test
+    void insert_withExistingProgress_throwsAlreadyExistsException() {
+        var user = createUser();
+        var readingItem = createReadingItem();
+        repository.insert(user.getId(), readingItem.getId(), 10);
+
+        assertThatThrownBy(() -> repository.insert(user.getId(), readingItem.getId(), 11))
+                .isInstanceOf(AlreadyExistsException.class);
+    }
+
     @Test
     void deleteReadingItem_deletesReadingProgressForReadingItem() {
         var readingItem = createReadingItem();
@@ -268,9 +482,13 @@ class SafeReadingProgressRepositoryTest {
     }
 
     private UserEntity createUser() {
+        return createUser("user");
+    }
+
+    private UserEntity createUser(String username) {
         UserEntity user = UserEntity.builder()
-                .username("user")
-                .email("email@provider.com")
+                .username(username)
+                .email(username + "@provider.com")
                 .passwordHash("#hash")
                 .role(UserRole.USER)
                 .build();
@@ -1,34 +1,48 @@
 package com.necrock.readingtracker.readingprogress.service;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.necrock.readingtracker.exception.AlreadyExistsException;
+import com.necrock.readingtracker.exception.ConflictException;
+import com.necrock.readingtracker.exception.DatabaseException;
 import com.necrock.readingtracker.exception.NotFoundException;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemEntity;
 import com.necrock.readingtracker.readingitem.persistence.ReadingItemRepository;
+import com.necrock.readingtracker.readingitem.search.ReadingItemSuggestIndex;
+import com.necrock.readingtracker.readingitem.service.ReadingItemCache;
 import com.necrock.readingtracker.readingitem.service.model.ReadingItem;
 import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressEntity;
 import com.necrock.readingtracker.readingprogress.persistence.ReadingProgressRepository;
 import com.necrock.readingtracker.readingprogress.service.model.ReadingProgress;
+import com.necrock.readingtracker.readingprogress.service.model.ReadingProgressUpdateResult;
 import com.necrock.readingtracker.user.persistence.UserEntity;
 import com.necrock.readingtracker.user.persistence.UserRepository;
 import com.necrock.readingtracker.user.service.model.User;
 import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.CREATED;
+import static com.necrock.readingtracker.readingprogress.common.ReadingProgressUpdateStatus.UPDATED;
 import static com.necrock.readingtracker.testsupport.readingProgress.TestReadingProgress.testReadingProgressBuilder;
 import static com.necrock.readingtracker.testsupport.readingProgress.TestReadingProgressEntity.testReadingProgressEntityBuilder;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +51,10 @@ class ReadingProgressServiceTest {
 
     @Autowired
     private ReadingProgressService service;
+    @Autowired
+    private ReadingItemCache readingItemCache;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @MockitoBean
     private ReadingProgressRepository repository;
@@ -47,57 +65,58 @@ class ReadingProgressServiceTest {
     private ReadingItemRepository readingItemRepository;
     @MockitoBean
     private EntityManager entityManager;
+    @MockitoSpyBean
+    private ReadingItemSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void clearReadingItemCache() {
+        // The cache outlives the repository mocks, which every test stubs anew
+        readingItemCache.invalidateAll();
+    }
 
     @Test
-    void addReadingProgress_savesReadingProgress() {
+    void addReadingProgress_insertsReadingProgressWithoutReadingFirst() {
         User user = User.builder()
                 .id(69L)
                 .username("user")
                 .email("user@email.com")
                 .build();
         long readingItemId = 1337L;
-        ReadingItemEntity readingItemEntity = testReadingItem(readingItemId);
         ReadingProgress toSaveProgress = ReadingProgress.builder()
                 .readingItem(ReadingItem.builder().id(readingItemId))
                 .lastReadChapter(10)
                 .build();
 
-        when(readingItemRepository.findById(any(Long.class))).thenReturn(Optional.of(readingItemEntity));
-        when(entityManager.find(eq(ReadingItemEntity.class), any(Long.class))).thenReturn(readingItemEntity);
+        when(readingItemRepository.findById(any(Long.class))).thenReturn(Optional.of(testReadingItem(readingItemId)));
+        when(repository.insertProgress(any(Long.class), any(Long.class), any())).thenReturn(42L);
 
         service.addReadingProgress(user, toSaveProgress);
 
-        var captor = ArgumentCaptor.forClass(ReadingProgressEntity.class);
-        verify(repository).save(captor.capture());
-        ReadingProgressEntity savedEntity = captor.getValue();
-        assertThat(savedEntity.getId()).isNull();
-        assertThat(savedEntity.getUser().getId()).isEqualTo(user.getId());
-        assertThat(savedEntity.getReadingItem().getId()).isEqualTo(toSaveProgress.getReadingItem().getId());
-        assertThat(savedEntity.getReadingItem().getTitle()).isEqualTo(readingItemEntity.getTitle());
-        assertThat(savedEntity.getLastReadChapter()).isEqualTo(toSaveProgress.getLastReadChapter());
+        verify(repository).insertProgress(user.getId(), readingItemId, toSaveProgress.getLastReadChapter());
+        verify(repository, never()).findByUserIdAndReadingItemId(any(Long.class), any(Long.class));
+        verify(repository, never()).save(any(ReadingProgressEntity.class));
     }
 
     @Test
-    void addReadingProgress_returnsSavedReadingProgress() {
+    void addReadingProgress_returnsInsertedReadingProgress() {
         var userId = 69L;
         User user = User.builder().id(userId).build();
         var readingItemId = 1337L;
         ReadingItemEntity readingItemEntity = testReadingItem(readingItemId);
         ReadingProgress toSaveProgress =
                 testReadingProgressBuilder().readingItemId(readingItemId).build();
-        ReadingProgressEntity savedEntity =
-                testReadingProgressEntityBuilder()
-                        .id(42L).userId(userId).readingItem(readingItemEntity).build();
 
         when(readingItemRepository.findById(any(Long.class))).thenReturn(Optional.of(readingItemEntity));
-        when(entityManager.find(eq(ReadingItemEntity.class), any(Long.class))).thenReturn(readingItemEntity);
-
-        when(repository.save(any(ReadingProgressEntity.class)))
-                .thenReturn(savedEntity);
+        when(repository.insertProgress(any(Long.class), any(Long.class), any())).thenReturn(42L);
 
         var result = service.addReadingProgress(user, toSaveProgress);
 
-        assertReadingProgressMatchesEntity(result, savedEntity);
+        assertThat(result.getId()).isEqualTo(42L);
+        assertThat(result.getUser().getId()).isEqualTo(userId);
+        assertThat(result.getReadingItem().getId()).isEqualTo(readingItemId);
+        assertThat(result.getReadingItem().getTitle()).isEqualTo(readingItemEntity.getTitle());
+        assertThat(result.getLastReadChapter()).isEqualTo(toSaveProgress.getLastReadChapter());
+        assertThat(result.getVersion()).isEqualTo(0L);
     }
 
     @Test
@@ -106,7 +125,8 @@ class ReadingProgressServiceTest {
         User user = User.builder().id(userId).build();
         var readingItemId = 1337L;
 
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(UserEntity.builder().build()));
+        when(repository.insertProgress(any(Long.class), any(Long.class), any()))
+                .thenThrow(new DataIntegrityViolationException(ReadingProgressEntity.FK_READING_ITEM));
 
         assertThatThrownBy(() ->
                 service.addReadingProgress(user, testReadingProgressBuilder().readingItemId(readingItemId).build()))
@@ -119,13 +139,9 @@ class ReadingProgressServiceTest {
         var userId = 69L;
         User user = User.builder().id(userId).build();
         var readingItemId = 1337L;
-        ReadingItemEntity readingItemEntity = testReadingItem(readingItemId);
-
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.of(UserEntity.builder().build()));
-        when(readingItemRepository.findById(any(Long.class))).thenReturn(Optional.of(readingItemEntity));
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
-                .thenReturn(Optional.of(testReadingProgressEntityBuilder().build()));
+        when(repository.insertProgress(any(Long.class), any(Long.class), any()))
+                .thenThrow(new DataIntegrityViolationException(ReadingProgressEntity.UNIQUE_USER_READING_ITEM));
 
         assertThatThrownBy(() ->
                 service.addReadingProgress(user, testReadingProgressBuilder().readingItemId(readingItemId).build()))
@@ -136,25 +152,15 @@ class ReadingProgressServiceTest {
     }
 
     @Test
-    void addReadingProgress_withExistingUserAndReadingItemCombination_duringSave_throwsAlreadyExistsException() {
-        var userId = 69L;
-        User user = User.builder().id(userId).build();
-        var readingItemId = 1337L;
-        ReadingItemEntity readingItemEntity = testReadingItem(readingItemId);
-
-        when(readingItemRepository.findById(any(Long.class))).thenReturn(Optional.of(readingItemEntity));
-        when(entityManager.find(eq(ReadingItemEntity.class), any(Long.class))).thenReturn(readingItemEntity);
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class))).thenReturn(Optional.empty());
+    void addReadingProgress_withOtherIntegrityViolation_throwsDatabaseException() {
+        User user = User.builder().id(69L).build();
 
-        when(repository.save(any(ReadingProgressEntity.class)))
-                .thenThrow(new DataIntegrityViolationException(ReadingProgressEntity.UNIQUE_USER_READING_ITEM));
+        when(repository.insertProgress(any(Long.class), any(Long.class), any()))
+                .thenThrow(new DataIntegrityViolationException(ReadingProgressEntity.FK_USER));
 
         assertThatThrownBy(() ->
-                service.addReadingProgress(user, testReadingProgressBuilder().readingItemId(readingItemId).build()))
-                .isInstanceOf(AlreadyExistsException.class)
-                .hasMessage(
-                        "Reading progress for user " + userId + " and reading item " + readingItemId + " already " +
-                                "exists");
+                service.addReadingProgress(user, testReadingProgressBuilder().readingItemId(1337L).build()))
+                .isInstanceOf(DatabaseException.class);
     }
 
     @Test
@@ -164,14 +170,15 @@ class ReadingProgressServiceTest {
         ReadingProgressEntity entity =
                 testReadingProgressEntityBuilder().id(1L).userId(69L).readingItemId(readingItemId).build();
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
                 .thenReturn(Optional.of(entity));
 
         service.getReadingProgress(user, readingItemId);
 
         var userCaptor = ArgumentCaptor.forClass(Long.class);
         var readingItemCaptor = ArgumentCaptor.forClass(Long.class);
-        verify(repository).findByUserIdAndReadingItemId(userCaptor.capture(), readingItemCaptor.capture());
+        verify(repository).findWithUserAndReadingItemByUserIdAndReadingItemId(
+                userCaptor.capture(), readingItemCaptor.capture());
         assertThat(userCaptor.getValue()).isEqualTo(user.getId());
         assertThat(readingItemCaptor.getValue()).isEqualTo(readingItemId);
     }
@@ -183,7 +190,7 @@ class ReadingProgressServiceTest {
         ReadingProgressEntity entity =
                 testReadingProgressEntityBuilder().id(1L).userId(69L).readingItemId(readingItemId).build();
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
                 .thenReturn(Optional.of(entity));
 
         var result = service.getReadingProgress(user, readingItemId);
@@ -196,7 +203,7 @@ class ReadingProgressServiceTest {
         var user = User.builder().id(9999L).build();
         Long readingItemId = 666L;
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getReadingProgress(user, readingItemId))
@@ -211,7 +218,7 @@ class ReadingProgressServiceTest {
                 testReadingProgressEntityBuilder().id(1L).userId(69L).readingItemId(666L).build();
         ReadingProgressEntity progress2 =
                 testReadingProgressEntityBuilder().id(1L).userId(69L).readingItemId(1337L).build();
-        when(repository.findAllByUserId(any(Long.class)))
+        when(repository.findAllWithUserAndReadingItemByUserId(any(Long.class)))
                 .thenReturn(ImmutableList.of(progress1, progress2));
 
         var result = service.getAllReadingProgressForUser(User.builder().id(69L).build());
@@ -222,42 +229,28 @@ class ReadingProgressServiceTest {
     }
 
     @Test
-    void updateReadingProgress_appliesChanges() {
+    void updateReadingProgress_appliesChangesWithOneUpdate() {
         User user = User.builder().id(69L).build();
         Long readingItemId = 666L;
-        ReadingProgressEntity originalEntity =
-                testReadingProgressEntityBuilder()
-                        .lastReadChapter(10)
-                        .build();
         ReadingProgress updateMask =
                 ReadingProgress.builder()
                         .lastReadChapter(12)
                         .build();
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
-                .thenReturn(Optional.of(originalEntity));
-        ReadingItemEntity readingItemEntity = ReadingItemEntity.builder().build();
-        when(entityManager.find(eq(ReadingItemEntity.class), any(Long.class))).thenReturn(readingItemEntity);
+        when(repository.updateLastReadChapter(any(), any(), any(), any())).thenReturn(1);
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+                .thenReturn(Optional.of(testReadingProgressEntityBuilder().lastReadChapter(12).build()));
 
         service.updateReadingProgress(user, readingItemId, updateMask);
 
-        var captor = ArgumentCaptor.forClass(ReadingProgressEntity.class);
-        verify(repository).save(captor.capture());
-        ReadingProgressEntity updatedEntity = captor.getValue();
-        assertThat(updatedEntity.getId()).isEqualTo(originalEntity.getId());
-        assertThat(updatedEntity.getUser()).isEqualTo(originalEntity.getUser());
-        assertThat(updatedEntity.getReadingItem()).isEqualTo(originalEntity.getReadingItem());
-        assertThat(updatedEntity.getLastReadChapter()).isEqualTo(updatedEntity.getLastReadChapter());
+        verify(repository).updateLastReadChapter(user.getId(), readingItemId, 12, null);
+        verify(repository, never()).save(any(ReadingProgressEntity.class));
     }
 
     @Test
-    void updateReadingProgress_returnsNewlySavedReadingProgress() {
+    void updateReadingProgress_returnsStoredReadingProgress() {
         User user = User.builder().id(69L).build();
         Long readingItemId = 666L;
-        ReadingProgressEntity originalEntity =
-                testReadingProgressEntityBuilder()
-                        .lastReadChapter(10)
-                        .build();
         ReadingProgress updateMask =
                 ReadingProgress.builder()
                         .lastReadChapter(12)
@@ -267,24 +260,53 @@ class ReadingProgressServiceTest {
                         .lastReadChapter(12)
                         .build();
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
-                .thenReturn(Optional.of(originalEntity));
-        when(repository.save(any(ReadingProgressEntity.class)))
-                .thenReturn(updatedEntity);
-        ReadingItemEntity readingItemEntity = ReadingItemEntity.builder().build();
-        when(entityManager.find(eq(ReadingItemEntity.class), any(Long.class))).thenReturn(readingItemEntity);
+        when(repository.updateLastReadChapter(any(), any(), any(), any())).thenReturn(1);
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+                .thenReturn(Optional.of(updatedEntity));
 
         var result = service.updateReadingProgress(user, readingItemId, updateMask);
 
         assertReadingProgressMatchesEntity(result, updatedEntity);
     }
 
+    @Test
+    void updateReadingProgress_withVersion_updatesOnlyThatVersion() {
+        User user = User.builder().id(69L).build();
+        Long readingItemId = 666L;
+
+        when(repository.updateLastReadChapter(any(), any(), any(), any())).thenReturn(1);
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+                .thenReturn(Optional.of(testReadingProgressEntityBuilder().build()));
+
+        service.updateReadingProgress(
+                user, readingItemId, ReadingProgress.builder().lastReadChapter(12).version(7L).build());
+
+        verify(repository).updateLastReadChapter(user.getId(), readingItemId, 12, 7L);
+    }
+
+    @Test
+    void updateReadingProgress_withOutdatedVersion_throwsConflictException() {
+        User user = User.builder().id(69L).build();
+        Long readingItemId = 666L;
+
+        when(repository.updateLastReadChapter(any(), any(), any(), any())).thenReturn(0);
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+                .thenReturn(Optional.of(testReadingProgressEntityBuilder().build()));
+
+        assertThatThrownBy(() -> service.updateReadingProgress(
+                user, readingItemId, ReadingProgress.builder().lastReadChapter(12).version(7L).build()))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Reading progress for user " + user.getId() + " and reading item " + readingItemId
+                        + " was changed by another update");
+    }
+
     @Test
     void updateReadingProgress_withUnknownId_throwsNotFoundException() {
         User user = User.builder().id(69L).build();
         Long readingItemId = 666L;
 
-        when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
+        when(repository.updateLastReadChapter(any(), any(), any(), any())).thenReturn(0);
+        when(repository.findWithUserAndReadingItemByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.updateReadingProgress(user, readingItemId, testReadingProgressBuilder().build()))
@@ -293,6 +315,58 @@ class ReadingProgressServiceTest {
                         "No reading progress for user " + user.getId() + " and reading item " + readingItemId);
     }
 
+    @Test
+    void updateReadingProgressBatch_resolvesExistingProgressWithOneQuery() {
+        User user = User.builder().id(69L).build();
+        ReadingProgressEntity existingEntity =
+                testReadingProgressEntityBuilder().id(1L).userId(69L).readingItemId(666L).lastReadChapter(10).build();
+        var updates = ImmutableList.of(
+                ReadingProgress.builder().readingItem(ReadingItem.builder().id(666L)).lastReadChapter(12).build(),
+                ReadingProgress.builder().readingItem(ReadingItem.builder().id(1337L)).lastReadChapter(3).build());
+
+        when(repository.findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(any(Long.class), any()))
+                .thenReturn(ImmutableList.of(existingEntity));
+        when(readingItemRepository.findAllById(any())).thenReturn(ImmutableList.of(testReadingItem(1337L)));
+        when(entityManager.getReference(eq(ReadingItemEntity.class), any(Long.class)))
+                .thenReturn(ReadingItemEntity.builder().build());
+        when(repository.save(any(ReadingProgressEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var results = service.updateReadingProgressBatch(user, updates);
+
+        verify(repository).findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(
+                eq(69L), eq(ImmutableSet.of(666L, 1337L)));
+        verify(repository, never()).findByUserIdAndReadingItemId(any(Long.class), any(Long.class));
+        verify(repository).flush();
+        assertThat(results).extracting(ReadingProgressUpdateResult::status).containsExactly(UPDATED, CREATED);
+        assertThat(results.get(0).progress().getId()).isEqualTo(existingEntity.getId());
+        assertThat(results.get(0).progress().getLastReadChapter()).isEqualTo(12);
+        assertThat(results.get(1).progress().getReadingItem().getId()).isEqualTo(1337L);
+        assertThat(results.get(1).progress().getLastReadChapter()).isEqualTo(3);
+        verify(suggestIndex).addReaders(1337L, 1);
+        verify(suggestIndex, never()).addReaders(eq(666L), anyLong());
+    }
+
+    @Test
+    void updateReadingProgressBatch_withRolledBackTransaction_keepsReaderCounts() {
+        User user = User.builder().id(69L).build();
+        var updates = ImmutableList.of(
+                ReadingProgress.builder().readingItem(ReadingItem.builder().id(1337L)).lastReadChapter(3).build());
+
+        when(repository.findAllWithUserAndReadingItemByUserIdAndReadingItemIdIn(any(Long.class), any()))
+                .thenReturn(ImmutableList.of());
+        when(readingItemRepository.findAllById(any())).thenReturn(ImmutableList.of(testReadingItem(1337L)));
+        when(entityManager.getReference(eq(ReadingItemEntity.class), any(Long.class)))
+                .thenReturn(ReadingItemEntity.builder().build());
+        when(repository.save(any(ReadingProgressEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.updateReadingProgressBatch(user, updates);
+            status.setRollbackOnly();
+        });
+
+        verify(suggestIndex, never()).addReaders(anyLong(), anyLong());
+    }
+
     @Test
     void deleteReadingProgress_deletesReadingProgress() {
         User user = User.builder().id(69L).build();
@@ -302,7 +376,8 @@ class ReadingProgressServiceTest {
         when(repository.findByUserIdAndReadingItemId(any(Long.class), any(Long.class)))
                 .thenReturn(Optional.of(deletedEntity));
         ReadingItemEntity readingItemEntity = ReadingItemEntity.builder().build();
-        when(entityManager.find(eq(ReadingItemEntity.class), any(Long.class))).thenReturn(readingItemEntity);
+        when(entityManager.getReference(eq(ReadingItemEntity.class), any(Long.class)))
+                .thenReturn(readingItemEntity);
 
         service.deleteReadingProgress(user, readingItemId);
 
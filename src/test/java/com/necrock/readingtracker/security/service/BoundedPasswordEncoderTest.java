@@ -0,0 +1,127 @@
+package com.necrock.readingtracker.security.service;
+
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void encode_withConfiguredCost_producesMatchingHash() {
+        var properties = new AppProperties();
+        properties.setPasswordHashCost(4);
+        encoder = new BoundedPasswordEncoder(properties, meterRegistry);
+
+        var hash = encoder.encode("somePassword");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("somePassword", hash)).isTrue();
+        assertThat(encoder.matches("otherPassword", hash)).isFalse();
+    }
+
+    @Test
+    void encodeAndMatches_recordHashAndQueueWaitTimers() {
+        var properties = new AppProperties();
+        properties.setPasswordHashCost(4);
+        encoder = new BoundedPasswordEncoder(properties, meterRegistry);
+
+        var hash = encoder.encode("somePassword");
+        encoder.matches("somePassword", hash);
+        encoder.matches("otherPassword", hash);
+
+        var encodeTimer = meterRegistry.get(BoundedPasswordEncoder.HASH_TIMER).tag("operation", "encode").timer();
+        var matchesTimer = meterRegistry.get(BoundedPasswordEncoder.HASH_TIMER).tag("operation", "matches").timer();
+        assertThat(encodeTimer.count()).isEqualTo(1);
+        assertThat(matchesTimer.count()).isEqualTo(2);
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.QUEUE_WAIT_TIMER).timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void encode_withFullQueue_throwsServiceUnavailable() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var properties = new AppProperties();
+        properties.setPasswordHashThreads(1);
+        properties.setPasswordHashQueueCapacity(1);
+        properties.setPasswordHashRetryAfter(Duration.ofSeconds(3));
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), properties, meterRegistry);
+
+        var running = callers.submit(() -> encoder.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        var queued = callers.submit(() -> encoder.encode("second"));
+        awaitQueueSize(1);
+
+        assertThatThrownBy(() -> encoder.encode("third"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .extracting(ex -> ((ServiceUnavailableException) ex).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get(BoundedPasswordEncoder.REJECTED_COUNTER).counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("#first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("#second");
+    }
+
+    @Test
+    void encode_withDelegateFailure_rethrowsOriginalException() {
+        var properties = new AppProperties();
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), properties, meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        var gauge = meterRegistry.get(BoundedPasswordEncoder.QUEUE_SIZE_GAUGE).gauge();
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge.value() != size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(gauge.value()).isEqualTo(size);
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "#" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("#" + rawPassword);
+            }
+        };
+    }
+}
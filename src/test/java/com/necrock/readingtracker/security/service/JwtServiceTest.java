@@ -0,0 +1,193 @@
+package com.necrock.readingtracker.security.service;
+
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.common.UserStatus;
+import com.necrock.readingtracker.user.service.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtServiceTest {
+
+    private static final String SIGNING_KEY = "uPZ0+3cEBqxq4FWcpDUl8STUj5pp8CjU3+pMZrsuFpE=";
+    private static final String OTHER_SIGNING_KEY = "3cEBqxq4FWcpDUl8STUj5pp8CjU3+pMZrsuFpEuPZ0+=";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MutableClock clock;
+    private JwtService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2020-01-01T00:00:00Z"));
+        service = createService(SIGNING_KEY);
+    }
+
+    @Test
+    void getToken_withValidToken_returnsSubject() {
+        var token = service.generateToken(User.builder().username("user").build());
+
+        assertThat(service.getToken(token).getUsername()).isEqualTo("user");
+    }
+
+    @Test
+    void getToken_withRepeatedToken_returnsSubject() {
+        var token = service.generateToken(User.builder().username("user").build());
+
+        service.getToken(token);
+        var result = service.getToken(token);
+
+        assertThat(result.getUsername()).isEqualTo("user");
+        // Only the first call parses the token and checks its signature
+        assertThat(meterRegistry.get(JwtService.VERIFY_TIMER).tag("cache", "miss").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(JwtService.VERIFY_TIMER).tag("cache", "hit").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getToken_recordsFullAndCachedVerificationTimes() {
+        var token = service.generateToken(User.builder().username("user").build());
+
+        service.getToken(token);
+        service.getToken(token);
+        service.getToken(token);
+
+        assertThat(meterRegistry.get(JwtService.VERIFY_TIMER).tag("cache", "miss").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(JwtService.VERIFY_TIMER).tag("cache", "hit").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void getToken_withRepeatedTokenAfterExpiry_throwsExpiredJwtException() {
+        var token = service.generateToken(User.builder().username("user").build());
+        service.getToken(token);
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThatThrownBy(() -> service.getToken(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void getToken_withTokenSignedByOtherKey_throwsJwtException() {
+        var token = createService(OTHER_SIGNING_KEY).generateToken(User.builder().username("user").build());
+
+        assertThatThrownBy(() -> service.getToken(token))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void getUserDetails_withSelfContainedToken_readsUserFromClaims() {
+        var stampCache = mock(SecurityStampCache.class);
+        when(stampCache.get("user")).thenReturn(Optional.of("stamp1"));
+        var selfContainedService = createSelfContainedService(stampCache);
+        var token = selfContainedService.generateToken(selfContainedUser("stamp1"));
+
+        var result = selfContainedService.getToken(token);
+        result.validate();
+
+        assertThat(result.isSelfContained()).isTrue();
+        var user = ((CustomUserDetails) result.getUserDetails()).getUser();
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getRole()).isEqualTo(UserRole.ADMIN);
+        assertThat(user.getStatus()).isEqualTo(UserStatus.ACTIVE);
+    }
+
+    @Test
+    void validate_withSelfContainedTokenAndChangedStamp_throwsJwtException() {
+        var stampCache = mock(SecurityStampCache.class);
+        when(stampCache.get("user")).thenReturn(Optional.of("stamp2"));
+        var selfContainedService = createSelfContainedService(stampCache);
+        var token = selfContainedService.getToken(selfContainedService.generateToken(selfContainedUser("stamp1")));
+
+        assertThatThrownBy(token::validate)
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Token is no longer valid");
+    }
+
+    @Test
+    void validate_withSelfContainedTokenOfMissingUser_throwsJwtException() {
+        var stampCache = mock(SecurityStampCache.class);
+        when(stampCache.get("user")).thenReturn(Optional.empty());
+        var selfContainedService = createSelfContainedService(stampCache);
+        var token = selfContainedService.getToken(selfContainedService.generateToken(selfContainedUser("stamp1")));
+
+        assertThatThrownBy(token::validate)
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void generateToken_withSelfContainedTokensDisabled_omitsUserClaims() {
+        var token = service.generateToken(selfContainedUser("stamp1"));
+
+        assertThat(service.getToken(token).isSelfContained()).isFalse();
+    }
+
+    private static User selfContainedUser(String securityStamp) {
+        return User.builder()
+                .id(7L)
+                .username("user")
+                .role(UserRole.ADMIN)
+                .status(UserStatus.ACTIVE)
+                .securityStamp(securityStamp)
+                .build();
+    }
+
+    private JwtService createSelfContainedService(SecurityStampCache stampCache) {
+        var revocationList = mock(TokenRevocationList.class);
+        when(revocationList.isRevoked(anyString(), anyString(), any())).thenReturn(false);
+        var properties = new AppProperties();
+        properties.setSelfContainedTokens(true);
+        var key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SIGNING_KEY));
+        // No user details cache: a self-contained token must not need one
+        return new JwtService(key, clock, null, revocationList, stampCache, properties, meterRegistry);
+    }
+
+    private JwtService createService(String signingKey) {
+        var key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(signingKey));
+        return new JwtService(key, clock, null, null, null, new AppProperties(), meterRegistry);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
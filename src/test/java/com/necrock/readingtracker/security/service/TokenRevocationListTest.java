@@ -0,0 +1,123 @@
+package com.necrock.readingtracker.security.service;
+
+import com.necrock.readingtracker.configuration.AppProperties;
+import com.necrock.readingtracker.security.persistence.RevokedTokenEntity;
+import com.necrock.readingtracker.security.persistence.SafeRevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private static final Instant NOW = Instant.parse("2020-01-01T00:00:00.500Z");
+
+    private final SafeRevokedTokenRepository repository = mock(SafeRevokedTokenRepository.class);
+    private final AppProperties properties = new AppProperties();
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(repository, Clock.fixed(NOW, ZoneOffset.UTC), properties);
+    }
+
+    @Test
+    void isRevoked_withRevokedJti_returnsTrue() {
+        revocationList.revoke("jti-1", "user", NOW.plus(Duration.ofMinutes(5)));
+
+        assertThat(revocationList.isRevoked("jti-1", "user", NOW.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("jti-2", "user", NOW.minusSeconds(60))).isFalse();
+        verify(repository).save(any(RevokedTokenEntity.class));
+    }
+
+    @Test
+    void isRevoked_afterRevokeAll_rejectsTokensIssuedUpToRevocation() {
+        revocationList.revokeAll("user");
+
+        assertThat(revocationList.isRevoked("jti-1", "user", NOW.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("jti-2", "user", Instant.parse("2020-01-01T00:00:00Z"))).isTrue();
+        assertThat(revocationList.isRevoked("jti-3", "user", Instant.parse("2020-01-01T00:00:01Z"))).isFalse();
+        assertThat(revocationList.isRevoked("jti-4", "otherUser", NOW.minusSeconds(60))).isFalse();
+    }
+
+    @Test
+    void afterSingletonsInstantiated_loadsStoredRevocations() {
+        when(repository.findAllUnexpired(NOW)).thenReturn(List.of(
+                RevokedTokenEntity.builder()
+                        .jti("jti-1")
+                        .username("user")
+                        .revokedAt(NOW)
+                        .expiresAt(NOW.plusSeconds(60))
+                        .build(),
+                RevokedTokenEntity.builder()
+                        .username("otherUser")
+                        .revokedAt(NOW.minusSeconds(10))
+                        .expiresAt(NOW.plusSeconds(60))
+                        .build()));
+
+        revocationList.afterSingletonsInstantiated();
+
+        verify(repository).deleteExpired(NOW);
+        assertThat(revocationList.isRevoked("jti-1", "user", NOW.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("jti-2", "otherUser", NOW.minusSeconds(60))).isTrue();
+        assertThat(revocationList.isRevoked("jti-3", "otherUser", NOW)).isFalse();
+    }
+
+    @Test
+    void revoke_pastFilterCapacity_rebuildsWithoutLosingRevocations() {
+        properties.setRevokedTokenFilterCapacity(2);
+        revocationList = new TokenRevocationList(repository, Clock.fixed(NOW, ZoneOffset.UTC), properties);
+        var expiresAt = NOW.plusSeconds(60);
+        when(repository.findAllUnexpired(NOW)).thenReturn(List.of(
+                revokedToken("jti-1", expiresAt),
+                revokedToken("jti-2", expiresAt),
+                revokedToken("jti-3", expiresAt)));
+
+        revocationList.revoke("jti-1", "user", expiresAt);
+        revocationList.revoke("jti-2", "user", expiresAt);
+        revocationList.revoke("jti-3", "user", expiresAt);
+
+        verify(repository, atLeastOnce()).deleteExpired(NOW);
+        assertThat(revocationList.isRevoked("jti-1", "user", NOW)).isTrue();
+        assertThat(revocationList.isRevoked("jti-2", "user", NOW)).isTrue();
+        assertThat(revocationList.isRevoked("jti-3", "user", NOW)).isTrue();
+        assertThat(revocationList.isRevoked("jti-4", "user", NOW)).isFalse();
+    }
+
+    @Test
+    void afterSingletonsInstantiated_withRevocationWhileLoading_keepsRevocation() {
+        var expiresAt = NOW.plusSeconds(60);
+        when(repository.findAllUnexpired(NOW)).thenAnswer(invocation -> {
+            // Revoking must not wait for the database read to finish
+            var revoking = Thread.ofVirtual().start(() -> revocationList.revoke("jti-2", "user", expiresAt));
+            revoking.join(Duration.ofSeconds(5));
+            assertThat(revoking.isAlive()).isFalse();
+            return List.of(revokedToken("jti-1", expiresAt));
+        });
+
+        revocationList.afterSingletonsInstantiated();
+
+        assertThat(revocationList.isRevoked("jti-1", "user", NOW)).isTrue();
+        assertThat(revocationList.isRevoked("jti-2", "user", NOW)).isTrue();
+    }
+
+    private static RevokedTokenEntity revokedToken(String jti, Instant expiresAt) {
+        return RevokedTokenEntity.builder()
+                .jti(jti)
+                .username("user")
+                .revokedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
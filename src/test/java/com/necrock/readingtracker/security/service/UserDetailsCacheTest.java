@@ -0,0 +1,114 @@
+package com.necrock.readingtracker.security.service;
+
+import com.necrock.readingtracker.testsupport.configuration.TestTimeConfig;
+import com.necrock.readingtracker.user.common.UserRole;
+import com.necrock.readingtracker.user.common.UserStatus;
+import com.necrock.readingtracker.user.persistence.UserEntity;
+import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static com.necrock.readingtracker.user.common.UserRole.ADMIN;
+import static com.necrock.readingtracker.user.common.UserRole.USER;
+import static com.necrock.readingtracker.user.common.UserStatus.ACTIVE;
+import static com.necrock.readingtracker.user.common.UserStatus.DELETED;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Import(TestTimeConfig.class)
+@SpringBootTest
+class UserDetailsCacheTest {
+
+    @Autowired
+    private UserDetailsCache cache;
+    @Autowired
+    private UserService userService;
+
+    @MockitoBean
+    private UserRepository repository;
+
+    @Test
+    void get_calledTwice_loadsUserOnce() {
+        var username = "cached-user";
+        when(repository.findByUsername(username)).thenReturn(Optional.of(testUserEntity(1L, username)));
+
+        cache.get(username);
+        var result = cache.get(username);
+
+        assertThat(result.getUsername()).isEqualTo(username);
+        verify(repository, times(1)).findByUsername(username);
+    }
+
+    @Test
+    void get_afterSetUserStatus_reloadsUser() {
+        var id = 2L;
+        var username = "status-user";
+        var userEntity = testUserEntity(id, username);
+        when(repository.findByUsername(username)).thenReturn(Optional.of(userEntity));
+        when(repository.findById(id)).thenReturn(Optional.of(userEntity));
+        when(repository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cache.get(username);
+        userService.setUserStatus(id, DELETED);
+        when(repository.findByUsername(username))
+                .thenReturn(Optional.of(testUserEntity(id, username, USER, DELETED)));
+        var result = cache.get(username);
+
+        assertThat(result.isEnabled()).isFalse();
+        verify(repository, times(2)).findByUsername(username);
+    }
+
+    @Test
+    void get_afterSetUserRole_reloadsUser() {
+        var id = 3L;
+        var username = "role-user";
+        var userEntity = testUserEntity(id, username);
+        when(repository.findByUsername(username)).thenReturn(Optional.of(userEntity));
+        when(repository.findById(id)).thenReturn(Optional.of(userEntity));
+        when(repository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cache.get(username);
+        userService.setUserRole(id, ADMIN);
+        when(repository.findByUsername(username))
+                .thenReturn(Optional.of(testUserEntity(id, username, ADMIN, ACTIVE)));
+        var result = cache.get(username);
+
+        assertThat(result.getUser().getRole()).isEqualTo(ADMIN);
+        verify(repository, times(2)).findByUsername(username);
+    }
+
+    @Test
+    void get_withUnknownUsername_throwsUsernameNotFoundException() {
+        when(repository.findByUsername(any(String.class))).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.get("unknown-user"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private static UserEntity testUserEntity(long id, String username) {
+        return testUserEntity(id, username, USER, ACTIVE);
+    }
+
+    private static UserEntity testUserEntity(long id, String username, UserRole role, UserStatus status) {
+        return UserEntity.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@provider.com")
+                .passwordHash("#hash")
+                .status(status)
+                .role(role)
+                .createdAt(TestTimeConfig.NOW)
+                .build();
+    }
+}
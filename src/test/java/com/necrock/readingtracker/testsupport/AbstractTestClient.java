@@ -6,6 +6,7 @@ import com.necrock.readingtracker.security.service.JwtService;
 import com.necrock.readingtracker.testsupport.user.TestUserFactory;
 import com.necrock.readingtracker.user.persistence.UserEntity;
 import com.necrock.readingtracker.user.service.model.User;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -59,6 +60,14 @@ public abstract class AbstractTestClient<T extends AbstractTestClient<T>> {
                         .content(json));
     }
 
+    protected ResultActions post(String url, MediaType contentType, String content) throws Exception {
+        return mvc.perform(
+                MockMvcRequestBuilders.post(url)
+                        .header("Authorization", "Bearer " + getAuthToken())
+                        .contentType(contentType)
+                        .content(content));
+    }
+
     protected <C> ResultActions patch(String url, C content) throws Exception {
         String json = objectMapper.writeValueAsString(content);
         return mvc.perform(
@@ -68,6 +77,16 @@ public abstract class AbstractTestClient<T extends AbstractTestClient<T>> {
                         .content(json));
     }
 
+    protected <C> ResultActions patch(String url, String ifMatch, C content) throws Exception {
+        String json = objectMapper.writeValueAsString(content);
+        return mvc.perform(
+                MockMvcRequestBuilders.patch(url)
+                        .header("Authorization", "Bearer " + getAuthToken())
+                        .header("If-Match", ifMatch)
+                        .contentType(APPLICATION_JSON)
+                        .content(json));
+    }
+
     protected <C> ResultActions put(String url, C content) throws Exception {
         String json = objectMapper.writeValueAsString(content);
         return mvc.perform(
@@ -83,6 +102,13 @@ public abstract class AbstractTestClient<T extends AbstractTestClient<T>> {
                         .header("Authorization", "Bearer " + getAuthToken()));
     }
 
+    protected ResultActions get(String url, String ifNoneMatch) throws Exception {
+        return mvc.perform(
+                MockMvcRequestBuilders.get(url)
+                        .header("Authorization", "Bearer " + getAuthToken())
+                        .header("If-None-Match", ifNoneMatch));
+    }
+
     protected ResultActions delete(String url) throws Exception {
         return mvc.perform(
                 MockMvcRequestBuilders.delete(url)
@@ -2,11 +2,14 @@ package com.necrock.readingtracker.testsupport.auth;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.necrock.readingtracker.auth.api.dto.LoginRequest;
+import com.necrock.readingtracker.auth.api.dto.LogoutRequest;
+import com.necrock.readingtracker.auth.api.dto.RefreshRequest;
 import com.necrock.readingtracker.auth.api.dto.RegisterRequest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,6 +37,36 @@ public class AuthTestClient {
                 .content(json));
     }
 
+    public ResultActions login(LoginRequest request, String remoteAddress) throws Exception {
+        String json = objectMapper.writeValueAsString(request);
+        return mvc.perform(post("/auth/login")
+                .with(fromAddress(remoteAddress))
+                .contentType(APPLICATION_JSON)
+                .content(json));
+    }
+
+    private static RequestPostProcessor fromAddress(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+
+    public ResultActions refresh(RefreshRequest request) throws Exception {
+        String json = objectMapper.writeValueAsString(request);
+        return mvc.perform(post("/auth/refresh")
+                .contentType(APPLICATION_JSON)
+                .content(json));
+    }
+
+    public ResultActions logout(String accessToken, LogoutRequest request) throws Exception {
+        String json = objectMapper.writeValueAsString(request);
+        return mvc.perform(post("/auth/logout")
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(APPLICATION_JSON)
+                .content(json));
+    }
+
     public <T> T parseResponse(ResultActions resultActions, Class<T> responseType) throws Exception {
         String content = resultActions.andReturn().getResponse().getContentAsString();
         return objectMapper.readValue(content, responseType);
@@ -0,0 +1,39 @@
+package com.necrock.readingtracker.testsupport.persistence;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements Hibernate prepares while running an action, to catch N+1 query regressions.
+ */
+public class QueryCountAssertions {
+
+    private QueryCountAssertions() {}
+
+    public static long countStatements(EntityManager entityManager, Runnable action) {
+        var statistics = getStatistics(entityManager);
+        var wasEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            action.run();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            // The session factory is shared by every test in the cached context
+            statistics.setStatisticsEnabled(wasEnabled);
+        }
+    }
+
+    public static void assertStatementCount(EntityManager entityManager, long expectedCount, Runnable action) {
+        assertThat(countStatements(entityManager, action))
+                .as("number of SQL statements")
+                .isEqualTo(expectedCount);
+    }
+
+    private static Statistics getStatistics(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
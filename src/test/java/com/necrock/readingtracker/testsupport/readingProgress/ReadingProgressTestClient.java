@@ -1,6 +1,7 @@
 package com.necrock.readingtracker.testsupport.readingProgress;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.necrock.readingtracker.readingprogress.api.dto.BatchUpdateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.CreateReadingProgressRequest;
 import com.necrock.readingtracker.readingprogress.api.dto.UpdateReadingProgressRequest;
 import com.necrock.readingtracker.security.service.JwtService;
@@ -30,6 +31,15 @@ public class ReadingProgressTestClient extends AbstractTestClient<ReadingProgres
         return patch("/api/progress/" + readingItemId, dto);
     }
 
+    public ResultActions updateReadingProgress(
+            long readingItemId, String ifMatch, UpdateReadingProgressRequest dto) throws Exception {
+        return patch("/api/progress/" + readingItemId, ifMatch, dto);
+    }
+
+    public ResultActions updateReadingProgressBatch(BatchUpdateReadingProgressRequest dto) throws Exception {
+        return post("/api/progress/batch", dto);
+    }
+
     public ResultActions deleteReadingProgress(long readingItemId) throws Exception {
         return delete("/api/progress/" + readingItemId);
     }
@@ -38,10 +48,22 @@ public class ReadingProgressTestClient extends AbstractTestClient<ReadingProgres
         return get("/api/progress/" + readingItemId);
     }
 
+    public ResultActions getReadingProgress(long readingItemId, String ifNoneMatch) throws Exception {
+        return get("/api/progress/" + readingItemId, ifNoneMatch);
+    }
+
     public ResultActions listReadingProgress() throws Exception {
         return get("/api/progress");
     }
 
+    public ResultActions listReadingProgress(String ifNoneMatch) throws Exception {
+        return get("/api/progress", ifNoneMatch);
+    }
+
+    public ResultActions exportReadingProgress() throws Exception {
+        return get("/api/progress/export");
+    }
+
     @TestConfiguration
     @Import(TestUserFactory.Config.class)
     public static class Config {
@@ -9,6 +9,7 @@ import com.necrock.readingtracker.testsupport.user.TestUserFactory;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
@@ -26,10 +27,18 @@ public class ReadingItemTestClient extends AbstractTestClient<ReadingItemTestCli
         return post("/api/items", dto);
     }
 
+    public ResultActions importReadingItems(MediaType contentType, String content) throws Exception {
+        return post("/api/items/import", contentType, content);
+    }
+
     public ResultActions updateReadingItem(long id, UpdateReadingItemRequest dto) throws Exception {
         return patch("/api/items/" + id, dto);
     }
 
+    public ResultActions updateReadingItem(long id, String ifMatch, UpdateReadingItemRequest dto) throws Exception {
+        return patch("/api/items/" + id, ifMatch, dto);
+    }
+
     public ResultActions deleteReadingItem(long id) throws Exception {
         return delete("/api/items/" + id);
     }
@@ -38,10 +47,31 @@ public class ReadingItemTestClient extends AbstractTestClient<ReadingItemTestCli
         return get("/api/items/" + id);
     }
 
+    public ResultActions getReadingItem(long id, String ifNoneMatch) throws Exception {
+        return get("/api/items/" + id, ifNoneMatch);
+    }
+
     public ResultActions listReadingItems() throws Exception {
         return get("/api/items");
     }
 
+    public ResultActions listReadingItems(String ifNoneMatch) throws Exception {
+        return get("/api/items", ifNoneMatch);
+    }
+
+    public ResultActions listReadingItems(String sort, int pageSize, String pageToken) throws Exception {
+        var url = "/api/items?sort=" + sort + "&pageSize=" + pageSize;
+        return get(pageToken == null ? url : url + "&pageToken=" + pageToken);
+    }
+
+    public ResultActions searchReadingItems(String query) throws Exception {
+        return get("/api/items/search?q=" + query);
+    }
+
+    public ResultActions suggestReadingItems(String prefix) throws Exception {
+        return get("/api/items/suggest?prefix=" + prefix);
+    }
+
     @TestConfiguration
     @Import(TestUserFactory.Config.class)
     public static class Config {
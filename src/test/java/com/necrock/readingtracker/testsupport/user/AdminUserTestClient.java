@@ -29,6 +29,10 @@ public class AdminUserTestClient extends AbstractTestClient<AdminUserTestClient>
         return put("/api/users/" + id + "/status", request);
     }
 
+    public ResultActions revokeTokens(long id) throws Exception {
+        return post("/api/users/" + id + "/revoke-tokens", "");
+    }
+
     public ResultActions setUserRole(long id, UpdateUserRoleRequest request) throws Exception {
         return put("/api/users/" + id + "/role", request);
     }
@@ -1,5 +1,6 @@
 package com.necrock.readingtracker.testsupport.user;
 
+import com.necrock.readingtracker.security.service.UserDetailsCache;
 import com.necrock.readingtracker.user.common.UserRole;
 import com.necrock.readingtracker.user.common.UserStatus;
 import com.necrock.readingtracker.user.persistence.UserEntity;
@@ -16,14 +17,17 @@ public class TestUserFactory {
     private final UserRepository repository;
     private final PasswordEncoder passwordEncoder;
     private final Clock clock;
+    private final UserDetailsCache userDetailsCache;
 
     private TestUserFactory(
             UserRepository repository,
             PasswordEncoder passwordEncoder,
-            Clock clock) {
+            Clock clock,
+            UserDetailsCache userDetailsCache) {
         this.repository = repository;
         this.passwordEncoder = passwordEncoder;
         this.clock = clock;
+        this.userDetailsCache = userDetailsCache;
     }
 
     public UserEntity createUser(String username) {
@@ -35,6 +39,8 @@ public class TestUserFactory {
     }
 
     public UserEntity createUser(String username, UserRole role, UserStatus status) {
+        // Users are written straight to the repository, so make sure no stale details are used to authenticate
+        userDetailsCache.invalidate(username);
         var maybeUser = repository.findByUsername(username);
         return maybeUser.map(userEntity -> overrideExistingUser(userEntity, role, status))
                 .orElseGet(() -> createNewUser(username, role, status));
@@ -71,8 +77,9 @@ public class TestUserFactory {
         public TestUserFactory testUserFactory(
                 UserRepository repository,
                 PasswordEncoder passwordEncoder,
-                Clock clock) {
-            return new TestUserFactory(repository, passwordEncoder, clock);
+                Clock clock,
+                UserDetailsCache userDetailsCache) {
+            return new TestUserFactory(repository, passwordEncoder, clock, userDetailsCache);
         }
     }
 }
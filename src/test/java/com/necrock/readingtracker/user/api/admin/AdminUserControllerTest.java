@@ -1,5 +1,6 @@
 package com.necrock.readingtracker.user.api.admin;
 
+import com.necrock.readingtracker.security.service.JwtService;
 import com.necrock.readingtracker.testsupport.user.AdminUserTestClient;
 import com.necrock.readingtracker.testsupport.user.TestUserFactory;
 import com.necrock.readingtracker.user.api.admin.dto.AdminUserDetailsDto;
@@ -9,6 +10,8 @@ import com.necrock.readingtracker.user.common.UserRole;
 import com.necrock.readingtracker.user.common.UserStatus;
 import com.necrock.readingtracker.user.persistence.UserEntity;
 import com.necrock.readingtracker.user.persistence.UserRepository;
+import com.necrock.readingtracker.user.service.model.User;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +21,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +38,8 @@ class AdminUserControllerTest {
     TestUserFactory testUserFactory;
     @Autowired
     UserRepository userRepository;
+    @Autowired
+    JwtService jwtService;
 
     @Test
     public void getUser_returns200Ok() throws Exception {
@@ -125,4 +131,29 @@ class AdminUserControllerTest {
     private UserEntity getCurrentUser(UserEntity testUser) {
         return userRepository.findById(testUser.getId()).orElseThrow();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void revokeTokens_returns204NoContent() throws Exception {
+        var testUser = testUserFactory.createUser("revoke-tokens-user");
+
+        testClient.runAsAdmin().revokeTokens(testUser.getId())
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void revokeTokens_rejectsTokensIssuedBefore() throws Exception {
+        var testUser = testUserFactory.createUser("revoke-tokens-rejected-user");
+        var token = jwtService.generateToken(User.builder().username(testUser.getUsername()).build());
+
+        testClient.runAsAdmin().revokeTokens(testUser.getId());
+
+        assertThatThrownBy(() -> jwtService.getToken(token).validate())
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    public void revokeTokens_withUnknownId_returns404NotFound() throws Exception {
+        testClient.runAsAdmin().revokeTokens(98765)
+                .andExpect(status().isNotFound());
+    }
+}
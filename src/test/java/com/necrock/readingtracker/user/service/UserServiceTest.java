@@ -58,6 +58,7 @@ class UserServiceTest {
         assertThat(savedUserEntity.getRole()).isEqualTo(USER);
         assertThat(savedUserEntity.getStatus()).isEqualTo(ACTIVE);
         assertThat(savedUserEntity.getCreatedAt()).isEqualTo(TestTimeConfig.NOW);
+        assertThat(savedUserEntity.getSecurityStamp()).isNotBlank();
     }
 
     @Test
@@ -252,6 +253,7 @@ class UserServiceTest {
         assertThat(savedUserEntity.getEmail()).isEqualTo(originalUserEntity.getEmail());
         assertThat(savedUserEntity.getRole()).isEqualTo(originalUserEntity.getRole());
         assertThat(savedUserEntity.getStatus()).isEqualTo(originalUserEntity.getStatus());
+        assertThat(savedUserEntity.getSecurityStamp()).isNotNull().isNotEqualTo(originalUserEntity.getSecurityStamp());
     }
 
     @Test
@@ -286,6 +288,7 @@ class UserServiceTest {
         assertThat(savedUserEntity.getPasswordHash()).isEqualTo(originalUserEntity.getPasswordHash());
         assertThat(savedUserEntity.getRole()).isEqualTo(originalUserEntity.getRole());
         assertThat(savedUserEntity.getStatus()).isEqualTo(ACTIVE);
+        assertThat(savedUserEntity.getSecurityStamp()).isNotNull().isNotEqualTo(originalUserEntity.getSecurityStamp());
     }
 
     @Test
@@ -320,6 +323,7 @@ class UserServiceTest {
         assertThat(savedUserEntity.getPasswordHash()).isEqualTo(originalUserEntity.getPasswordHash());
         assertThat(savedUserEntity.getRole()).isEqualTo(USER);
         assertThat(savedUserEntity.getStatus()).isEqualTo(originalUserEntity.getStatus());
+        assertThat(savedUserEntity.getSecurityStamp()).isNotNull().isNotEqualTo(originalUserEntity.getSecurityStamp());
     }
 
     @Test
@@ -385,7 +389,8 @@ class UserServiceTest {
                 .email("email@provider.com")
                 .passwordHash("#hash")
                 .status(ACTIVE)
-                .role(USER);
+                .role(USER)
+                .securityStamp("stamp");
         overrides.accept(builder);
         return builder.build();
     }